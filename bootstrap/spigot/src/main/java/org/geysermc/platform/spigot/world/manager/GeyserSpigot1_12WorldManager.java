@@ -32,12 +32,9 @@ import com.viaversion.viaversion.api.protocol.ProtocolPathEntry;
 import com.viaversion.viaversion.api.protocol.version.ProtocolVersion;
 import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.Protocol1_13To1_12_2;
 import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.storage.BlockStorage;
-import org.bukkit.Bukkit;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
-import org.geysermc.connector.network.session.GeyserSession;
-import org.geysermc.connector.network.translators.world.block.BlockStateValues;
 
 import java.util.List;
 
@@ -65,21 +62,6 @@ public class GeyserSpigot1_12WorldManager extends GeyserSpigotWorldManager {
                 ProtocolVersion.v1_13.getVersion());
     }
 
-    @Override
-    public int getBlockAt(GeyserSession session, int x, int y, int z) {
-        Player player = Bukkit.getPlayer(session.getPlayerEntity().getUsername());
-        if (player == null) {
-            return BlockStateValues.JAVA_AIR_ID;
-        }
-        if (!player.getWorld().isChunkLoaded(x >> 4, z >> 4)) {
-            // Prevent nasty async errors if a player is loading in
-            return BlockStateValues.JAVA_AIR_ID;
-        }
-
-        Block block = player.getWorld().getBlockAt(x, y, z);
-        return getBlockNetworkId(player, block, x, y, z);
-    }
-
     @Override
     @SuppressWarnings("deprecation")
     public int getBlockNetworkId(Player player, Block block, int x, int y, int z) {
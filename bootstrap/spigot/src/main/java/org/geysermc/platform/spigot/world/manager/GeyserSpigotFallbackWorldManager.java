@@ -25,6 +25,7 @@
 
 package org.geysermc.platform.spigot.world.manager;
 
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 import org.geysermc.connector.network.session.GeyserSession;
 import org.geysermc.connector.network.translators.world.block.BlockStateValues;
@@ -40,7 +41,7 @@ public class GeyserSpigotFallbackWorldManager extends GeyserSpigotWorldManager {
     }
 
     @Override
-    public int getBlockAt(GeyserSession session, int x, int y, int z) {
+    public int getBlockAt(Player player, int x, int y, int z) {
         return BlockStateValues.JAVA_AIR_ID;
     }
 
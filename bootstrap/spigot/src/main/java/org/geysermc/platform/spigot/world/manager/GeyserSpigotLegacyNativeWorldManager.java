@@ -33,7 +33,7 @@ import com.viaversion.viaversion.api.protocol.version.ProtocolVersion;
 import it.unimi.dsi.fastutil.ints.Int2IntMap;
 import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
 import it.unimi.dsi.fastutil.ints.IntList;
-import org.geysermc.connector.network.session.GeyserSession;
+import org.bukkit.entity.Player;
 import org.geysermc.platform.spigot.GeyserSpigotPlugin;
 
 import java.util.List;
@@ -66,8 +66,8 @@ public class GeyserSpigotLegacyNativeWorldManager extends GeyserSpigotNativeWorl
     }
 
     @Override
-    public int getBlockAt(GeyserSession session, int x, int y, int z) {
-        int nativeBlockId = super.getBlockAt(session, x, y, z);
+    public int getBlockAt(Player player, int x, int y, int z) {
+        int nativeBlockId = super.getBlockAt(player, x, y, z);
         return oldToNewBlockId.getOrDefault(nativeBlockId, nativeBlockId);
     }
 
@@ -26,6 +26,8 @@
 package org.geysermc.platform.spigot.world.manager;
 
 import com.github.steveice10.mc.protocol.MinecraftConstants;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.nukkitx.math.vector.Vector3i;
 import com.nukkitx.nbt.NbtMap;
 import com.nukkitx.nbt.NbtMapBuilder;
@@ -45,9 +47,11 @@ import org.geysermc.connector.network.translators.world.GeyserWorldManager;
 import org.geysermc.connector.network.translators.world.block.BlockStateValues;
 import org.geysermc.connector.registry.BlockRegistries;
 import org.geysermc.connector.utils.BlockEntityUtils;
+import org.geysermc.connector.utils.BlockPositionIterator;
 import org.geysermc.connector.utils.GameRule;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -61,6 +65,14 @@ public class GeyserSpigotWorldManager extends GeyserWorldManager {
 
     private final Plugin plugin;
 
+    /**
+     * The Bukkit player of each session, as looking a player up by name can mean going through every online player
+     */
+    private final Cache<GeyserSession, Player> bukkitPlayers = CacheBuilder.newBuilder()
+            .weakKeys()
+            .weakValues()
+            .build();
+
     public GeyserSpigotWorldManager(Plugin plugin) {
         this.plugin = plugin;
     }
@@ -68,9 +80,32 @@ public class GeyserSpigotWorldManager extends GeyserWorldManager {
     @Override
     public int getBlockAt(GeyserSession session, int x, int y, int z) {
         Player bukkitPlayer;
-        if ((bukkitPlayer = Bukkit.getPlayer(session.getPlayerEntity().getUsername())) == null) {
+        if ((bukkitPlayer = getBukkitPlayer(session)) == null) {
             return BlockStateValues.JAVA_AIR_ID;
         }
+        return getBlockAt(bukkitPlayer, x, y, z);
+    }
+
+    @Override
+    public int[] getBlocksAt(GeyserSession session, BlockPositionIterator iter) {
+        int[] blocks = new int[iter.getSize()];
+        Player bukkitPlayer;
+        if ((bukkitPlayer = getBukkitPlayer(session)) == null) {
+            Arrays.fill(blocks, BlockStateValues.JAVA_AIR_ID);
+            return blocks;
+        }
+
+        for (iter.reset(); iter.hasNext(); iter.next()) {
+            blocks[iter.getIndex()] = getBlockAt(bukkitPlayer, iter.getX(), iter.getY(), iter.getZ());
+        }
+        iter.reset();
+        return blocks;
+    }
+
+    /**
+     * Gets the Java block state at the specified location in the player's world
+     */
+    public int getBlockAt(Player bukkitPlayer, int x, int y, int z) {
         World world = bukkitPlayer.getWorld();
         if (!world.isChunkLoaded(x >> 4, z >> 4)) {
             // If the chunk isn't loaded, how could we even be here?
@@ -80,6 +115,20 @@ public class GeyserSpigotWorldManager extends GeyserWorldManager {
         return getBlockNetworkId(bukkitPlayer, world.getBlockAt(x, y, z), x, y, z);
     }
 
+    /**
+     * @return the Bukkit player of this session, or null if they are not online
+     */
+    protected Player getBukkitPlayer(GeyserSession session) {
+        Player bukkitPlayer = bukkitPlayers.getIfPresent(session);
+        if (bukkitPlayer == null || !bukkitPlayer.isOnline()) {
+            bukkitPlayer = Bukkit.getPlayer(session.getPlayerEntity().getUsername());
+            if (bukkitPlayer != null) {
+                bukkitPlayers.put(session, bukkitPlayer);
+            }
+        }
+        return bukkitPlayer;
+    }
+
     public int getBlockNetworkId(Player player, Block block, int x, int y, int z) {
         return BlockRegistries.JAVA_IDENTIFIERS.getOrDefault(block.getBlockData().getAsString(), BlockStateValues.JAVA_AIR_ID);
     }
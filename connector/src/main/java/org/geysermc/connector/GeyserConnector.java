@@ -50,9 +50,13 @@ import org.geysermc.connector.network.translators.chat.MessageTranslator;
 import org.geysermc.connector.registry.BlockRegistries;
 import org.geysermc.connector.registry.Registries;
 import org.geysermc.connector.network.translators.PacketTranslatorRegistry;
+import org.geysermc.connector.network.translators.item.ItemDataCache;
 import org.geysermc.connector.network.translators.item.ItemTranslator;
 import org.geysermc.connector.network.translators.world.WorldManager;
 import org.geysermc.connector.network.translators.world.block.entity.SkullBlockEntityTranslator;
+import org.geysermc.connector.network.translators.world.chunk.ChunkPayloadCache;
+import org.geysermc.connector.network.translators.world.chunk.SharedChunkSections;
+import org.geysermc.connector.network.translators.world.chunk.ChunkTranslationExecutor;
 import org.geysermc.connector.scoreboard.ScoreboardUpdater;
 import org.geysermc.connector.skin.FloodgateSkinUploader;
 import org.geysermc.connector.utils.*;
@@ -118,8 +122,16 @@ public class GeyserConnector {
     private boolean shuttingDown = false;
 
     private final ScheduledExecutorService generalThreadPool;
+    private final ChunkPayloadCache chunkPayloadCache;
+    private final ChunkTranslationExecutor chunkTranslationExecutor;
+    private final ItemDataCache itemDataCache;
+    /**
+     * Null if chunk sections are not shared between sessions
+     */
+    private final SharedChunkSections sharedChunkSections;
 
     private final BedrockServer bedrockServer;
+    private final ConnectorServerEventHandler serverEventHandler;
     private final PlatformType platformType;
     private final GeyserBootstrap bootstrap;
 
@@ -144,6 +156,10 @@ public class GeyserConnector {
         logger.info("******************************************");
 
         this.generalThreadPool = Executors.newScheduledThreadPool(config.getGeneralThreadPool());
+        this.chunkPayloadCache = new ChunkPayloadCache(config.getChunkPayloadCacheSize());
+        this.chunkTranslationExecutor = new ChunkTranslationExecutor(config.getChunkThreadPool());
+        this.itemDataCache = new ItemDataCache(config.getItemTranslationCacheSize());
+        this.sharedChunkSections = config.isShareChunkSections() ? new SharedChunkSections() : null;
 
         logger.setDebug(config.isDebugMode());
 
@@ -261,7 +277,8 @@ public class GeyserConnector {
             }
         }
 
-        bedrockServer.setHandler(new ConnectorServerEventHandler(this));
+        serverEventHandler = new ConnectorServerEventHandler(this);
+        bedrockServer.setHandler(serverEventHandler);
 
         if (shouldStartListener) {
             bedrockServer.bind().whenComplete((avoid, throwable) -> {
@@ -428,6 +445,7 @@ public class GeyserConnector {
         }
 
         generalThreadPool.shutdown();
+        chunkTranslationExecutor.shutdown();
         bedrockServer.close();
         if (timeSyncer != null) {
             timeSyncer.shutdown();
@@ -72,6 +72,16 @@ public interface GeyserConfiguration {
 
     int getGeneralThreadPool();
 
+    int getChunkThreadPool();
+
+    int getChunkPayloadCacheSize();
+
+    int getItemTranslationCacheSize();
+
+    int getMultiBlockChangeThreshold();
+
+    boolean isShareChunkSections();
+
     boolean isAllowThirdPartyCapes();
 
     boolean isAllowThirdPartyEars();
@@ -92,10 +102,14 @@ public interface GeyserConfiguration {
 
     boolean isForceResourcePacks();
 
+    int getResourcePackChunkSize();
+
     boolean isXboxAchievementsEnabled();
 
     int getCacheImages();
 
+    int getConvertedPackCacheSize();
+
     boolean isAllowCustomSkulls();
 
     IMetricsInfo getMetrics();
@@ -99,6 +99,21 @@ public abstract class GeyserJacksonConfiguration implements GeyserConfiguration
     @JsonProperty("general-thread-pool")
     private int generalThreadPool = 32;
 
+    @JsonProperty("chunk-thread-pool")
+    private int chunkThreadPool = 4;
+
+    @JsonProperty("chunk-payload-cache-size")
+    private int chunkPayloadCacheSize = 64;
+
+    @JsonProperty("item-translation-cache-size")
+    private int itemTranslationCacheSize = 2048;
+
+    @JsonProperty("multi-block-change-threshold")
+    private int multiBlockChangeThreshold = 32;
+
+    @JsonProperty("share-chunk-sections")
+    private boolean shareChunkSections = false;
+
     @JsonProperty("allow-third-party-capes")
     private boolean allowThirdPartyCapes = true;
 
@@ -121,6 +136,9 @@ public abstract class GeyserJacksonConfiguration implements GeyserConfiguration
     @JsonProperty("cache-images")
     private int cacheImages = 0;
 
+    @JsonProperty("converted-pack-cache-size")
+    private int convertedPackCacheSize = 512;
+
     @JsonProperty("allow-custom-skulls")
     private boolean allowCustomSkulls = true;
 
@@ -133,6 +151,9 @@ public abstract class GeyserJacksonConfiguration implements GeyserConfiguration
     @JsonProperty("force-resource-packs")
     private boolean forceResourcePacks = true;
 
+    @JsonProperty("resource-pack-chunk-size")
+    private int resourcePackChunkSize = 100;
+
     @JsonProperty("xbox-achievements-enabled")
     private boolean xboxAchievementsEnabled = false;
 
@@ -28,6 +28,7 @@ package org.geysermc.connector.dump;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.github.steveice10.mc.protocol.MinecraftConstants;
+import com.google.common.cache.CacheStats;
 import com.google.common.hash.Hashing;
 import com.google.common.io.ByteSource;
 import com.google.common.io.Files;
@@ -40,7 +41,11 @@ import org.geysermc.connector.GeyserConnector;
 import org.geysermc.connector.common.serializer.AsteriskSerializer;
 import org.geysermc.connector.configuration.GeyserConfiguration;
 import org.geysermc.connector.network.BedrockProtocol;
+import org.geysermc.connector.network.PingStatistics;
 import org.geysermc.connector.network.session.GeyserSession;
+import org.geysermc.connector.network.translators.item.ItemDataCache;
+import org.geysermc.connector.network.translators.java.world.JavaMultiBlockChangeTranslator;
+import org.geysermc.connector.network.translators.world.chunk.ChunkTranslationExecutor;
 import org.geysermc.connector.utils.DockerCheck;
 import org.geysermc.connector.utils.FileUtils;
 import org.geysermc.connector.utils.WebUtils;
@@ -70,6 +75,11 @@ public class DumpInfo {
     private final GeyserConfiguration config;
     private final Floodgate floodgate;
     private final Object2IntMap<DeviceOs> userPlatforms;
+    private final ChunkInfo chunkInfo;
+    private final ItemCacheInfo itemCacheInfo;
+    private final PingInfo pingInfo;
+    private final MultiBlockChangeInfo multiBlockChangeInfo;
+    private final ChunkCacheInfo chunkCacheInfo;
     private final HashInfo hashInfo;
     private final RamInfo ramInfo;
     private LogsInfo logsInfo;
@@ -119,6 +129,12 @@ public class DumpInfo {
             userPlatforms.put(device, userPlatforms.getOrDefault(device, 0) + 1);
         }
 
+        this.chunkInfo = new ChunkInfo();
+        this.itemCacheInfo = new ItemCacheInfo();
+        this.pingInfo = new PingInfo();
+        this.multiBlockChangeInfo = new MultiBlockChangeInfo();
+        this.chunkCacheInfo = new ChunkCacheInfo();
+
         this.bootstrapInfo = GeyserConnector.getInstance().getBootstrap().getDumpInfo();
 
         this.flagsInfo = new FlagsInfo();
@@ -246,6 +262,93 @@ public class DumpInfo {
         }
     }
 
+    @Getter
+    public static class ChunkInfo {
+        private final int queued;
+        private final long encoded;
+        private final long estimatedBytes;
+        private final long encodedBytes;
+        private final long underestimated;
+
+        ChunkInfo() {
+            ChunkTranslationExecutor executor = GeyserConnector.getInstance().getChunkTranslationExecutor();
+            this.queued = executor.getQueuedChunks();
+            this.encoded = executor.getEncodedPayloads();
+            this.estimatedBytes = executor.getEstimatedBytes();
+            this.encodedBytes = executor.getEncodedBytes();
+            this.underestimated = executor.getUnderestimatedPayloads();
+        }
+    }
+
+    @Getter
+    public static class ItemCacheInfo {
+        private final long size;
+        private final long hits;
+        private final long misses;
+
+        ItemCacheInfo() {
+            ItemDataCache cache = GeyserConnector.getInstance().getItemDataCache();
+            this.size = cache.getSize();
+            CacheStats stats = cache.getStats();
+            this.hits = stats != null ? stats.hitCount() : 0;
+            this.misses = stats != null ? stats.missCount() : 0;
+        }
+    }
+
+    @Getter
+    public static class PingInfo {
+        private final long total;
+        private final long recentAddresses;
+        private final int highestRecentPings;
+
+        PingInfo() {
+            PingStatistics statistics = GeyserConnector.getInstance().getServerEventHandler().getPingStatistics();
+            this.total = statistics.getTotalPings();
+            this.recentAddresses = statistics.getRecentAddresses();
+            this.highestRecentPings = statistics.getHighestRecentPings();
+        }
+    }
+
+    @Getter
+    public static class MultiBlockChangeInfo {
+        private final int threshold;
+        private final long batchedPackets;
+        private final long batchedBlocks;
+
+        MultiBlockChangeInfo() {
+            this.threshold = GeyserConnector.getInstance().getConfig().getMultiBlockChangeThreshold();
+            this.batchedPackets = JavaMultiBlockChangeTranslator.getBatchedPackets();
+            this.batchedBlocks = JavaMultiBlockChangeTranslator.getBatchedBlocks();
+        }
+    }
+
+    /**
+     * Estimated, as sections shared between sessions are counted once for each session
+     */
+    @Getter
+    public static class ChunkCacheInfo {
+        private final boolean sharedSections;
+        private final long totalBytes;
+        private final long averageSessionBytes;
+        private final long largestSessionBytes;
+
+        ChunkCacheInfo() {
+            this.sharedSections = GeyserConnector.getInstance().getSharedChunkSections() != null;
+
+            List<GeyserSession> sessions = GeyserConnector.getInstance().getPlayers();
+            long totalBytes = 0;
+            long largestSessionBytes = 0;
+            for (GeyserSession session : sessions) {
+                long bytes = session.getChunkCache().getSizeInBytes();
+                totalBytes += bytes;
+                largestSessionBytes = Math.max(largestSessionBytes, bytes);
+            }
+            this.totalBytes = totalBytes;
+            this.averageSessionBytes = sessions.isEmpty() ? 0 : totalBytes / sessions.size();
+            this.largestSessionBytes = largestSessionBytes;
+        }
+    }
+
     /**
      * E.G. `-Xmx1024M` - all runtime JVM flags on this machine
      */
@@ -33,6 +33,7 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.DefaultEventLoopGroup;
 import io.netty.channel.socket.DatagramPacket;
 import io.netty.util.concurrent.DefaultThreadFactory;
+import lombok.Getter;
 import org.geysermc.connector.GeyserConnector;
 import org.geysermc.connector.common.ping.GeyserPingInfo;
 import org.geysermc.connector.configuration.GeyserConfiguration;
@@ -45,6 +46,9 @@ import javax.annotation.Nonnull;
 import java.net.InetSocketAddress;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class ConnectorServerEventHandler implements BedrockServerEventHandler {
     /*
@@ -56,11 +60,23 @@ public class ConnectorServerEventHandler implements BedrockServerEventHandler {
      * The MOTD, sub-MOTD and Minecraft version ({@link #MINECRAFT_VERSION_BYTES_LENGTH}) combined cannot reach this length.
      */
     private static final int MAGIC_RAKNET_LENGTH = 338;
+    /**
+     * An address sending this many pings within a minute is logged in debug mode
+     */
+    private static final int PING_SPAM_THRESHOLD = 600;
 
     private final GeyserConnector connector;
     // There is a constructor that doesn't require inputting threads, but older Netty versions don't have it
     private final DefaultEventLoopGroup eventLoopGroup = new DefaultEventLoopGroup(0, new DefaultThreadFactory("Geyser player thread"));
 
+    @Getter
+    private final PingStatistics pingStatistics = new PingStatistics();
+    /**
+     * The last pong we built, which is sent to every ping until it expires
+     */
+    private final AtomicReference<CachedPong> cachedPong = new AtomicReference<>();
+    private final AtomicBoolean refreshingPong = new AtomicBoolean();
+
     public ConnectorServerEventHandler(GeyserConnector connector) {
         this.connector = connector;
     }
@@ -88,10 +104,35 @@ public class ConnectorServerEventHandler implements BedrockServerEventHandler {
 
     @Override
     public BedrockPong onQuery(InetSocketAddress inetSocketAddress) {
+        int recentPings = pingStatistics.record(inetSocketAddress.getAddress());
         if (connector.getConfig().isDebugMode()) {
             connector.getLogger().debug(LanguageUtils.getLocaleStringLog("geyser.network.pinged", inetSocketAddress));
+            if (recentPings == PING_SPAM_THRESHOLD) {
+                connector.getLogger().debug(inetSocketAddress.getAddress() + " has pinged " + recentPings + " times in the last minute");
+            }
+        }
+
+        // Pongs do not change often, but pings can arrive thousands of times a second
+        long now = System.currentTimeMillis();
+        CachedPong cached = cachedPong.get();
+        if (cached != null && (now < cached.expiresAt() || !refreshingPong.compareAndSet(false, true))) {
+            // Still valid, or another thread is already building a new pong
+            return cached.pong();
         }
 
+        try {
+            BedrockPong pong = createPong(inetSocketAddress);
+            int interval = Math.max(1, connector.getConfig().getPingPassthroughInterval());
+            cachedPong.set(new CachedPong(pong, now + TimeUnit.SECONDS.toMillis(interval)));
+            return pong;
+        } finally {
+            if (cached != null) {
+                refreshingPong.set(false);
+            }
+        }
+    }
+
+    private BedrockPong createPong(InetSocketAddress inetSocketAddress) {
         GeyserConfiguration config = connector.getConfig();
 
         GeyserPingInfo pingInfo = null;
@@ -164,6 +205,12 @@ public class ConnectorServerEventHandler implements BedrockServerEventHandler {
         return pong;
     }
 
+    /**
+     * @param pong shared between every ping it is sent to, and must not be modified
+     */
+    private record CachedPong(BedrockPong pong, long expiresAt) {
+    }
+
     @Override
     public void onSessionCreation(BedrockServerSession bedrockServerSession) {
         bedrockServerSession.setLogging(true);
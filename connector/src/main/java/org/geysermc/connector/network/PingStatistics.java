@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2019-2021 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.connector.network;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.net.InetAddress;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the unconnected pings we receive, and how many each address has sent recently.
+ * The count of an address is kept for a minute from its first ping.
+ */
+public class PingStatistics {
+    private final LongAdder totalPings = new LongAdder();
+    private final Cache<InetAddress, AtomicInteger> recentPings = CacheBuilder.newBuilder()
+            .expireAfterWrite(1, TimeUnit.MINUTES)
+            .maximumSize(10000)
+            .concurrencyLevel(4)
+            .build();
+
+    /**
+     * @return how many pings this address has sent in the last minute, including this one
+     */
+    public int record(InetAddress address) {
+        totalPings.increment();
+        AtomicInteger count = recentPings.asMap().computeIfAbsent(address, key -> new AtomicInteger());
+        return count.incrementAndGet();
+    }
+
+    public long getTotalPings() {
+        return totalPings.sum();
+    }
+
+    /**
+     * @return the number of addresses that have pinged in the last minute
+     */
+    public long getRecentAddresses() {
+        return recentPings.size();
+    }
+
+    /**
+     * @return the most pings sent by a single address in the last minute
+     */
+    public int getHighestRecentPings() {
+        int highest = 0;
+        for (AtomicInteger count : recentPings.asMap().values()) {
+            highest = Math.max(highest, count.get());
+        }
+        return highest;
+    }
+}
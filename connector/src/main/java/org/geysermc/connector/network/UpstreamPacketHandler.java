@@ -39,10 +39,14 @@ import org.geysermc.connector.registry.BlockRegistries;
 import org.geysermc.connector.registry.Registries;
 import org.geysermc.connector.utils.*;
 
-import java.io.FileInputStream;
-import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
 
 public class UpstreamPacketHandler extends LoggingPacketHandler {
+    /**
+     * The packs this client was told to download, so chunks keep coming from the same pack if the packs are reloaded
+     */
+    private final Map<String, ResourcePack> downloadingPacks = new HashMap<>();
 
     public UpstreamPacketHandler(GeyserConnector connector, GeyserSession session) {
         super(connector, session);
@@ -112,12 +116,12 @@ public class UpstreamPacketHandler extends LoggingPacketHandler {
                     String[] packID = id.split("_");
                     ResourcePack pack = ResourcePack.PACKS.get(packID[0]);
                     ResourcePackManifest.Header header = pack.getManifest().getHeader();
+                    downloadingPacks.put(packID[0], pack);
 
                     data.setPackId(header.getUuid());
-                    int chunkCount = (int) Math.ceil((int) pack.getFile().length() / (double) ResourcePack.CHUNK_SIZE);
-                    data.setChunkCount(chunkCount);
-                    data.setCompressedPackSize(pack.getFile().length());
-                    data.setMaxChunkSize(ResourcePack.CHUNK_SIZE);
+                    data.setChunkCount(pack.getChunkCount());
+                    data.setCompressedPackSize(pack.getLength());
+                    data.setMaxChunkSize(pack.getChunkSize());
                     data.setHash(pack.getSha256());
                     data.setPackVersion(packID[1]);
                     data.setPremium(false);
@@ -217,24 +221,19 @@ public class UpstreamPacketHandler extends LoggingPacketHandler {
     @Override
     public boolean handle(ResourcePackChunkRequestPacket packet) {
         ResourcePackChunkDataPacket data = new ResourcePackChunkDataPacket();
-        ResourcePack pack = ResourcePack.PACKS.get(packet.getPackId().toString());
+        ResourcePack pack = downloadingPacks.get(packet.getPackId().toString());
+        if (pack == null) {
+            pack = ResourcePack.PACKS.get(packet.getPackId().toString());
+            if (pack == null) {
+                return true;
+            }
+        }
 
         data.setChunkIndex(packet.getChunkIndex());
-        data.setProgress(packet.getChunkIndex() * ResourcePack.CHUNK_SIZE);
+        data.setProgress((long) packet.getChunkIndex() * pack.getChunkSize());
         data.setPackVersion(packet.getPackVersion());
         data.setPackId(packet.getPackId());
-
-        int offset = packet.getChunkIndex() * ResourcePack.CHUNK_SIZE;
-        byte[] packData = new byte[(int) MathUtils.constrain(pack.getFile().length() - offset, 0, ResourcePack.CHUNK_SIZE)];
-
-        try (InputStream inputStream = new FileInputStream(pack.getFile())) {
-            inputStream.skip(offset);
-            inputStream.read(packData, 0, packData.length);
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-
-        data.setData(packData);
+        data.setData(pack.getChunk(packet.getChunkIndex()));
 
         session.sendUpstreamPacket(data);
         return true;
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2019-2021 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.connector.network.session.cache;
+
+import com.nukkitx.protocol.bedrock.packet.ClientCacheMissResponsePacket;
+import com.nukkitx.protocol.bedrock.packet.LevelChunkPacket;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongList;
+import lombok.Getter;
+import lombok.Setter;
+import org.geysermc.connector.network.session.GeyserSession;
+import org.geysermc.connector.network.translators.world.chunk.ChunkPayloadCache;
+
+import java.util.Arrays;
+
+/**
+ * Tracks the chunk blobs sent to a client that supports the Bedrock blob cache.
+ * <p>
+ * When caching is enabled, a {@link LevelChunkPacket} only lists the hashes of its sub chunks and biomes.
+ * The client then tells us which of these it already has stored, and we send the rest in a
+ * {@link ClientCacheMissResponsePacket}. Blobs are held here until the client has answered for them, or until they
+ * are too old or there are too many of them, so a client that stops answering cannot hold on to every chunk it was sent.
+ */
+public class ChunkBlobCache {
+    /**
+     * Clients answer within a few ticks of receiving a chunk
+     */
+    private static final long BLOB_TIMEOUT_MILLIS = 30_000;
+    private static final int MAX_PENDING_BLOBS = 8192;
+
+    private final GeyserSession session;
+
+    /**
+     * If the client has told us it supports the blob cache
+     */
+    @Getter
+    @Setter
+    private volatile boolean supported;
+
+    /**
+     * Ordered from the least to the most recently sent blob
+     */
+    private final Long2ObjectLinkedOpenHashMap<PendingBlob> pendingBlobs = new Long2ObjectLinkedOpenHashMap<>();
+
+    public ChunkBlobCache(GeyserSession session) {
+        this.session = session;
+    }
+
+    /**
+     * Fill in a chunk packet with the blob hashes of the given payload, rather than the payload itself
+     */
+    public void writeBlobs(LevelChunkPacket packet, ChunkPayloadCache.Entry chunk) {
+        int[] blobEnds = chunk.blobEnds();
+        long[] blobIds = chunk.blobIds();
+        byte[] payload = chunk.payload();
+
+        synchronized (pendingBlobs) {
+            long now = System.currentTimeMillis();
+            int start = 0;
+            for (int i = 0; i < blobIds.length; i++) {
+                PendingBlob blob = pendingBlobs.getAndMoveToLast(blobIds[i]);
+                if (blob == null) {
+                    pendingBlobs.putAndMoveToLast(blobIds[i], new PendingBlob(Arrays.copyOfRange(payload, start, blobEnds[i]), now));
+                } else {
+                    // Identical sections are common (for example, ones only containing stone), and the client answers once per use
+                    blob.references++;
+                    blob.lastSent = now;
+                }
+                packet.getBlobIds().add(blobIds[i]);
+                start = blobEnds[i];
+            }
+            evict(now);
+        }
+
+        packet.setCachingEnabled(true);
+        packet.setData(Arrays.copyOfRange(payload, start, payload.length));
+    }
+
+    /**
+     * Send the blobs the client does not have stored, and forget about the ones it has answered for
+     *
+     * @param misses the blobs the client does not have
+     * @param hits the blobs the client already has
+     */
+    public void handleStatus(LongList misses, LongList hits) {
+        ClientCacheMissResponsePacket responsePacket = new ClientCacheMissResponsePacket();
+        synchronized (pendingBlobs) {
+            for (int i = 0; i < misses.size(); i++) {
+                long id = misses.getLong(i);
+                PendingBlob blob = release(id);
+                if (blob != null) {
+                    responsePacket.getBlobs().put(id, blob.data);
+                } else {
+                    session.getConnector().getLogger().debug("Client requested unknown chunk blob " + id);
+                }
+            }
+            for (int i = 0; i < hits.size(); i++) {
+                release(hits.getLong(i));
+            }
+        }
+
+        if (!responsePacket.getBlobs().isEmpty()) {
+            session.sendUpstreamPacket(responsePacket);
+        }
+    }
+
+    private PendingBlob release(long id) {
+        PendingBlob blob = pendingBlobs.get(id);
+        if (blob != null && --blob.references == 0) {
+            pendingBlobs.remove(id);
+        }
+        return blob;
+    }
+
+    /**
+     * Forget the blobs the client has not answered for in time, oldest first
+     */
+    private void evict(long now) {
+        int evicted = 0;
+        while (!pendingBlobs.isEmpty()) {
+            PendingBlob oldest = pendingBlobs.get(pendingBlobs.firstLongKey());
+            if (pendingBlobs.size() <= MAX_PENDING_BLOBS && now - oldest.lastSent < BLOB_TIMEOUT_MILLIS) {
+                break;
+            }
+            pendingBlobs.removeFirst();
+            evicted++;
+        }
+
+        if (evicted > 0) {
+            session.getConnector().getLogger().debug("Forgot " + evicted + " chunk blobs the client did not answer for");
+        }
+    }
+
+    private static final class PendingBlob {
+        private final byte[] data;
+        private int references = 1;
+        private long lastSent;
+
+        private PendingBlob(byte[] data, long lastSent) {
+            this.data = data;
+            this.lastSent = lastSent;
+        }
+    }
+}
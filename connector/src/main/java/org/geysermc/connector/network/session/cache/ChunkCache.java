@@ -25,7 +25,6 @@
 
 package org.geysermc.connector.network.session.cache;
 
-import com.github.steveice10.mc.protocol.data.game.chunk.Chunk;
 import com.github.steveice10.mc.protocol.data.game.chunk.Column;
 import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
@@ -33,10 +32,12 @@ import lombok.Getter;
 import lombok.Setter;
 import org.geysermc.connector.network.session.GeyserSession;
 import org.geysermc.connector.network.translators.world.block.BlockStateValues;
+import org.geysermc.connector.network.translators.world.chunk.CachedChunkSection;
 import org.geysermc.connector.network.translators.world.chunk.GeyserColumn;
 import org.geysermc.connector.utils.MathUtils;
 
 public class ChunkCache {
+    private final GeyserSession session;
     private final boolean cache;
     private final Long2ObjectMap<GeyserColumn> chunks;
 
@@ -53,6 +54,7 @@ public class ChunkCache {
     private boolean isExtendedHeight = false;
 
     public ChunkCache(GeyserSession session) {
+        this.session = session;
         this.cache = !session.getConnector().getWorldManager().hasOwnChunkCache(); // To prevent Spigot from initializing
         chunks = cache ? new Long2ObjectOpenHashMap<>() : null;
     }
@@ -75,36 +77,40 @@ public class ChunkCache {
         return chunks.getOrDefault(chunkPosition, null);
     }
 
+    /**
+     * Update a block in the cache. The cache keeps its own copy of each chunk, so a queued translation of the
+     * chunk is sent first; otherwise it would be sent without this change.
+     */
     public void updateBlock(int x, int y, int z, int block) {
         if (!cache) {
             return;
         }
 
+        session.getChunkSendQueue().flush(x >> 4, z >> 4);
+
         GeyserColumn column = this.getChunk(x >> 4, z >> 4);
         if (column == null) {
             return;
         }
 
-        if (y < minY || ((y - minY) >> 4) > column.getChunks().length - 1) {
+        if (y < minY || ((y - minY) >> 4) > column.getSections().length - 1) {
             // Y likely goes above or below the height limit of this world
             return;
         }
 
-        Chunk chunk = column.getChunks()[(y - minY) >> 4];
-        if (chunk == null) {
+        CachedChunkSection section = column.getWritableSection((y - minY) >> 4);
+        if (section == null) {
             if (block != BlockStateValues.JAVA_AIR_ID) {
-                // A previously empty chunk, which is no longer empty as a block has been added to it
-                chunk = new Chunk();
-                // Fixes the chunk assuming that all blocks is the `block` variable we are updating. /shrug
-                chunk.getPalette().stateToId(BlockStateValues.JAVA_AIR_ID);
-                column.getChunks()[(y - minY) >> 4] = chunk;
+                // A previously empty section, which is no longer empty as a block has been added to it
+                section = CachedChunkSection.single(BlockStateValues.JAVA_AIR_ID);
+                column.getSections()[(y - minY) >> 4] = section;
             } else {
                 // Nothing to update
                 return;
             }
         }
 
-        chunk.set(x & 0xF, y & 0xF, z & 0xF, block);
+        section.set(x & 0xF, y & 0xF, z & 0xF, block);
     }
 
     public int getBlockAt(int x, int y, int z) {
@@ -117,14 +123,14 @@ public class ChunkCache {
             return BlockStateValues.JAVA_AIR_ID;
         }
 
-        if (y < minY || ((y - minY) >> 4) > column.getChunks().length - 1) {
+        if (y < minY || ((y - minY) >> 4) > column.getSections().length - 1) {
             // Y likely goes above or below the height limit of this world
             return BlockStateValues.JAVA_AIR_ID;
         }
 
-        Chunk chunk = column.getChunks()[(y - minY) >> 4];
-        if (chunk != null) {
-            return chunk.get(x & 0xF, y & 0xF, z & 0xF);
+        CachedChunkSection section = column.getSections()[(y - minY) >> 4];
+        if (section != null) {
+            return section.get(x & 0xF, y & 0xF, z & 0xF);
         }
 
         return BlockStateValues.JAVA_AIR_ID;
@@ -152,6 +158,21 @@ public class ChunkCache {
         chunks.clear();
     }
 
+    /**
+     * @return roughly how many bytes of heap the cached chunks use. Sections shared with other sessions are counted in full
+     */
+    public long getSizeInBytes() {
+        if (!cache) {
+            return 0;
+        }
+
+        long size = 0;
+        for (GeyserColumn column : chunks.values()) {
+            size += column.getSizeInBytes();
+        }
+        return size;
+    }
+
     public int getChunkMinY() {
         return minY >> 4;
     }
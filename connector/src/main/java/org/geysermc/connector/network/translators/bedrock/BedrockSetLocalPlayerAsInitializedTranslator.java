@@ -51,14 +51,14 @@ public class BedrockSetLocalPlayerAsInitializedTranslator extends PacketTranslat
                 }
 
                 // Send Skulls
-                for (PlayerEntity entity : session.getSkullCache().values()) {
+                session.getSkullCache().forEach(entity -> {
                     entity.spawnEntity(session);
 
                     SkullSkinManager.requestAndHandleSkin(entity, session, (skin) ->  {
                         entity.getMetadata().getFlags().setFlag(EntityFlag.INVISIBLE, false);
                         entity.updateBedrockMetadata(session);
                     });
-                }
+                });
             }
         }
     }
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2019-2021 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.connector.network.translators.item;
+
+import com.github.steveice10.mc.protocol.data.game.entity.metadata.ItemStack;
+import com.github.steveice10.opennbt.tag.builtin.*;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.nukkitx.protocol.bedrock.data.inventory.ItemData;
+import org.geysermc.connector.network.session.GeyserSession;
+import org.geysermc.connector.registry.type.ItemMappings;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Holds translated Bedrock items, so that the same Java item stack sent again - for example, in a server GUI that is
+ * redrawn every tick - does not go through every NBT translator again.
+ * <p>
+ * Items are keyed by their Java ID, count and NBT, along with the item mappings and locale they were translated with.
+ * Items using a translator that is not {@link NbtItemStackTranslator#isCacheable() cacheable} are never stored.
+ */
+public class ItemDataCache {
+    private final Cache<Key, ItemData> cache;
+
+    public ItemDataCache(int maxSize) {
+        if (maxSize > 0) {
+            this.cache = CacheBuilder.newBuilder()
+                    .maximumSize(maxSize)
+                    .concurrencyLevel(4)
+                    .recordStats()
+                    .build();
+        } else {
+            this.cache = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    /**
+     * @return the key of this item stack, as it would be translated for this session
+     */
+    public Key createKey(GeyserSession session, ItemStack stack) {
+        CompoundTag nbt = stack.getNbt();
+        return new Key(session.getItemMappings(), session.getLocale(), stack.getId(), stack.getAmount(), nbt,
+                nbt == null ? 0 : hashTag(nbt));
+    }
+
+    /**
+     * @return a copy of the cached item, or null if it has not been cached
+     */
+    public ItemData get(Key key) {
+        ItemData itemData = cache.getIfPresent(key);
+        // Item data is given a net ID by the caller, so it cannot be shared
+        return itemData != null ? itemData.toBuilder().build() : null;
+    }
+
+    public void put(Key key, ItemData itemData) {
+        // The NBT of the key is the stack's own, which may change after it has been translated
+        Key storedKey = new Key(key.mappings, key.locale, key.javaId, key.count, key.nbt == null ? null : key.nbt.clone(), key.nbtHash);
+        cache.put(storedKey, itemData.toBuilder().build());
+    }
+
+    /**
+     * @return the hit and miss counts of the cache, or null if it is disabled
+     */
+    public CacheStats getStats() {
+        return cache != null ? cache.stats() : null;
+    }
+
+    public long getSize() {
+        return cache != null ? cache.size() : 0;
+    }
+
+    private static int hashTag(Tag tag) {
+        int hash = tag.getName().hashCode();
+        if (tag instanceof CompoundTag compoundTag) {
+            for (Map.Entry<String, Tag> entry : compoundTag.getValue().entrySet()) {
+                // Order does not matter when comparing compound tags
+                hash += hashTag(entry.getValue());
+            }
+        } else if (tag instanceof ListTag listTag) {
+            for (Tag value : listTag) {
+                hash = 31 * hash + hashTag(value);
+            }
+        } else if (tag instanceof ByteArrayTag byteArrayTag) {
+            hash = 31 * hash + Arrays.hashCode(byteArrayTag.getValue());
+        } else if (tag instanceof IntArrayTag intArrayTag) {
+            hash = 31 * hash + Arrays.hashCode(intArrayTag.getValue());
+        } else if (tag instanceof LongArrayTag longArrayTag) {
+            hash = 31 * hash + Arrays.hashCode(longArrayTag.getValue());
+        } else {
+            hash = 31 * hash + Objects.hashCode(tag.getValue());
+        }
+        return hash;
+    }
+
+    public static final class Key {
+        private final ItemMappings mappings;
+        private final String locale;
+        private final int javaId;
+        private final int count;
+        private final CompoundTag nbt;
+        private final int nbtHash;
+
+        private Key(ItemMappings mappings, String locale, int javaId, int count, CompoundTag nbt, int nbtHash) {
+            this.mappings = mappings;
+            this.locale = locale;
+            this.javaId = javaId;
+            this.count = count;
+            this.nbt = nbt;
+            this.nbtHash = nbtHash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            // Item mappings are compared by identity, as there is one instance per version and comparing them in full is slow
+            return mappings == key.mappings && javaId == key.javaId && count == key.count && nbtHash == key.nbtHash
+                    && Objects.equals(locale, key.locale) && Objects.equals(nbt, key.nbt);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = System.identityHashCode(mappings);
+            result = 31 * result + Objects.hashCode(locale);
+            result = 31 * result + javaId;
+            result = 31 * result + count;
+            return 31 * result + nbtHash;
+        }
+    }
+}
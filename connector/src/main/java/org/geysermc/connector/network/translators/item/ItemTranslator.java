@@ -39,7 +39,6 @@ import org.geysermc.connector.network.session.GeyserSession;
 import org.geysermc.connector.network.translators.ItemRemapper;
 import org.geysermc.connector.network.translators.chat.MessageTranslator;
 import org.geysermc.connector.registry.BlockRegistries;
-import org.geysermc.connector.registry.populator.ItemRegistryPopulator;
 import org.geysermc.connector.registry.type.ItemMapping;
 import org.geysermc.connector.registry.type.ItemMappings;
 import org.geysermc.connector.utils.FileUtils;
@@ -52,6 +51,10 @@ import java.util.stream.Collectors;
 public abstract class ItemTranslator {
     private static final Int2ObjectMap<ItemTranslator> ITEM_STACK_TRANSLATORS = new Int2ObjectOpenHashMap<>();
     private static final List<NbtItemStackTranslator> NBT_TRANSLATORS;
+    /**
+     * NBT translators whose items cannot be stored in the {@link ItemDataCache}
+     */
+    private static final List<NbtItemStackTranslator> UNCACHEABLE_NBT_TRANSLATORS;
 
     protected ItemTranslator() {
     }
@@ -92,6 +95,7 @@ public abstract class ItemTranslator {
         }
 
         NBT_TRANSLATORS = loadedNbtItemTranslators.keySet().stream().sorted(Comparator.comparingInt(loadedNbtItemTranslators::get)).collect(Collectors.toList());
+        UNCACHEABLE_NBT_TRANSLATORS = NBT_TRANSLATORS.stream().filter(translator -> !translator.isCacheable()).collect(Collectors.toList());
     }
 
     /**
@@ -139,6 +143,16 @@ public abstract class ItemTranslator {
             return ItemData.AIR;
         }
 
+        ItemDataCache cache = session.getConnector().getItemDataCache();
+        ItemDataCache.Key cacheKey = null;
+        if (cache.isEnabled() && isCacheable(bedrockItem)) {
+            cacheKey = cache.createKey(session, stack);
+            ItemData cached = cache.get(cacheKey);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
         CompoundTag nbt = stack.getNbt() != null ? stack.getNbt().clone() : null;
 
         // This is a fallback for maps with no nbt
@@ -182,7 +196,20 @@ public abstract class ItemTranslator {
             builder.canPlace(canPlace);
         }
 
-        return builder.build();
+        ItemData itemData = builder.build();
+        if (cacheKey != null) {
+            cache.put(cacheKey, itemData);
+        }
+        return itemData;
+    }
+
+    private static boolean isCacheable(ItemMapping mapping) {
+        for (NbtItemStackTranslator translator : UNCACHEABLE_NBT_TRANSLATORS) {
+            if (translator.acceptItem(mapping)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -230,17 +257,11 @@ public abstract class ItemTranslator {
         }
         CompoundTag nbt = itemStack.getNbt();
 
-        if (nbt!=null && nbt.get("CustomModelData")!= null) {
-            //IntTag tag = nbt.get("CustomModelData");
-            CompoundTag cTag = nbt.get("PublicBukkitValues");
-            if(cTag != null) {
-                StringTag sTag = cTag.get("oraxen:id");
-                if(sTag != null) {
-                    if (ItemRegistryPopulator.customIDs.containsKey(sTag.getValue())) {
-                        builder.id(ItemRegistryPopulator.customIDs.get(sTag.getValue()));
-                        builder.damage(0);
-                    }
-                }
+        if (nbt != null) {
+            int customItemId = mappings.getCustomItemId(itemStack.getId(), nbt);
+            if (customItemId != -1) {
+                builder.id(customItemId);
+                builder.damage(0);
             }
         }
         return builder;
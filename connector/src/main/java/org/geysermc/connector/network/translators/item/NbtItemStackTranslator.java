@@ -60,4 +60,14 @@ public class NbtItemStackTranslator {
         return true;
     }
 
+    /**
+     * Gets whether items translated by this class can be shared between sessions using the same locale and item mappings.
+     * This should return false if the translation depends on anything else from the session.
+     *
+     * @return if items processed under this class can be cached
+     */
+    public boolean isCacheable() {
+        return true;
+    }
+
 }
@@ -52,4 +52,10 @@ public class LodestoneCompassTranslator extends NbtItemStackTranslator {
     public boolean acceptItem(ItemMapping mapping) {
         return mapping.getJavaIdentifier().equals("minecraft:compass");
     }
+
+    @Override
+    public boolean isCacheable() {
+        // The tracking handle is stored in the session's lodestone cache
+        return false;
+    }
 }
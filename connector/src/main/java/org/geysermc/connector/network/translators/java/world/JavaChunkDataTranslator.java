@@ -39,9 +39,11 @@ import org.geysermc.connector.GeyserConnector;
 import org.geysermc.connector.network.session.GeyserSession;
 import org.geysermc.connector.network.translators.PacketTranslator;
 import org.geysermc.connector.network.translators.Translator;
+import org.geysermc.connector.network.translators.world.chunk.ChunkPayloadCache;
 import org.geysermc.connector.network.translators.world.chunk.ChunkSection;
 import org.geysermc.connector.network.translators.world.BiomeTranslator;
 import org.geysermc.connector.utils.ChunkUtils;
+import org.geysermc.connector.utils.XXHash64;
 
 import static org.geysermc.connector.utils.ChunkUtils.MINIMUM_ACCEPTED_HEIGHT;
 import static org.geysermc.connector.utils.ChunkUtils.MINIMUM_ACCEPTED_HEIGHT_OVERWORLD;
@@ -63,88 +65,123 @@ public class JavaChunkDataTranslator extends PacketTranslator<ServerChunkDataPac
         // Ensure that, if the player is using lower world heights, the position is not offset
         int yOffset = session.getChunkCache().getChunkMinY();
 
-        GeyserConnector.getInstance().getGeneralThreadPool().execute(() -> {
+        session.getChunkSendQueue().add(column.getX(), column.getZ(), () -> {
             try {
                 if (session.isClosed()) {
                     return;
                 }
-                ChunkUtils.ChunkData chunkData = ChunkUtils.translateToBedrock(session, column, yOffset);
-                ChunkSection[] sections = chunkData.sections();
+                ChunkPayloadCache payloadCache = session.getConnector().getChunkPayloadCache();
+                ChunkPayloadCache.Key cacheKey = payloadCache.createKey(session, column, yOffset);
+                ChunkPayloadCache.Entry cached = cacheKey != null ? payloadCache.get(cacheKey, column) : null;
+
+                ChunkPayloadCache.Entry chunk;
+                if (cached != null) {
+                    // Another player has already been sent this column; only the side effects of translating it are needed
+                    ChunkUtils.spawnCustomSkulls(session, column, yOffset);
+                    chunk = cached;
+                } else {
+                    ChunkUtils.ChunkData chunkData = ChunkUtils.translateToBedrock(session, column, yOffset);
+                    ChunkSection[] sections = chunkData.sections();
 
-                // Find highest section
-                int sectionCount = sections.length - 1;
-                while (sectionCount >= 0 && sections[sectionCount] == null) {
-                    sectionCount--;
-                }
-                sectionCount++;
+                    // Find highest section
+                    int sectionCount = sections.length - 1;
+                    while (sectionCount >= 0 && sections[sectionCount] == null) {
+                        sectionCount--;
+                    }
+                    sectionCount++;
 
-                // Estimate chunk size
-                int size = 0;
-                for (int i = 0; i < sectionCount; i++) {
-                    ChunkSection section = sections[i];
-                    size += (section != null ? section : session.getBlockMappings().getEmptyChunkSection()).estimateNetworkSize();
-                }
-                if (NEW_BIOME_WRITE) {
-                    size += ChunkUtils.EMPTY_CHUNK_DATA.length; // Consists only of biome data
-                } else {
-                    size += 256; // Biomes pre-1.18
-                }
-                size += 1; // Border blocks
-                size += 1; // Extra data length (always 0)
-                size += chunkData.blockEntities().length * 64; // Conservative estimate of 64 bytes per tile entity
-
-                // Allocate output buffer
-                ByteBuf byteBuf = ByteBufAllocator.DEFAULT.buffer(size);
-                byte[] payload;
-                try {
+                    // Estimate chunk size
+                    int size = 0;
                     for (int i = 0; i < sectionCount; i++) {
                         ChunkSection section = sections[i];
-                        (section != null ? section : session.getBlockMappings().getEmptyChunkSection()).writeToNetwork(byteBuf);
+                        size += (section != null ? section : session.getBlockMappings().getEmptyChunkSection()).estimateNetworkSize();
                     }
-
                     if (NEW_BIOME_WRITE) {
-                        // At this point we're dealing with Bedrock chunk sections
-                        boolean overworld = session.getChunkCache().isExtendedHeight();
-                        int dimensionOffset = (overworld ? MINIMUM_ACCEPTED_HEIGHT_OVERWORLD : MINIMUM_ACCEPTED_HEIGHT) >> 4;
+                        size += ChunkUtils.EMPTY_CHUNK_DATA.length; // Consists only of biome data
+                        size += sectionCount * 4; // Biome palettes have a few more entries than an empty one
+                    } else {
+                        size += 256; // Biomes pre-1.18
+                    }
+                    size += 1; // Border blocks
+                    size += 1; // Extra data length (always 0)
+                    size += chunkData.blockEntities().length * 64; // Conservative estimate of 64 bytes per tile entity
+
+                    // Allocate output buffer
+                    ByteBuf byteBuf = ByteBufAllocator.DEFAULT.buffer(size);
+                    byte[] payload;
+                    // Each sub chunk and the biomes are separate blobs for clients using the blob cache
+                    int[] blobEnds = new int[sectionCount + 1];
+                    try {
                         for (int i = 0; i < sectionCount; i++) {
-                            int biomeYOffset = dimensionOffset + i;
-                            if (biomeYOffset < yOffset) {
-                                // Ignore this biome section since it goes below the height of the Java world
+                            ChunkSection section = sections[i];
+                            (section != null ? section : session.getBlockMappings().getEmptyChunkSection()).writeToNetwork(byteBuf);
+                            blobEnds[i] = byteBuf.writerIndex();
+                        }
+
+                        if (NEW_BIOME_WRITE) {
+                            // At this point we're dealing with Bedrock chunk sections
+                            boolean overworld = session.getChunkCache().isExtendedHeight();
+                            int dimensionOffset = (overworld ? MINIMUM_ACCEPTED_HEIGHT_OVERWORLD : MINIMUM_ACCEPTED_HEIGHT) >> 4;
+                            for (int i = 0; i < sectionCount; i++) {
+                                int biomeYOffset = dimensionOffset + i;
+                                if (biomeYOffset < yOffset) {
+                                    // Ignore this biome section since it goes below the height of the Java world
+                                    byteBuf.writeBytes(ChunkUtils.EMPTY_BIOME_DATA);
+                                    continue;
+                                }
+                                BiomeTranslator.writeNewBedrockBiome(session, column.getBiomeData(), i + (dimensionOffset - yOffset), byteBuf);
+                            }
+
+                            // As of 1.17.10, Bedrock hardcodes to always read 32 biome sections
+                            int remainingEmptyBiomes = 32 - sectionCount;
+                            for (int i = 0; i < remainingEmptyBiomes; i++) {
                                 byteBuf.writeBytes(ChunkUtils.EMPTY_BIOME_DATA);
-                                continue;
                             }
-                            BiomeTranslator.toNewBedrockBiome(session, column.getBiomeData(), i + (dimensionOffset - yOffset)).writeToNetwork(byteBuf);
+                        } else {
+                            byteBuf.writeBytes(BiomeTranslator.toBedrockBiome(session, column.getBiomeData())); // Biomes - 256 bytes
                         }
-
-                        // As of 1.17.10, Bedrock hardcodes to always read 32 biome sections
-                        int remainingEmptyBiomes = 32 - sectionCount;
-                        for (int i = 0; i < remainingEmptyBiomes; i++) {
-                            byteBuf.writeBytes(ChunkUtils.EMPTY_BIOME_DATA);
+                        blobEnds[sectionCount] = byteBuf.writerIndex();
+                        byteBuf.writeByte(0); // Border blocks - Edu edition only
+                        VarInts.writeUnsignedInt(byteBuf, 0); // extra data length, 0 for now
+
+                        // Encode tile entities into buffer
+                        NBTOutputStream nbtStream = NbtUtils.createNetworkWriter(new ByteBufOutputStream(byteBuf));
+                        for (NbtMap blockEntity : chunkData.blockEntities()) {
+                            nbtStream.writeTag(blockEntity);
                         }
-                    } else {
-                        byteBuf.writeBytes(BiomeTranslator.toBedrockBiome(session, column.getBiomeData())); // Biomes - 256 bytes
+
+                        session.getConnector().getChunkTranslationExecutor().recordPayloadSize(size, byteBuf.readableBytes());
+
+                        // Copy data into byte[]; LevelChunkPacket only takes arrays, and the payload may be shared
+                        // through the payload cache long after this buffer is released
+                        byteBuf.readBytes(payload = new byte[byteBuf.readableBytes()]);
+                    } finally {
+                        byteBuf.release(); // Release buffer to allow buffer pooling to be useful
                     }
-                    byteBuf.writeByte(0); // Border blocks - Edu edition only
-                    VarInts.writeUnsignedInt(byteBuf, 0); // extra data length, 0 for now
 
-                    // Encode tile entities into buffer
-                    NBTOutputStream nbtStream = NbtUtils.createNetworkWriter(new ByteBufOutputStream(byteBuf));
-                    for (NbtMap blockEntity : chunkData.blockEntities()) {
-                        nbtStream.writeTag(blockEntity);
+                    long[] blobIds = new long[blobEnds.length];
+                    int blobStart = 0;
+                    for (int i = 0; i < blobEnds.length; i++) {
+                        blobIds[i] = XXHash64.hash(payload, blobStart, blobEnds[i] - blobStart);
+                        blobStart = blobEnds[i];
                     }
 
-                    // Copy data into byte[], because the protocol lib really likes things that are s l o w
-                    byteBuf.readBytes(payload = new byte[byteBuf.readableBytes()]);
-                } finally {
-                    byteBuf.release(); // Release buffer to allow buffer pooling to be useful
+                    chunk = new ChunkPayloadCache.Entry(column.getTileEntities(), sectionCount, payload, blobEnds, blobIds);
+                    if (cacheKey != null) {
+                        payloadCache.put(cacheKey, chunk);
+                    }
                 }
 
                 LevelChunkPacket levelChunkPacket = new LevelChunkPacket();
-                levelChunkPacket.setSubChunksLength(sectionCount);
-                levelChunkPacket.setCachingEnabled(false);
+                levelChunkPacket.setSubChunksLength(chunk.sectionCount());
                 levelChunkPacket.setChunkX(column.getX());
                 levelChunkPacket.setChunkZ(column.getZ());
-                levelChunkPacket.setData(payload);
+                if (session.getChunkBlobCache().isSupported()) {
+                    session.getChunkBlobCache().writeBlobs(levelChunkPacket, chunk);
+                } else {
+                    levelChunkPacket.setCachingEnabled(false);
+                    levelChunkPacket.setData(chunk.payload());
+                }
                 session.sendUpstreamPacket(levelChunkPacket);
             } catch (Exception ex) {
                 ex.printStackTrace();
@@ -25,21 +25,62 @@
 
 package org.geysermc.connector.network.translators.java.world;
 
+import com.nukkitx.math.vector.Vector3i;
+import com.nukkitx.protocol.bedrock.v465.Bedrock_v465;
 import org.geysermc.connector.network.session.GeyserSession;
 import org.geysermc.connector.network.translators.PacketTranslator;
 import org.geysermc.connector.network.translators.Translator;
 import org.geysermc.connector.utils.ChunkUtils;
 
+import com.github.steveice10.mc.protocol.data.game.entity.metadata.Position;
 import com.github.steveice10.mc.protocol.data.game.world.block.BlockChangeRecord;
 import com.github.steveice10.mc.protocol.packet.ingame.server.world.ServerMultiBlockChangePacket;
 
+import java.util.concurrent.atomic.LongAdder;
+
 @Translator(packet = ServerMultiBlockChangePacket.class)
 public class JavaMultiBlockChangeTranslator extends PacketTranslator<ServerMultiBlockChangePacket> {
+    private static final LongAdder BATCHED_PACKETS = new LongAdder();
+    private static final LongAdder BATCHED_BLOCKS = new LongAdder();
 
     @Override
     public void translate(GeyserSession session, ServerMultiBlockChangePacket packet) {
-        for (BlockChangeRecord record : packet.getRecords()) {
+        BlockChangeRecord[] records = packet.getRecords();
+        int threshold = session.getConnector().getConfig().getMultiBlockChangeThreshold();
+        if (threshold > 0 && records.length >= threshold
+                && session.getUpstream().getProtocolVersion() >= Bedrock_v465.V465_CODEC.getProtocolVersion()) {
+            // Java sends every block of this packet in the same chunk section, so send them all in one Bedrock packet
+            // rather than two for each block
+            int[] blockStates = new int[records.length];
+            Vector3i[] positions = new Vector3i[records.length];
+            for (int i = 0; i < records.length; i++) {
+                blockStates[i] = records[i].getBlock();
+                Position position = records[i].getPosition();
+                positions[i] = Vector3i.from(position.getX(), position.getY(), position.getZ());
+            }
+            ChunkUtils.updateBlocks(session, blockStates, positions);
+
+            BATCHED_PACKETS.increment();
+            BATCHED_BLOCKS.add(records.length);
+            return;
+        }
+
+        for (BlockChangeRecord record : records) {
             ChunkUtils.updateBlock(session, record.getBlock(), record.getPosition());
         }
     }
+
+    /**
+     * @return the number of Java packets whose blocks were sent in a single Bedrock packet
+     */
+    public static long getBatchedPackets() {
+        return BATCHED_PACKETS.sum();
+    }
+
+    /**
+     * @return the number of blocks sent in a single Bedrock packet along with the rest of their Java packet
+     */
+    public static long getBatchedBlocks() {
+        return BATCHED_BLOCKS.sum();
+    }
 }
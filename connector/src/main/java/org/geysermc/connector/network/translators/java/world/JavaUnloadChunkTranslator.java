@@ -26,39 +26,27 @@
 package org.geysermc.connector.network.translators.java.world;
 
 import com.github.steveice10.mc.protocol.packet.ingame.server.world.ServerUnloadChunkPacket;
-import com.nukkitx.math.vector.Vector3i;
+import org.geysermc.connector.entity.player.SkullPlayerEntity;
 import org.geysermc.connector.network.session.GeyserSession;
 import org.geysermc.connector.network.translators.PacketTranslator;
 import org.geysermc.connector.network.translators.Translator;
 
-import java.util.Iterator;
-
 @Translator(packet = ServerUnloadChunkPacket.class)
 public class JavaUnloadChunkTranslator extends PacketTranslator<ServerUnloadChunkPacket> {
 
     @Override
     public void translate(GeyserSession session, ServerUnloadChunkPacket packet) {
         session.getChunkCache().removeChunk(packet.getX(), packet.getZ());
+        session.getChunkSendQueue().remove(packet.getX(), packet.getZ());
 
-        //Checks if a skull is in an unloaded chunk then removes it
-        Iterator<Vector3i> iterator = session.getSkullCache().keySet().iterator();
-        while (iterator.hasNext()) {
-            Vector3i position = iterator.next();
-            if ((position.getX() >> 4) == packet.getX() && (position.getZ() >> 4) == packet.getZ()) {
-                session.getSkullCache().get(position).despawnEntity(session);
-                iterator.remove();
-            }
+        // Removes the skulls in the unloaded chunk
+        for (SkullPlayerEntity skull : session.getSkullCache().removeChunk(packet.getX(), packet.getZ())) {
+            skull.despawnEntity(session);
         }
 
         if (!session.getConnector().getWorldManager().shouldExpectLecternHandled()) {
             // Do the same thing with lecterns
-            iterator = session.getLecternCache().iterator();
-            while (iterator.hasNext()) {
-                Vector3i position = iterator.next();
-                if ((position.getX() >> 4) == packet.getX() && (position.getZ() >> 4) == packet.getZ()) {
-                    iterator.remove();
-                }
-            }
+            session.getLecternCache().removeChunk(packet.getX(), packet.getZ());
         }
     }
 }
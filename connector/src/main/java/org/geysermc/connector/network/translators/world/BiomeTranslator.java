@@ -26,18 +26,37 @@
 package org.geysermc.connector.network.translators.world;
 
 import com.github.steveice10.opennbt.tag.builtin.*;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
 import org.geysermc.connector.network.session.GeyserSession;
 import org.geysermc.connector.network.translators.world.chunk.BlockStorage;
-import org.geysermc.connector.network.translators.world.chunk.ChunkSection;
+import org.geysermc.connector.network.translators.world.chunk.bitarray.BitArray;
+import org.geysermc.connector.network.translators.world.chunk.bitarray.BitArrayTranscoder;
+import org.geysermc.connector.network.translators.world.chunk.bitarray.BitArrayVersion;
 import org.geysermc.connector.registry.Registries;
 
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 // Based off of ProtocolSupport's LegacyBiomeData.java:
 // https://github.com/ProtocolSupport/ProtocolSupport/blob/b2cad35977f3fcb65bee57b9e14fc9c975f71d32/src/protocolsupport/protocol/typeremapper/legacy/LegacyBiomeData.java
 // Array index formula by https://wiki.vg/Chunk_Format
 public class BiomeTranslator {
+    /**
+     * Encoded sections containing only one biome, indexed by Bedrock biome ID
+     */
+    private static final AtomicReferenceArray<byte[]> SINGLE_BIOME_SECTIONS = new AtomicReferenceArray<>(256);
+    /**
+     * Encoded sections containing more than one biome
+     */
+    private static final Cache<BiomeSection, byte[]> MIXED_BIOME_SECTIONS = CacheBuilder.newBuilder()
+            .maximumSize(4096)
+            .build();
 
     public static void loadServerBiomes(GeyserSession session, CompoundTag codec) {
         Int2IntMap biomeTranslations = session.getBiomeTranslations();
@@ -98,33 +117,99 @@ public class BiomeTranslator {
         return bedrockData;
     }
 
-    public static BlockStorage toNewBedrockBiome(GeyserSession session, int[] biomeData, int ySection) {
+    /**
+     * Write one section of biomes in the format used since 1.17.10, which is the same as a chunk section's block storage.
+     * Sections are encoded once and then reused: those with a single biome by biome ID, and others by their 64 biomes.
+     */
+    public static void writeNewBedrockBiome(GeyserSession session, int[] biomeData, int ySection, ByteBuf byteBuf) {
         Int2IntMap biomeTranslations = session.getBiomeTranslations();
-        // As of 1.17.10: the client expects the same format as a chunk but filled with biomes
-        BlockStorage storage = new BlockStorage(0);
 
-        int biomeY = ySection << 2;
-        int javaOffsetY = biomeY << 4;
+        int javaOffsetY = ySection << 6;
         // Each section of biome corresponding to a chunk section contains 4 * 4 * 4 entries
+        int[] biomes = new int[64];
+        boolean singleBiome = true;
         for (int i = 0; i < 64; i++) {
-            int javaId = biomeData[javaOffsetY | i];
-            int x = i & 3;
-            int y = (i >> 4) & 3;
-            int z = (i >> 2) & 3;
             // Get the Bedrock biome ID override
-            int biomeId = biomeTranslations.get(javaId);
-            int idx = storage.idFor(biomeId);
-            // Convert biome coordinates into block coordinates
-            // Bedrock expects a full 4096 blocks
-            for (int blockX = x << 2; blockX < (x << 2) + 4; blockX++) {
-                for (int blockZ = z << 2; blockZ < (z << 2) + 4; blockZ++) {
-                    for (int blockY = y << 2; blockY < (y << 2) + 4; blockY++) {
-                        storage.getBitArray().set(ChunkSection.blockPosition(blockX, blockY, blockZ), idx);
-                    }
-                }
+            biomes[i] = biomeTranslations.get(biomeData[javaOffsetY | i]);
+            singleBiome &= biomes[i] == biomes[0];
+        }
+
+        byte[] encoded;
+        if (singleBiome && biomes[0] >= 0 && biomes[0] < SINGLE_BIOME_SECTIONS.length()) {
+            encoded = SINGLE_BIOME_SECTIONS.get(biomes[0]);
+            if (encoded == null) {
+                encoded = encodeBiomeSection(biomes);
+                SINGLE_BIOME_SECTIONS.set(biomes[0], encoded);
+            }
+        } else {
+            BiomeSection section = new BiomeSection(biomes);
+            encoded = MIXED_BIOME_SECTIONS.getIfPresent(section);
+            if (encoded == null) {
+                encoded = encodeBiomeSection(biomes);
+                MIXED_BIOME_SECTIONS.put(section, encoded);
+            }
+        }
+        byteBuf.writeBytes(encoded);
+    }
+
+    private static byte[] encodeBiomeSection(int[] biomes) {
+        // Biome 0 is always first in the palette, matching an empty section
+        IntList palette = new IntArrayList(4);
+        palette.add(0);
+        int[] paletteIds = new int[64];
+        for (int i = 0; i < 64; i++) {
+            int index = palette.indexOf(biomes[i]);
+            if (index == -1) {
+                index = palette.size();
+                palette.add(biomes[i]);
             }
+            paletteIds[i] = index;
+        }
+
+        // Convert biome coordinates into block coordinates, as Bedrock expects a full 4096 blocks
+        int[] blocks = new int[BlockStorage.SIZE];
+        for (int yzx = 0; yzx < BlockStorage.SIZE; yzx++) {
+            int x = (yzx & 0xF) >> 2;
+            int z = ((yzx >> 4) & 0xF) >> 2;
+            int y = (yzx >> 8) >> 2;
+            blocks[yzx] = paletteIds[y << 4 | z << 2 | x];
+        }
+
+        int bits = Math.max(2, 32 - Integer.numberOfLeadingZeros(palette.size() - 1));
+        BitArray bitArray = BitArrayVersion.forBitsCeil(bits).createArray(BlockStorage.SIZE);
+        BitArrayTranscoder.packPermuted(blocks, bitArray);
+
+        ByteBuf byteBuf = Unpooled.buffer();
+        try {
+            new BlockStorage(bitArray, palette).writeToNetwork(byteBuf);
+            byte[] encoded = new byte[byteBuf.readableBytes()];
+            byteBuf.readBytes(encoded);
+            return encoded;
+        } finally {
+            byteBuf.release();
+        }
+    }
+
+    /**
+     * The Bedrock biome IDs of the 64 cells of a section
+     */
+    private static final class BiomeSection {
+        private final int[] biomes;
+        private final int hashCode;
+
+        private BiomeSection(int[] biomes) {
+            this.biomes = biomes;
+            this.hashCode = Arrays.hashCode(biomes);
         }
 
-        return storage;
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof BiomeSection other && Arrays.equals(biomes, other.biomes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
     }
 }
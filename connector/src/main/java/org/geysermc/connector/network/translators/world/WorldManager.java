@@ -31,6 +31,7 @@ import com.github.steveice10.mc.protocol.data.game.setting.Difficulty;
 import com.nukkitx.math.vector.Vector3i;
 import com.nukkitx.nbt.NbtMap;
 import org.geysermc.connector.network.session.GeyserSession;
+import org.geysermc.connector.utils.BlockPositionIterator;
 import org.geysermc.connector.utils.GameRule;
 
 /**
@@ -75,6 +76,23 @@ public abstract class WorldManager {
      */
     public abstract int getBlockAt(GeyserSession session, int x, int y, int z);
 
+    /**
+     * Gets the Java block states of every block in a region at once. This is faster than calling
+     * {@link #getBlockAt(GeyserSession, int, int, int)} for each block on platforms that must first find the player's world.
+     *
+     * @param session the session
+     * @param iter the region to get the blocks of. This is reset before and after use.
+     * @return the block states, in the order of the iterator
+     */
+    public int[] getBlocksAt(GeyserSession session, BlockPositionIterator iter) {
+        int[] blocks = new int[iter.getSize()];
+        for (iter.reset(); iter.hasNext(); iter.next()) {
+            blocks[iter.getIndex()] = getBlockAt(session, iter.getX(), iter.getY(), iter.getZ());
+        }
+        iter.reset();
+        return blocks;
+    }
+
     /**
      * Checks whether or not this world manager requires a separate chunk cache/has access to more block data than the chunk cache.
      * <p>
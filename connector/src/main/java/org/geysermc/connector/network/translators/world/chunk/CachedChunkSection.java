@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2019-2021 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+
+package org.geysermc.connector.network.translators.world.chunk;
+
+import com.github.steveice10.mc.protocol.data.game.chunk.Chunk;
+import com.github.steveice10.mc.protocol.data.game.chunk.palette.GlobalPalette;
+import com.github.steveice10.mc.protocol.data.game.chunk.palette.Palette;
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import org.geysermc.connector.network.translators.world.block.BlockStateValues;
+
+import java.util.Arrays;
+
+/**
+ * A Java chunk section as stored in the chunk cache, which is smaller than a {@link Chunk}.
+ * <p>
+ * A section with only one block state stores just that state. Otherwise, the palette holds exactly the states that
+ * have been seen, and each block uses as few bits as that palette needs. Reads never lock: a change that needs a
+ * bigger palette builds a new {@link Storage} and publishes it in one write.
+ */
+public class CachedChunkSection {
+    private static final int BLOCKS = 4096;
+
+    private volatile Storage storage;
+
+    private CachedChunkSection(Storage storage) {
+        this.storage = storage;
+    }
+
+    /**
+     * @return a section filled with a single block state
+     */
+    public static CachedChunkSection single(int state) {
+        return new CachedChunkSection(new Storage(new int[] {state}, 0, null));
+    }
+
+    public static CachedChunkSection from(Chunk chunk) {
+        Palette palette = chunk.getPalette();
+        if (!(palette instanceof GlobalPalette)) {
+            int[] states = new int[palette.size()];
+            for (int i = 0; i < states.length; i++) {
+                states[i] = palette.idToState(i);
+            }
+            // Java packs its block storage the same way, so its data can be used as it is
+            int bitsPerEntry = chunk.getStorage().getBitsPerEntry();
+            long[] data = chunk.getStorage().getData().clone();
+
+            int paletteSize = states.length;
+            if (paletteSize < 1 << bitsPerEntry) {
+                // The server may reference IDs past the end of the palette, which the palette reads as air.
+                // Give these their own air entry so reading them does not index past the palette
+                for (int index = 0; index < BLOCKS; index++) {
+                    if (read(data, bitsPerEntry, index) >= paletteSize) {
+                        if (states.length == paletteSize) {
+                            states = Arrays.copyOf(states, paletteSize + 1);
+                            states[paletteSize] = BlockStateValues.JAVA_AIR_ID;
+                        }
+                        write(data, bitsPerEntry, index, paletteSize);
+                    }
+                }
+            }
+
+            if (states.length == 1) {
+                return single(states[0]);
+            }
+            return new CachedChunkSection(new Storage(states, bitsPerEntry, data));
+        }
+
+        // The global palette has every block state in it, so find the ones actually used
+        Int2IntMap stateToId = new Int2IntOpenHashMap();
+        stateToId.defaultReturnValue(-1);
+        int[] states = new int[16];
+        int[] ids = new int[BLOCKS];
+        for (int index = 0; index < BLOCKS; index++) {
+            int state = chunk.get(index & 0xF, index >> 8, (index >> 4) & 0xF);
+            int id = stateToId.get(state);
+            if (id == -1) {
+                id = stateToId.size();
+                stateToId.put(state, id);
+                if (id == states.length) {
+                    states = Arrays.copyOf(states, states.length * 2);
+                }
+                states[id] = state;
+            }
+            ids[index] = id;
+        }
+
+        states = Arrays.copyOf(states, stateToId.size());
+        if (states.length == 1) {
+            return single(states[0]);
+        }
+        int bitsPerEntry = bitsFor(states.length);
+        long[] data = new long[dataLength(bitsPerEntry)];
+        for (int index = 0; index < BLOCKS; index++) {
+            write(data, bitsPerEntry, index, ids[index]);
+        }
+        return new CachedChunkSection(new Storage(states, bitsPerEntry, data));
+    }
+
+    public int get(int x, int y, int z) {
+        Storage storage = this.storage;
+        if (storage.bitsPerEntry == 0) {
+            return storage.palette[0];
+        }
+        return storage.palette[read(storage.data, storage.bitsPerEntry, index(x, y, z))];
+    }
+
+    /**
+     * Only one thread may change a section at once
+     */
+    public void set(int x, int y, int z, int state) {
+        Storage storage = this.storage;
+        int id = indexOf(storage.palette, state);
+        if (id != -1) {
+            if (storage.bitsPerEntry != 0) {
+                write(storage.data, storage.bitsPerEntry, index(x, y, z), id);
+            }
+            return;
+        }
+
+        id = storage.palette.length;
+        int[] palette = Arrays.copyOf(storage.palette, id + 1);
+        palette[id] = state;
+
+        int bitsPerEntry = bitsFor(palette.length);
+        long[] data;
+        if (bitsPerEntry <= storage.bitsPerEntry) {
+            // Java's palettes start at 4 bits per block, so there is often room for more states.
+            // The data is still copied, as a reader holding the old palette must not see the new ID
+            bitsPerEntry = storage.bitsPerEntry;
+            data = storage.data.clone();
+        } else {
+            data = new long[dataLength(bitsPerEntry)];
+            if (storage.bitsPerEntry != 0) {
+                for (int index = 0; index < BLOCKS; index++) {
+                    write(data, bitsPerEntry, index, read(storage.data, storage.bitsPerEntry, index));
+                }
+            }
+        }
+        write(data, bitsPerEntry, index(x, y, z), id);
+        this.storage = new Storage(palette, bitsPerEntry, data);
+    }
+
+    /**
+     * @return a copy of this section that can be changed without affecting this one
+     */
+    public CachedChunkSection copy() {
+        Storage storage = this.storage;
+        return new CachedChunkSection(new Storage(storage.palette, storage.bitsPerEntry,
+                storage.data != null ? storage.data.clone() : null));
+    }
+
+    /**
+     * @return roughly how many bytes of heap this section uses
+     */
+    public long getSizeInBytes() {
+        Storage storage = this.storage;
+        // Object headers and fields of the section and its storage, plus the array headers
+        long size = 16 + 24 + 16 + 4L * storage.palette.length;
+        if (storage.data != null) {
+            size += 16 + 8L * storage.data.length;
+        }
+        return size;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CachedChunkSection other)) {
+            return false;
+        }
+        Storage storage = this.storage;
+        Storage otherStorage = other.storage;
+        return storage.bitsPerEntry == otherStorage.bitsPerEntry && Arrays.equals(storage.palette, otherStorage.palette)
+                && Arrays.equals(storage.data, otherStorage.data);
+    }
+
+    @Override
+    public int hashCode() {
+        Storage storage = this.storage;
+        return 31 * (31 * storage.bitsPerEntry + Arrays.hashCode(storage.palette)) + Arrays.hashCode(storage.data);
+    }
+
+    private static int index(int x, int y, int z) {
+        return y << 8 | z << 4 | x;
+    }
+
+    private static int indexOf(int[] palette, int state) {
+        for (int i = 0; i < palette.length; i++) {
+            if (palette[i] == state) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int bitsFor(int paletteSize) {
+        return paletteSize <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(paletteSize - 1);
+    }
+
+    private static int dataLength(int bitsPerEntry) {
+        int valuesPerLong = 64 / bitsPerEntry;
+        return (BLOCKS + valuesPerLong - 1) / valuesPerLong;
+    }
+
+    /*
+     * Values don't span across longs, the same as in Java Edition's block storage
+     */
+
+    private static int read(long[] data, int bitsPerEntry, int index) {
+        int valuesPerLong = 64 / bitsPerEntry;
+        int shift = (index % valuesPerLong) * bitsPerEntry;
+        return (int) ((data[index / valuesPerLong] >>> shift) & ((1L << bitsPerEntry) - 1));
+    }
+
+    private static void write(long[] data, int bitsPerEntry, int index, int value) {
+        int valuesPerLong = 64 / bitsPerEntry;
+        int shift = (index % valuesPerLong) * bitsPerEntry;
+        long mask = ((1L << bitsPerEntry) - 1) << shift;
+        int i = index / valuesPerLong;
+        data[i] = (data[i] & ~mask) | ((long) value << shift);
+    }
+
+    /**
+     * @param data null if the section only has one block state
+     */
+    private record Storage(int[] palette, int bitsPerEntry, long[] data) {
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2019-2021 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.connector.network.translators.world.chunk;
+
+import com.github.steveice10.mc.protocol.data.game.chunk.Chunk;
+import com.github.steveice10.mc.protocol.data.game.chunk.Column;
+import com.github.steveice10.mc.protocol.data.game.chunk.palette.GlobalPalette;
+import com.github.steveice10.mc.protocol.data.game.chunk.palette.Palette;
+import com.github.steveice10.opennbt.tag.builtin.CompoundTag;
+import com.github.steveice10.opennbt.tag.builtin.Tag;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import org.geysermc.connector.network.session.GeyserSession;
+
+import java.util.Arrays;
+
+/**
+ * Holds encoded {@link com.nukkitx.protocol.bedrock.packet.LevelChunkPacket} payloads so that players on the same
+ * Bedrock version who are sent the same Java chunk column do not each translate it again.
+ * <p>
+ * Columns are keyed by their position and a 128-bit hash of their block and biome data, along with everything else the
+ * payload depends on. The position is needed as Bedrock-only block entities, such as flower pots, are written with
+ * absolute coordinates. Java block entities are compared in full when an entry is found. Columns with lecterns are never cached, as their
+ * block entity depends on the player.
+ */
+public class ChunkPayloadCache {
+    private static final long LANE_1_MULTIPLIER = 0x9E3779B97F4A7C15L;
+    private static final long LANE_2_MULTIPLIER = 0xC6A4A7935BD1E995L;
+
+    private final Cache<Key, Entry> cache;
+
+    public ChunkPayloadCache(int maxSizeMb) {
+        if (maxSizeMb > 0) {
+            this.cache = CacheBuilder.newBuilder()
+                    .maximumWeight(maxSizeMb * 1024L * 1024L)
+                    .weigher((Key key, Entry entry) -> entry.payload().length)
+                    .concurrencyLevel(4)
+                    .build();
+        } else {
+            this.cache = null;
+        }
+    }
+
+    /**
+     * Calculate the cache key of a Java column, as it would be translated for this session
+     *
+     * @return the key, or null if the column cannot be cached
+     */
+    public Key createKey(GeyserSession session, Column column, int yOffset) {
+        if (cache == null) {
+            return null;
+        }
+
+        for (CompoundTag tag : column.getTileEntities()) {
+            Tag idTag = tag.get("id");
+            if (idTag == null || "minecraft:lectern".equals(idTag.getValue())) {
+                // Lecterns with books are looked up through the world manager; tags without IDs are too odd to bother with
+                return null;
+            }
+        }
+
+        Hasher hasher = new Hasher();
+        Chunk[] chunks = column.getChunks();
+        hasher.update(chunks.length);
+        for (Chunk chunk : chunks) {
+            if (chunk == null || chunk.isEmpty()) {
+                hasher.update(-1);
+                continue;
+            }
+
+            Palette palette = chunk.getPalette();
+            if (palette instanceof GlobalPalette) {
+                hasher.update(-2);
+            } else {
+                hasher.update(palette.size());
+                for (int i = 0; i < palette.size(); i++) {
+                    hasher.update(palette.idToState(i));
+                }
+            }
+
+            hasher.update(chunk.getStorage().getBitsPerEntry());
+            for (long word : chunk.getStorage().getData()) {
+                hasher.update(word);
+            }
+        }
+
+        // Hash the Bedrock biomes rather than the Java ones, as the Java IDs depend on the server's dimension codec
+        Int2IntMap biomeTranslations = session.getBiomeTranslations();
+        int[] biomeData = column.getBiomeData();
+        hasher.update(biomeData.length);
+        for (int biome : biomeData) {
+            hasher.update(biomeTranslations.get(biome));
+        }
+
+        return new Key(column.getX(), column.getZ(), session.getUpstream().getProtocolVersion(), yOffset,
+                session.getChunkCache().isExtendedHeight(), hasher.finish1(), hasher.finish2());
+    }
+
+    /**
+     * @return the cached payload of this column, or null if it has not been cached
+     */
+    public Entry get(Key key, Column column) {
+        Entry entry = cache.getIfPresent(key);
+        if (entry != null && Arrays.equals(entry.tileEntities(), column.getTileEntities())) {
+            return entry;
+        }
+        return null;
+    }
+
+    /**
+     * Cache a translated column under the key created for it before translating. The column is not hashed again,
+     * as it cannot change during translation: the chunk cache holds its own copy, and block updates wait for any
+     * pending translation of their column first.
+     */
+    public void put(Key key, Entry entry) {
+        cache.put(key, entry);
+    }
+
+    public record Key(int chunkX, int chunkZ, int protocolVersion, int yOffset, boolean extendedHeight, long hash1, long hash2) {
+    }
+
+    /**
+     * @param tileEntities the Java block entities of the column, to compare against on lookup
+     * @param payload shared between every packet the entry is used for, and must not be modified
+     * @param blobEnds the end offset in the payload of each sub chunk, followed by the end of the biomes
+     * @param blobIds the hash of each sub chunk followed by the hash of the biomes, for clients using the blob cache
+     */
+    public record Entry(CompoundTag[] tileEntities, int sectionCount, byte[] payload, int[] blobEnds, long[] blobIds) {
+    }
+
+    /**
+     * Two independently mixed 64-bit lanes, giving a 128-bit hash that is fast to calculate over the raw chunk data
+     */
+    private static final class Hasher {
+        private long lane1 = 0x243F6A8885A308D3L;
+        private long lane2 = 0x13198A2E03707344L;
+        private long length;
+
+        void update(long value) {
+            lane1 = Long.rotateLeft(lane1 ^ mix(value), 27) * LANE_1_MULTIPLIER;
+            lane2 = Long.rotateLeft(lane2 + mix(value ^ LANE_2_MULTIPLIER), 31) * LANE_2_MULTIPLIER;
+            length++;
+        }
+
+        long finish1() {
+            return mix(lane1 ^ length);
+        }
+
+        long finish2() {
+            return mix(lane2 + length);
+        }
+
+        /**
+         * The MurmurHash3 finalizer
+         */
+        private static long mix(long value) {
+            value ^= value >>> 33;
+            value *= 0xFF51AFD7ED558CCDL;
+            value ^= value >>> 33;
+            value *= 0xC4CEB9FE1A85EC53L;
+            value ^= value >>> 33;
+            return value;
+        }
+    }
+}
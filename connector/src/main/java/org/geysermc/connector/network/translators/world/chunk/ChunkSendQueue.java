@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2019-2021 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.connector.network.translators.world.chunk;
+
+import com.nukkitx.math.vector.Vector3f;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import org.geysermc.connector.GeyserConnector;
+import org.geysermc.connector.network.session.GeyserSession;
+import org.geysermc.connector.utils.MathUtils;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * The chunks of a session that are waiting to be translated. Chunks closest to the player are translated first,
+ * a chunk that is sent again replaces the queued copy, and chunks that are unloaded or belong to a previous dimension
+ * are dropped before they are translated.
+ * <p>
+ * A block update to a chunk that is still queued must {@link #flush(int, int)} it first, so that the chunk is sent
+ * before the update rather than overwriting it.
+ */
+public class ChunkSendQueue {
+    private static final Comparator<PendingChunk> BY_DISTANCE = Comparator.comparingInt(PendingChunk::getDistance);
+
+    private final GeyserSession session;
+    private final ChunkTranslationExecutor executor;
+
+    /**
+     * Guarded by this object
+     */
+    private final Long2ObjectMap<PendingChunk> pendingChunks = new Long2ObjectOpenHashMap<>();
+    /**
+     * The pending chunks ordered by their distance to {@link #centerX} and {@link #centerZ}. Chunks that have been
+     * replaced, removed or flushed are left here and skipped once polled. Guarded by this object
+     */
+    private PriorityQueue<PendingChunk> nearestChunks = new PriorityQueue<>(BY_DISTANCE);
+    /**
+     * The chunk the player was in when {@link #nearestChunks} was last ordered
+     */
+    private int centerX;
+    private int centerZ;
+    /**
+     * The chunk currently being translated on the executor, if any. Guarded by this object
+     */
+    private PendingChunk translating;
+    /**
+     * If a task to translate this session's chunks is waiting in or running on the executor
+     */
+    private boolean scheduled;
+
+    public ChunkSendQueue(GeyserSession session) {
+        this.session = session;
+        this.executor = session.getConnector().getChunkTranslationExecutor();
+    }
+
+    /**
+     * Queue a chunk to be translated, replacing any queued translation of the same chunk
+     *
+     * @param task translates and sends the chunk
+     */
+    public synchronized void add(int chunkX, int chunkZ, Runnable task) {
+        PendingChunk chunk = new PendingChunk(chunkX, chunkZ, task);
+        if (pendingChunks.put(chunk.key, chunk) == null) {
+            executor.addQueued(1);
+        }
+        chunk.distance = distance(chunk, centerX, centerZ);
+        nearestChunks.add(chunk);
+        if (!scheduled) {
+            scheduled = true;
+            executor.execute(this::translateNext);
+        }
+    }
+
+    /**
+     * Drop the queued translation of a chunk, if there is one
+     */
+    public synchronized void remove(int chunkX, int chunkZ) {
+        if (pendingChunks.remove(MathUtils.chunkPositionToLong(chunkX, chunkZ)) != null) {
+            executor.addQueued(-1);
+        }
+    }
+
+    /**
+     * Translate and send a chunk now if it is queued, or wait for it if it is being translated. Once this returns,
+     * the chunk has been sent and no longer reads from its column, so a block update to it can safely be applied.
+     */
+    public void flush(int chunkX, int chunkZ) {
+        long key = MathUtils.chunkPositionToLong(chunkX, chunkZ);
+        PendingChunk chunk;
+        synchronized (this) {
+            chunk = pendingChunks.remove(key);
+            if (chunk != null) {
+                executor.addQueued(-1);
+            } else if (translating != null && translating.key == key) {
+                chunk = translating;
+            } else {
+                return;
+            }
+        }
+
+        // Does nothing if the executor is already running this chunk
+        chunk.task.run();
+        try {
+            chunk.task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            GeyserConnector.getInstance().getLogger().error("Error while translating chunk", e.getCause());
+        }
+    }
+
+    /**
+     * Drop every queued chunk, such as when switching dimensions
+     */
+    public synchronized void clear() {
+        executor.addQueued(-pendingChunks.size());
+        pendingChunks.clear();
+        nearestChunks.clear();
+    }
+
+    /**
+     * @return the number of chunks waiting to be translated for this session
+     */
+    public synchronized int size() {
+        return pendingChunks.size();
+    }
+
+    private void translateNext() {
+        PendingChunk chunk;
+        synchronized (this) {
+            if (session.isClosed()) {
+                clear();
+            }
+            chunk = pollNearest();
+            if (chunk == null) {
+                scheduled = false;
+                return;
+            }
+            translating = chunk;
+        }
+
+        try {
+            chunk.task.run();
+        } finally {
+            synchronized (this) {
+                translating = null;
+                if (pendingChunks.isEmpty()) {
+                    scheduled = false;
+                } else {
+                    // Go to the back of the executor's queue so other sessions get their turn
+                    executor.execute(this::translateNext);
+                }
+            }
+        }
+    }
+
+    private PendingChunk pollNearest() {
+        if (pendingChunks.isEmpty()) {
+            nearestChunks.clear();
+            return null;
+        }
+
+        Vector3f position = session.getPlayerEntity().getPosition();
+        int playerChunkX = position.getFloorX() >> 4;
+        int playerChunkZ = position.getFloorZ() >> 4;
+        if (playerChunkX != centerX || playerChunkZ != centerZ) {
+            // The player has moved into another chunk; reorder what is still pending around it
+            centerX = playerChunkX;
+            centerZ = playerChunkZ;
+            PriorityQueue<PendingChunk> reordered = new PriorityQueue<>(Math.max(1, pendingChunks.size()), BY_DISTANCE);
+            for (PendingChunk chunk : pendingChunks.values()) {
+                chunk.distance = distance(chunk, centerX, centerZ);
+                reordered.add(chunk);
+            }
+            nearestChunks = reordered;
+        }
+
+        PendingChunk nearest;
+        while ((nearest = nearestChunks.poll()) != null) {
+            if (pendingChunks.get(nearest.key) == nearest) {
+                pendingChunks.remove(nearest.key);
+                executor.addQueued(-1);
+                return nearest;
+            }
+        }
+        return null;
+    }
+
+    private static int distance(PendingChunk chunk, int centerX, int centerZ) {
+        int distanceX = chunk.x - centerX;
+        int distanceZ = chunk.z - centerZ;
+        return distanceX * distanceX + distanceZ * distanceZ;
+    }
+
+    private static final class PendingChunk {
+        private final int x;
+        private final int z;
+        private final long key;
+        /**
+         * Runs the translation at most once, whether from the executor or from {@link #flush(int, int)}
+         */
+        private final FutureTask<Void> task;
+        /**
+         * The squared distance to the chunk the queue is ordered around
+         */
+        private int distance;
+
+        private PendingChunk(int x, int z, Runnable task) {
+            this.x = x;
+            this.z = z;
+            this.key = MathUtils.chunkPositionToLong(x, z);
+            this.task = new FutureTask<>(task, null);
+        }
+
+        private int getDistance() {
+            return distance;
+        }
+    }
+}
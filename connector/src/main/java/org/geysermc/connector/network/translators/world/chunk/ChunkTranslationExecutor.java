@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2019-2021 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.connector.network.translators.world.chunk;
+
+import org.geysermc.connector.GeyserConnector;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The threads that translate and send chunks, kept apart from the general thread pool so that a player
+ * teleporting or switching dimensions does not hold up everything else.
+ * <p>
+ * Each session queues its chunks in its own {@link ChunkSendQueue}, which has at most one task
+ * waiting here at a time. Sessions therefore take turns, one chunk each.
+ */
+public class ChunkTranslationExecutor {
+    private final ExecutorService executor;
+    /**
+     * The number of chunks waiting to be translated across all sessions
+     */
+    private final AtomicInteger queuedChunks = new AtomicInteger();
+
+    /**
+     * How well the size of chunk payloads is estimated before encoding them. A payload larger than its estimate
+     * has to grow its buffer while it is being written.
+     */
+    private final LongAdder encodedPayloads = new LongAdder();
+    private final LongAdder estimatedBytes = new LongAdder();
+    private final LongAdder encodedBytes = new LongAdder();
+    private final LongAdder underestimatedPayloads = new LongAdder();
+
+    public ChunkTranslationExecutor(int threads) {
+        AtomicInteger threadId = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "Geyser Chunk Translator #" + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    void execute(Runnable task) {
+        executor.execute(() -> {
+            try {
+                task.run();
+            } catch (Throwable t) {
+                GeyserConnector.getInstance().getLogger().error("Error while translating chunk", t);
+            }
+        });
+    }
+
+    void addQueued(int count) {
+        queuedChunks.addAndGet(count);
+    }
+
+    /**
+     * @return the number of chunks waiting to be translated across all sessions
+     */
+    public int getQueuedChunks() {
+        return queuedChunks.get();
+    }
+
+    /**
+     * Record the estimated and actual size of an encoded chunk payload
+     */
+    public void recordPayloadSize(int estimated, int actual) {
+        encodedPayloads.increment();
+        estimatedBytes.add(estimated);
+        encodedBytes.add(actual);
+        if (actual > estimated) {
+            underestimatedPayloads.increment();
+        }
+    }
+
+    public long getEncodedPayloads() {
+        return encodedPayloads.sum();
+    }
+
+    public long getEstimatedBytes() {
+        return estimatedBytes.sum();
+    }
+
+    public long getEncodedBytes() {
+        return encodedBytes.sum();
+    }
+
+    public long getUnderestimatedPayloads() {
+        return underestimatedPayloads.sum();
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
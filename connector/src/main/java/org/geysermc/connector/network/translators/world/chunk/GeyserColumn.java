@@ -28,6 +28,7 @@ package org.geysermc.connector.network.translators.world.chunk;
 import com.github.steveice10.mc.protocol.data.game.chunk.Chunk;
 import com.github.steveice10.mc.protocol.data.game.chunk.Column;
 import lombok.Getter;
+import org.geysermc.connector.GeyserConnector;
 import org.geysermc.connector.network.session.cache.ChunkCache;
 
 /**
@@ -35,23 +36,67 @@ import org.geysermc.connector.network.session.cache.ChunkCache;
  * biomes or heightmaps.
  */
 public class GeyserColumn {
+    /**
+     * Null for empty sections. Sections may be shared with other sessions, so use {@link #getWritableSection(int)}
+     * before modifying one
+     */
     @Getter
-    private final Chunk[] chunks;
+    private final CachedChunkSection[] sections;
+    /**
+     * Which of {@link #sections} are shared with other sessions, or null if this column owns all of its sections
+     */
+    private final boolean[] shared;
 
-    private GeyserColumn(Chunk[] chunks) {
-        this.chunks = chunks;
+    private GeyserColumn(CachedChunkSection[] sections, boolean[] shared) {
+        this.sections = sections;
+        this.shared = shared;
     }
 
     public static GeyserColumn from(ChunkCache chunkCache, Column column) {
-        int chunkHeightY = chunkCache.getChunkHeightY();
-        Chunk[] chunks;
-        if (chunkHeightY < column.getChunks().length) {
-            chunks = new Chunk[chunkHeightY];
-            // TODO addresses https://github.com/Steveice10/MCProtocolLib/pull/598#issuecomment-862782392
-            System.arraycopy(column.getChunks(), 0, chunks, 0, chunks.length);
-        } else {
-            chunks = column.getChunks();
+        // TODO addresses https://github.com/Steveice10/MCProtocolLib/pull/598#issuecomment-862782392
+        Chunk[] chunks = column.getChunks();
+        CachedChunkSection[] sections = new CachedChunkSection[Math.min(chunkCache.getChunkHeightY(), chunks.length)];
+
+        SharedChunkSections sharedChunkSections = GeyserConnector.getInstance().getSharedChunkSections();
+        boolean[] shared = sharedChunkSections != null ? new boolean[sections.length] : null;
+        for (int i = 0; i < sections.length; i++) {
+            Chunk chunk = chunks[i];
+            if (chunk == null || chunk.isEmpty()) {
+                continue;
+            }
+
+            sections[i] = CachedChunkSection.from(chunk);
+            if (shared != null) {
+                sections[i] = sharedChunkSections.intern(sections[i]);
+                shared[i] = true;
+            }
+        }
+        return new GeyserColumn(sections, shared);
+    }
+
+    /**
+     * Get a section that can be modified, copying it first if it is shared with other sessions
+     *
+     * @return the section, or null if the section is empty and has not been created
+     */
+    public CachedChunkSection getWritableSection(int index) {
+        if (shared != null && shared[index]) {
+            sections[index] = sections[index].copy();
+            shared[index] = false;
+        }
+        return sections[index];
+    }
+
+    /**
+     * @return roughly how many bytes of heap this column uses, counting shared sections in full
+     */
+    public long getSizeInBytes() {
+        long size = 16 + 16 + 8L * sections.length;
+        for (CachedChunkSection section : sections) {
+            if (section != null) {
+                size += section.getSizeInBytes();
+            }
         }
-        return new GeyserColumn(chunks);
+        return size;
     }
 }
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2019-2021 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.connector.network.translators.world.chunk.bitarray;
+
+import com.github.steveice10.mc.protocol.data.game.chunk.BitStorage;
+
+/**
+ * Converts Java chunk section storage to Bedrock storage a whole word at a time, instead of going through
+ * {@link BitStorage#get(int)} and {@link BitArray#set(int, int)} for each of the 4096 blocks.
+ * <p>
+ * Java stores blocks in YZX order while Bedrock stores them in XZY order. Neither format lets an entry span two words,
+ * so both can be read and written with a fixed number of entries per word.
+ */
+public final class BitArrayTranscoder {
+    public static final int SECTION_SIZE = 4096;
+
+    /**
+     * Maps each index in XZY order to the same block's index in YZX order. As this swaps the X and Y nibbles,
+     * it also maps YZX to XZY.
+     */
+    private static final int[] XZY_TO_YZX = new int[SECTION_SIZE];
+
+    static {
+        for (int xzy = 0; xzy < SECTION_SIZE; xzy++) {
+            XZY_TO_YZX[xzy] = (xzy >> 8) | (xzy & 0x0F0) | ((xzy & 0x00F) << 8);
+        }
+    }
+
+    private BitArrayTranscoder() {
+    }
+
+    /**
+     * Read every entry of a Java section's storage
+     *
+     * @param storage the Java storage, in YZX order
+     * @param output filled with the 4096 entries in YZX order
+     */
+    public static void unpack(BitStorage storage, int[] output) {
+        long[] data = storage.getData();
+        int bits = storage.getBitsPerEntry();
+        int entriesPerLong = 64 / bits;
+        long mask = (1L << bits) - 1;
+
+        int index = 0;
+        int fullLongs = SECTION_SIZE / entriesPerLong;
+        for (int i = 0; i < fullLongs; i++) {
+            long word = data[i];
+            for (int j = 0; j < entriesPerLong; j++) {
+                output[index++] = (int) (word & mask);
+                word >>>= bits;
+            }
+        }
+        if (index < SECTION_SIZE) {
+            // The last long is only partly used when the entries per long do not divide 4096
+            long word = data[fullLongs];
+            while (index < SECTION_SIZE) {
+                output[index++] = (int) (word & mask);
+                word >>>= bits;
+            }
+        }
+    }
+
+    /**
+     * Write every entry of a Bedrock section's storage, converting from YZX to XZY order
+     *
+     * @param input the 4096 entries in YZX order, each of which must fit in the target's version
+     * @param target the Bedrock storage to overwrite
+     */
+    public static void packPermuted(int[] input, BitArray target) {
+        int[] words = target.getWords();
+        BitArrayVersion version = target.getVersion();
+        int bits = version.bits;
+        int entriesPerWord = version.entriesPerWord;
+
+        int xzy = 0;
+        int fullWords = SECTION_SIZE / entriesPerWord;
+        for (int i = 0; i < fullWords; i++) {
+            int word = 0;
+            for (int shift = 0, end = entriesPerWord * bits; shift < end; shift += bits) {
+                word |= input[XZY_TO_YZX[xzy++]] << shift;
+            }
+            words[i] = word;
+        }
+        if (xzy < SECTION_SIZE) {
+            // Padded versions leave part of the last word unused
+            int word = 0;
+            for (int shift = 0; xzy < SECTION_SIZE; shift += bits) {
+                word |= input[XZY_TO_YZX[xzy++]] << shift;
+            }
+            words[fullWords] = word;
+        }
+    }
+
+    /**
+     * Write a V1 storage with a bit set for every block whose entry is marked in the given flags,
+     * converting from YZX to XZY order
+     *
+     * @param input the 4096 entries in YZX order
+     * @param flags indexed by entry. Entries past the end of the flags, which a server can send for IDs past the end
+     *              of its palette, are treated as unmarked
+     * @return the words of a V1 storage
+     */
+    public static int[] packFlagsPermuted(int[] input, boolean[] flags) {
+        int[] words = new int[SECTION_SIZE >> 5];
+        int xzy = 0;
+        for (int i = 0; i < words.length; i++) {
+            int word = 0;
+            for (int bit = 0; bit < 32; bit++) {
+                int entry = input[XZY_TO_YZX[xzy++]];
+                if (entry < flags.length && flags[entry]) {
+                    word |= 1 << bit;
+                }
+            }
+            words[i] = word;
+        }
+        return words;
+    }
+}
@@ -33,6 +33,8 @@ import com.nukkitx.protocol.bedrock.data.inventory.ComponentItemData;
 import com.nukkitx.protocol.bedrock.v448.Bedrock_v448;
 import com.nukkitx.protocol.bedrock.v465.Bedrock_v465;
 import com.nukkitx.protocol.bedrock.v471.Bedrock_v471;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.ints.IntSet;
 import it.unimi.dsi.fastutil.objects.Object2IntMap;
@@ -66,7 +68,15 @@ public class BlockRegistryPopulator {
     public static List<String> customBlockTags = new ArrayList<>();
     public static Map<String, NbtMap> customBlocks = new HashMap<>();
 
+    /**
+     * The model of each custom note block, keyed by {@link #noteBlockKey(int, int, boolean)}
+     */
+    private static final Int2ObjectMap<String> CUSTOM_NOTE_BLOCK_MODELS = new Int2ObjectOpenHashMap<>();
+    private static final Object2IntMap<String> NOTE_BLOCK_INSTRUMENTS = new Object2IntOpenHashMap<>();
+
     private static final ImmutableMap<ObjectIntPair<String>, BiFunction<String, NbtMapBuilder, String>> BLOCK_MAPPERS;
+    private static final String NOTE_BLOCK_PREFIX = "minecraft:note_block[";
+
     private static final BiFunction<String, NbtMapBuilder, String> EMPTY_MAPPER = (bedrockIdentifier, statesBuilder) -> null;
 
     static {
@@ -84,11 +94,70 @@ public class BlockRegistryPopulator {
     private static JsonNode BLOCKS_JSON;
 
     public static void populate() {
+        indexCustomNoteBlocks();
         registerJavaBlocks();
         registerBedrockBlocks();
         BLOCKS_JSON = null;
     }
 
+    /**
+     * Index the note block states that custom blocks replace, so each Java block state can be looked up directly
+     */
+    private static void indexCustomNoteBlocks() {
+        blockStatesNode.sort(Comparator.comparing(p -> p.get("apply").get("model").asText()));
+        CUSTOM_NOTE_BLOCK_MODELS.clear();
+        NOTE_BLOCK_INSTRUMENTS.clear();
+        NOTE_BLOCK_INSTRUMENTS.defaultReturnValue(-1);
+
+        for (JsonNode blockState : blockStatesNode) {
+            JsonNode when = blockState.get("when");
+            if (when == null || !blockState.has("apply") || !when.has("instrument") || !when.has("note") || !when.has("powered")) {
+                continue;
+            }
+
+            String instrumentName = when.get("instrument").asText();
+            int instrument = NOTE_BLOCK_INSTRUMENTS.getInt(instrumentName);
+            if (instrument == -1) {
+                instrument = NOTE_BLOCK_INSTRUMENTS.size();
+                NOTE_BLOCK_INSTRUMENTS.put(instrumentName, instrument);
+            }
+            // If several models claim the same state, the first in model order is used
+            CUSTOM_NOTE_BLOCK_MODELS.putIfAbsent(noteBlockKey(instrument, when.get("note").asInt(), when.get("powered").asBoolean()),
+                    blockState.get("apply").get("model").asText());
+        }
+    }
+
+    /**
+     * @param javaId the Java identifier of a block state
+     * @return the model of the custom block replacing this note block state, or null if there is none
+     */
+    private static String getCustomNoteBlockModel(String javaId) {
+        if (CUSTOM_NOTE_BLOCK_MODELS.isEmpty() || !javaId.startsWith(NOTE_BLOCK_PREFIX)) {
+            return null;
+        }
+
+        int instrument = -1;
+        int note = -1;
+        boolean powered = false;
+        for (String property : javaId.substring(NOTE_BLOCK_PREFIX.length(), javaId.length() - 1).split(",")) {
+            int separator = property.indexOf('=');
+            String value = property.substring(separator + 1);
+            switch (property.substring(0, separator)) {
+                case "instrument" -> instrument = NOTE_BLOCK_INSTRUMENTS.getInt(value);
+                case "note" -> note = Integer.parseInt(value);
+                case "powered" -> powered = Boolean.parseBoolean(value);
+            }
+        }
+        if (instrument == -1 || note == -1) {
+            return null;
+        }
+        return CUSTOM_NOTE_BLOCK_MODELS.get(noteBlockKey(instrument, note, powered));
+    }
+
+    private static int noteBlockKey(int instrument, int note, boolean powered) {
+        return (instrument << 6) | (note << 1) | (powered ? 1 : 0);
+    }
+
     private static NbtMap putWithValue(Object value) {
         NbtMapBuilder builder = NbtMap.builder();
         builder.put("value", value);
@@ -97,171 +166,197 @@ public class BlockRegistryPopulator {
     }
 
     private static void registerBedrockBlocks() {
-        int counter = 0;
-        for (Map.Entry<ObjectIntPair<String>, BiFunction<String, NbtMapBuilder, String>> palette : BLOCK_MAPPERS.entrySet()) {
-            InputStream stream = FileUtils.getResource(String.format("bedrock/block_palette.%s.nbt", palette.getKey().key()));
-            NbtList<NbtMap> blocksTag;
-            try (NBTInputStream nbtInputStream = new NBTInputStream(new DataInputStream(new GZIPInputStream(stream)), true, true)) {
-                NbtMap blockPalette = (NbtMap) nbtInputStream.readTag();
-                blocksTag = (NbtList<NbtMap>) blockPalette.getList("blocks", NbtType.COMPOUND);
-            } catch (Exception e) {
-                throw new AssertionError("Unable to get blocks from runtime block states", e);
+        List<String> snapshotResources = new ArrayList<>();
+        snapshotResources.add("mappings/blocks.json");
+        for (ObjectIntPair<String> palette : BLOCK_MAPPERS.keySet()) {
+            snapshotResources.add(String.format("bedrock/block_palette.%s.nbt", palette.key()));
+        }
+        BlockRuntimeIdSnapshot snapshot = BlockRuntimeIdSnapshot.load(snapshotResources);
+
+        List<ObjectIntPair<String>> palettes = new ArrayList<>(BLOCK_MAPPERS.keySet());
+        // Look up the snapshot before any palette is built, as it is not safe to read while being added to
+        Int2ObjectMap<int[]> snapshotRuntimeIds = new Int2ObjectOpenHashMap<>(palettes.size());
+        if (snapshot != null) {
+            for (ObjectIntPair<String> palette : palettes) {
+                snapshotRuntimeIds.put(palette.valueInt(), snapshot.get(palette.valueInt(), BLOCKS_JSON.size()));
             }
-            Map<String, NbtMap> javaIdentifierToBedrockTag = new Object2ObjectOpenHashMap<>(blocksTag.size());
-            // New since 1.16.100 - find the block runtime ID by the order given to us in the block palette,
-            // as we no longer send a block palette
-            Object2IntMap<NbtMap> blockStateOrderedMap = new Object2IntOpenHashMap<>(blocksTag.size());
-
-            int stateVersion = -1;
-            for (int i = 0; i < blocksTag.size(); i++) {
-                NbtMap tag = blocksTag.get(i);
-                if (blockStateOrderedMap.containsKey(tag)) {
-                    throw new AssertionError("Duplicate block states in Bedrock palette: " + tag);
-                }
-                blockStateOrderedMap.put(tag, i);
-                if (stateVersion == -1) {
-                    stateVersion = tag.getInt("version");
-                }
+        }
+
+        List<BedrockPalette> results = PaletteTasks.runAll(palettes,
+                palette -> buildBedrockPalette(palette, snapshotRuntimeIds.get(palette.valueInt())));
+
+        for (int i = 0; i < palettes.size(); i++) {
+            BedrockPalette result = results.get(i);
+            BlockRegistries.BLOCKS.register(palettes.get(i).valueInt(), result.mappings());
+            customBlocks.putAll(result.customBlocks());
+            if (snapshot != null) {
+                snapshot.put(palettes.get(i).valueInt(), result.vanillaRuntimeIds());
             }
-            int airRuntimeId = -1;
-            int commandBlockRuntimeId = -1;
-            int javaRuntimeId = -1;
-            int waterRuntimeId = -1;
-            int movingBlockRuntimeId = -1;
-            Iterator<Map.Entry<String, JsonNode>> blocksIterator = BLOCKS_JSON.fields();
-
-            BiFunction<String, NbtMapBuilder, String> stateMapper = BLOCK_MAPPERS.getOrDefault(palette.getKey(), EMPTY_MAPPER);
-            int[] javaToBedrockBlocks = new int[BLOCKS_JSON.size()];
-
-            Map<String, NbtMap> flowerPotBlocks = new Object2ObjectOpenHashMap<>();
-            Object2IntMap<NbtMap> itemFrames = new Object2IntOpenHashMap<>();
-
-            IntSet jigsawStateIds = new IntOpenHashSet();
-            BlockMappings.BlockMappingsBuilder builder = BlockMappings.builder();
-            Collections.sort(blockStatesNode, Comparator.comparing(p -> p.get("apply").get("model").asText()));
-            while (blocksIterator.hasNext()) {
-                javaRuntimeId++;
-                Map.Entry<String, JsonNode> entry = blocksIterator.next();
-                String javaId = entry.getKey();
-
-                int bedrockRuntimeId = blockStateOrderedMap.getOrDefault(buildBedrockState(entry.getValue(), stateVersion, stateMapper), -1);
-                if (bedrockRuntimeId == -1) {
-                    throw new RuntimeException("Unable to find " + javaId + " Bedrock runtime ID! Built NBT tag: \n" +
-                            buildBedrockState(entry.getValue(), stateVersion, stateMapper));
-                }
-                switch (javaId) {
-                    case "minecraft:air" -> airRuntimeId = bedrockRuntimeId;
-                    case "minecraft:water[level=0]" -> waterRuntimeId = bedrockRuntimeId;
-                    case "minecraft:command_block[conditional=false,facing=north]" -> commandBlockRuntimeId = bedrockRuntimeId;
-                    case "minecraft:moving_piston[facing=north,type=normal]" -> movingBlockRuntimeId = bedrockRuntimeId;
-                }
+        }
 
-                if (javaId.contains("jigsaw")) {
-                    jigsawStateIds.add(bedrockRuntimeId);
-                }
+        if (snapshot != null) {
+            snapshot.save();
+        }
+    }
 
-                boolean waterlogged = entry.getKey().contains("waterlogged=true")
-                        || javaId.contains("minecraft:bubble_column") || javaId.contains("minecraft:kelp") || javaId.contains("seagrass");
+    /**
+     * Build the block mappings of one palette version. This runs alongside the other palettes, so it must
+     * not register anything itself.
+     *
+     * @param snapshotRuntimeIds the vanilla runtime IDs from the last start, or null if they need to be looked up
+     */
+    private static BedrockPalette buildBedrockPalette(ObjectIntPair<String> palette, int[] snapshotRuntimeIds) {
+        InputStream stream = FileUtils.getResource(String.format("bedrock/block_palette.%s.nbt", palette.key()));
+        NbtList<NbtMap> blocksTag;
+        try (NBTInputStream nbtInputStream = new NBTInputStream(new DataInputStream(new GZIPInputStream(stream)), true, true)) {
+            NbtMap blockPalette = (NbtMap) nbtInputStream.readTag();
+            blocksTag = (NbtList<NbtMap>) blockPalette.getList("blocks", NbtType.COMPOUND);
+        } catch (Exception e) {
+            throw new AssertionError("Unable to get blocks from runtime block states", e);
+        }
+        Map<String, NbtMap> javaIdentifierToBedrockTag = new Object2ObjectOpenHashMap<>(blocksTag.size());
+        // New since 1.16.100 - find the block runtime ID by the order given to us in the block palette,
+        // as we no longer send a block palette
+        Object2IntMap<NbtMap> blockStateOrderedMap = new Object2IntOpenHashMap<>(blocksTag.size());
+
+        int stateVersion = -1;
+        for (int i = 0; i < blocksTag.size(); i++) {
+            NbtMap tag = blocksTag.get(i);
+            if (blockStateOrderedMap.containsKey(tag)) {
+                throw new AssertionError("Duplicate block states in Bedrock palette: " + tag);
+            }
+            blockStateOrderedMap.put(tag, i);
+            if (stateVersion == -1) {
+                stateVersion = tag.getInt("version");
+            }
+        }
+        int airRuntimeId = -1;
+        int commandBlockRuntimeId = -1;
+        int javaRuntimeId = -1;
+        int waterRuntimeId = -1;
+        int movingBlockRuntimeId = -1;
+        Iterator<Map.Entry<String, JsonNode>> blocksIterator = BLOCKS_JSON.fields();
+
+        BiFunction<String, NbtMapBuilder, String> stateMapper = BLOCK_MAPPERS.getOrDefault(palette, EMPTY_MAPPER);
+        int[] javaToBedrockBlocks = new int[BLOCKS_JSON.size()];
+        // Vanilla runtime IDs, before any custom blocks are applied on top of them
+        int[] vanillaRuntimeIds = new int[BLOCKS_JSON.size()];
+
+        Map<String, NbtMap> flowerPotBlocks = new Object2ObjectOpenHashMap<>();
+        Object2IntMap<NbtMap> itemFrames = new Object2IntOpenHashMap<>();
+
+        IntSet jigsawStateIds = new IntOpenHashSet();
+        BlockMappings.BlockMappingsBuilder builder = BlockMappings.builder();
+        // Custom block states only need adding once for each distinct Bedrock note block state
+        Set<JsonNode> customBlockStatesAdded = new HashSet<>();
+        Map<String, NbtMap> paletteCustomBlocks = new LinkedHashMap<>();
+        while (blocksIterator.hasNext()) {
+            javaRuntimeId++;
+            Map.Entry<String, JsonNode> entry = blocksIterator.next();
+            String javaId = entry.getKey();
 
-                if (waterlogged) {
-                    int finalJavaRuntimeId = javaRuntimeId;
-                    BlockRegistries.WATERLOGGED.register(set -> set.add(finalJavaRuntimeId));
-                }
+            int bedrockRuntimeId;
+            if (snapshotRuntimeIds != null) {
+                bedrockRuntimeId = snapshotRuntimeIds[javaRuntimeId];
+            } else {
+                bedrockRuntimeId = blockStateOrderedMap.getOrDefault(buildBedrockState(entry.getValue(), stateVersion, stateMapper), -1);
+            }
+            if (bedrockRuntimeId == -1) {
+                throw new RuntimeException("Unable to find " + javaId + " Bedrock runtime ID! Built NBT tag: \n" +
+                        buildBedrockState(entry.getValue(), stateVersion, stateMapper));
+            }
+            vanillaRuntimeIds[javaRuntimeId] = bedrockRuntimeId;
+            switch (javaId) {
+                case "minecraft:air" -> airRuntimeId = bedrockRuntimeId;
+                case "minecraft:water[level=0]" -> waterRuntimeId = bedrockRuntimeId;
+                case "minecraft:command_block[conditional=false,facing=north]" -> commandBlockRuntimeId = bedrockRuntimeId;
+                case "minecraft:moving_piston[facing=north,type=normal]" -> movingBlockRuntimeId = bedrockRuntimeId;
+            }
 
-                String cleanJavaIdentifier = BlockUtils.getCleanIdentifier(entry.getKey());
+            if (javaId.contains("jigsaw")) {
+                jigsawStateIds.add(bedrockRuntimeId);
+            }
 
-                // Get the tag needed for non-empty flower pots
-                if (entry.getValue().get("pottable") != null) {
-                    flowerPotBlocks.put(cleanJavaIdentifier.intern(), blocksTag.get(bedrockRuntimeId));
-                }
-                for (JsonNode blockState : blockStatesNode) {
-                    if (javaId.contains("note_block")) {
-                        if (blockState.has("apply")) {
-                            //javaRuntimeId++;
-                            String model = blockState.get("apply").get("model").asText();
-                            NbtMap bedrockRuntimeId001 = buildCustomBedrockState("geysermc:zzz_" + model, entry.getValue(), stateVersion, stateMapper);
-                            if (blockStateOrderedMap.getOrDefault(bedrockRuntimeId001, -1) == -1)
-                                blockStateOrderedMap.put(bedrockRuntimeId001, blockStateOrderedMap.size());
-                        }
-                    }
-                }
-                boolean hasNotRegistered = true;
+            String cleanJavaIdentifier = BlockUtils.getCleanIdentifier(entry.getKey());
+
+            // Get the tag needed for non-empty flower pots
+            if (entry.getValue().get("pottable") != null) {
+                flowerPotBlocks.put(cleanJavaIdentifier.intern(), blocksTag.get(bedrockRuntimeId));
+            }
+            if (javaId.startsWith(NOTE_BLOCK_PREFIX) && customBlockStatesAdded.add(entry.getValue())) {
                 for (JsonNode blockState : blockStatesNode) {
-                    if (javaId.contains("note_block")) {
-                        if (blockState.has("when")) {
-                            JsonNode when = blockState.get("when");
-                            if (when.has("instrument") && when.has("note") && when.has("powered")) {
-                                String instrument = when.get("instrument").asText();
-                                int note = when.get("note").asInt();
-                                boolean powered = when.get("powered").asBoolean();
-                                if (javaId.contains("minecraft:note_block[instrument=" + instrument + ",note=" + note + ",powered=" + powered + "]")) {
-                                    if (blockState.has("apply")) {
-                                        //javaRuntimeId++;
-                                        String model = blockState.get("apply").get("model").asText();
-                                        NbtMap bedrockRuntimeId001 = buildCustomBedrockState("geysermc:zzz_" + model, entry.getValue(), stateVersion, stateMapper);
-                                        //String[] splitStr = java.intern().split(":");
-                                        //very very very very very very very very very very very very very very very very very very very very very very very very very very very very hacky method, do not use in production
-                                        //NbtMapBuilder nbt = blockStates.get(blockState.get("arrayIndex").asInt());
-                                        //javaIdentifierToBedrockTag.put(cleanJavaIdentifier.intern(), bedrockRuntimeId001);
-                                        NbtMap nbt = NbtMap.builder().putCompound("components", NbtMap.builder().putCompound("minecraft:block_light_absorption", putWithValue(0)).putCompound("minecraft:entity_collision", NbtMap.builder().putBoolean("enabled", true).putList("origin", NbtType.FLOAT, Arrays.asList(0f, 0f, 0f)).putList("size", NbtType.FLOAT, Arrays.asList(16f, 16f, 16f)).build())
-                                                .putCompound("minecraft:unit_cube", NbtMap.EMPTY).putCompound("minecraft:material_instances", NbtMap.builder().putCompound("mappings", NbtMap.EMPTY).putCompound("materials", NbtMap.builder().putCompound("*", NbtMap.builder().putBoolean("ambient_occlusion", true).putBoolean("face_dimming", true).putString("texture", "zzz_" + model).putString("render_method", "opaque").build()).build()).build()).build()).build();
-                                        customBlocks.put("geysermc:zzz_" + model, nbt);
-                                        javaToBedrockBlocks[javaRuntimeId] = blockStateOrderedMap.getOrDefault(bedrockRuntimeId001, -1);
-                                        //System.out.println(bedrockRuntimeId001+"    |      "+blocksTag.get(bedrockRuntimeId));
-                                        hasNotRegistered = false;
-                                        break;
-                                    }
-                                }
-                            }
+                    if (blockState.has("apply")) {
+                        String model = blockState.get("apply").get("model").asText();
+                        NbtMap customState = buildCustomBedrockState("geysermc:zzz_" + model, entry.getValue(), stateVersion, stateMapper);
+                        if (blockStateOrderedMap.getOrDefault(customState, -1) == -1) {
+                            blockStateOrderedMap.put(customState, blockStateOrderedMap.size());
                         }
                     }
                 }
-                if (hasNotRegistered) {
-                    if (!cleanJavaIdentifier.equals(entry.getValue().get("bedrock_identifier").asText())) {
-                        javaIdentifierToBedrockTag.put(cleanJavaIdentifier.intern(), blocksTag.get(bedrockRuntimeId));
-                    }
-                    javaToBedrockBlocks[javaRuntimeId] = bedrockRuntimeId;
+            }
+            boolean hasNotRegistered = true;
+            String customModel = getCustomNoteBlockModel(javaId);
+            if (customModel != null) {
+                NbtMap customState = buildCustomBedrockState("geysermc:zzz_" + customModel, entry.getValue(), stateVersion, stateMapper);
+                NbtMap nbt = NbtMap.builder().putCompound("components", NbtMap.builder().putCompound("minecraft:block_light_absorption", putWithValue(0)).putCompound("minecraft:entity_collision", NbtMap.builder().putBoolean("enabled", true).putList("origin", NbtType.FLOAT, Arrays.asList(0f, 0f, 0f)).putList("size", NbtType.FLOAT, Arrays.asList(16f, 16f, 16f)).build())
+                        .putCompound("minecraft:unit_cube", NbtMap.EMPTY).putCompound("minecraft:material_instances", NbtMap.builder().putCompound("mappings", NbtMap.EMPTY).putCompound("materials", NbtMap.builder().putCompound("*", NbtMap.builder().putBoolean("ambient_occlusion", true).putBoolean("face_dimming", true).putString("texture", "zzz_" + customModel).putString("render_method", "opaque").build()).build()).build()).build()).build();
+                paletteCustomBlocks.put("geysermc:zzz_" + customModel, nbt);
+                javaToBedrockBlocks[javaRuntimeId] = blockStateOrderedMap.getOrDefault(customState, -1);
+                hasNotRegistered = false;
+            }
+            if (hasNotRegistered) {
+                if (!cleanJavaIdentifier.equals(entry.getValue().get("bedrock_identifier").asText())) {
+                    javaIdentifierToBedrockTag.put(cleanJavaIdentifier.intern(), blocksTag.get(bedrockRuntimeId));
                 }
+                javaToBedrockBlocks[javaRuntimeId] = bedrockRuntimeId;
             }
+        }
 
-            if (commandBlockRuntimeId == -1) {
-                throw new AssertionError("Unable to find command block in palette");
-            }
-            builder.commandBlockRuntimeId(commandBlockRuntimeId);
+        if (commandBlockRuntimeId == -1) {
+            throw new AssertionError("Unable to find command block in palette");
+        }
+        builder.commandBlockRuntimeId(commandBlockRuntimeId);
 
-            if (waterRuntimeId == -1) {
-                throw new AssertionError("Unable to find water in palette");
-            }
-            builder.bedrockWaterId(waterRuntimeId);
+        if (waterRuntimeId == -1) {
+            throw new AssertionError("Unable to find water in palette");
+        }
+        builder.bedrockWaterId(waterRuntimeId);
 
-            if (airRuntimeId == -1) {
-                throw new AssertionError("Unable to find air in palette");
-            }
-            builder.bedrockAirId(airRuntimeId);
+        if (airRuntimeId == -1) {
+            throw new AssertionError("Unable to find air in palette");
+        }
+        builder.bedrockAirId(airRuntimeId);
 
-            if (movingBlockRuntimeId == -1) {
-                throw new AssertionError("Unable to find moving block in palette");
-            }
+        if (movingBlockRuntimeId == -1) {
+            throw new AssertionError("Unable to find moving block in palette");
+        }
 
-            builder.bedrockMovingBlockId(movingBlockRuntimeId);
+        builder.bedrockMovingBlockId(movingBlockRuntimeId);
 
-            // Loop around again to find all item frame runtime IDs
-            for (Object2IntMap.Entry<NbtMap> entry : blockStateOrderedMap.object2IntEntrySet()) {
-                String name = entry.getKey().getString("name");
-                if (name.equals("minecraft:frame") || name.equals("minecraft:glow_frame")) {
-                    itemFrames.put(entry.getKey(), entry.getIntValue());
-                }
+        // Loop around again to find all item frame runtime IDs
+        for (Object2IntMap.Entry<NbtMap> entry : blockStateOrderedMap.object2IntEntrySet()) {
+            String name = entry.getKey().getString("name");
+            if (name.equals("minecraft:frame") || name.equals("minecraft:glow_frame")) {
+                itemFrames.put(entry.getKey(), entry.getIntValue());
             }
-            builder.bedrockBlockStates(blocksTag);
-            BlockRegistries.BLOCKS.register(palette.getKey().valueInt(), builder.blockStateVersion(stateVersion)
-                    .emptyChunkSection(new ChunkSection(new BlockStorage[]{new BlockStorage(airRuntimeId)}))
-                    .javaToBedrockBlocks(javaToBedrockBlocks)
-                    .javaIdentifierToBedrockTag(javaIdentifierToBedrockTag)
-                    .itemFrames(itemFrames)
-                    .flowerPotBlocks(flowerPotBlocks)
-                    .jigsawStateIds(jigsawStateIds)
-                    .build());
         }
+        builder.bedrockBlockStates(blocksTag);
+        BlockMappings mappings = builder.blockStateVersion(stateVersion)
+                .emptyChunkSection(new ChunkSection(new BlockStorage[]{new BlockStorage(airRuntimeId)}))
+                .javaToBedrockBlocks(javaToBedrockBlocks)
+                .javaIdentifierToBedrockTag(javaIdentifierToBedrockTag)
+                .itemFrames(itemFrames)
+                .flowerPotBlocks(flowerPotBlocks)
+                .jigsawStateIds(jigsawStateIds)
+                .build();
+        return new BedrockPalette(mappings, vanillaRuntimeIds, paletteCustomBlocks);
+    }
+
+    /**
+     * @param vanillaRuntimeIds the runtime IDs of the Java block states before custom blocks are applied
+     * @param customBlocks the custom blocks used in this palette
+     */
+    private record BedrockPalette(BlockMappings mappings, int[] vanillaRuntimeIds, Map<String, NbtMap> customBlocks) {
     }
 
     private static void registerJavaBlocks() {
@@ -337,6 +432,13 @@ public class BlockRegistryPopulator {
 
             BlockStateValues.storeBlockStateValues(entry.getKey(), javaRuntimeId, entry.getValue());
 
+            boolean waterlogged = javaId.contains("waterlogged=true")
+                    || javaId.contains("minecraft:bubble_column") || javaId.contains("minecraft:kelp") || javaId.contains("seagrass");
+            if (waterlogged) {
+                int finalJavaRuntimeId = javaRuntimeId;
+                BlockRegistries.WATERLOGGED.register(set -> set.add(finalJavaRuntimeId));
+            }
+
             String cleanJavaIdentifier = BlockUtils.getCleanIdentifier(entry.getKey());
             String bedrockIdentifier = entry.getValue().get("bedrock_identifier").asText();
 
@@ -345,29 +447,10 @@ public class BlockRegistryPopulator {
                 cleanIdentifiers.add(cleanJavaIdentifier.intern());
             }
             boolean hasNotRegistered = true;
-            for (JsonNode blockState : blockStatesNode) {
-                if (javaId.contains("note_block")) {
-                    if (blockState.has("when")) {
-                        JsonNode when = blockState.get("when");
-                        if (when.has("instrument") && when.has("note") && when.has("powered")) {
-                            String instrument = when.get("instrument").asText();
-                            int note = when.get("note").asInt();
-                            boolean powered = when.get("powered").asBoolean();
-                            if (javaId.contains("minecraft:note_block[instrument=" + instrument + ",note=" + note + ",powered=" + powered + "]")) {
-                                if (blockState.has("apply")) {
-                                    String model = blockState.get("apply").get("model").asText();
-                                    //int bedrockRuntimeId001 = blockStateOrderedMap.getOrDefault(buildCustomBedrockState("geysermc:zzz_"+model,entry.getValue(), stateVersion, stateMapper), -1);
-                                    //very very very very very very very very very very very very very very very very very very very very very very very very very very very very hacky method, do not use in production
-                                    //NbtMapBuilder nbt = blockStates.get(blockState.get("arrayIndex").asInt());
-                                    //builder.hardness(22.5);
-                                    BlockRegistries.JAVA_TO_BEDROCK_IDENTIFIERS.register(cleanJavaIdentifier.intern(), ("geysermc:zzz_" + model).intern());
-                                    hasNotRegistered = false;
-                                    break;
-                                }
-                            }
-                        }
-                    }
-                }
+            String customModel = getCustomNoteBlockModel(javaId);
+            if (customModel != null) {
+                BlockRegistries.JAVA_TO_BEDROCK_IDENTIFIERS.register(cleanJavaIdentifier.intern(), ("geysermc:zzz_" + customModel).intern());
+                hasNotRegistered = false;
             }
             builder.javaIdentifier(javaId);
             builder.javaBlockId(uniqueJavaId);
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2019-2021 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.connector.registry.populator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import org.geysermc.connector.GeyserConnector;
+import org.geysermc.connector.utils.FileUtils;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.List;
+import java.util.jar.JarEntry;
+
+/**
+ * Remembers the Bedrock runtime ID of every Java block state in each block palette, so later starts can skip
+ * building the Bedrock state of every Java block and looking it up in the palette.
+ * <p>
+ * The snapshot is only used if it was created from the same block mappings and palettes by the same Geyser version,
+ * with the same custom blocks and items registered. Custom blocks are not stored in it; they are always registered
+ * on top of these IDs.
+ */
+class BlockRuntimeIdSnapshot {
+    private static final int MAGIC = 0x47425249; // GBRI
+    private static final int FORMAT_VERSION = 1;
+
+    private final Path file;
+    private final byte[] fingerprint;
+    private final Int2ObjectMap<int[]> palettes = new Int2ObjectOpenHashMap<>();
+    private boolean changed;
+
+    private BlockRuntimeIdSnapshot(Path file, byte[] fingerprint) {
+        this.file = file;
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Load the snapshot for the given resources, or create an empty one if it is missing or out of date
+     *
+     * @param resources every resource the runtime IDs are computed from
+     * @return the snapshot, or null if snapshots cannot be used here
+     */
+    static BlockRuntimeIdSnapshot load(List<String> resources) {
+        GeyserConnector connector = GeyserConnector.getInstance();
+        if (connector == null) {
+            return null;
+        }
+
+        BlockRuntimeIdSnapshot snapshot;
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String resource : resources) {
+                updateWithResource(digest, resource);
+            }
+            digest.update((GeyserConnector.VERSION + GeyserConnector.GIT_VERSION).getBytes(StandardCharsets.UTF_8));
+
+            // The custom blocks and items from Oraxen are registered alongside the vanilla states
+            for (JsonNode blockState : BlockRegistryPopulator.blockStatesNode) {
+                updateWithString(digest, blockState.toString());
+            }
+            for (String itemMapping : ItemRegistryPopulator.itemMappings) {
+                updateWithString(digest, itemMapping);
+            }
+            for (String customModelData : ItemRegistryPopulator.customModelDataMappings) {
+                updateWithString(digest, customModelData);
+            }
+
+            Path file = connector.getBootstrap().getConfigFolder().resolve("cache").resolve("block_runtime_ids.bin");
+            snapshot = new BlockRuntimeIdSnapshot(file, digest.digest());
+        } catch (Exception e) {
+            connector.getLogger().debug("Unable to fingerprint block mappings: " + e.getMessage());
+            return null;
+        }
+
+        if (Files.isRegularFile(snapshot.file)) {
+            // Read onto the heap rather than mapping the file, so it can be replaced when saving, which Windows
+            // does not allow while a mapping is alive
+            try {
+                snapshot.read(ByteBuffer.wrap(Files.readAllBytes(snapshot.file)));
+            } catch (Exception e) {
+                connector.getLogger().debug("Ignoring unreadable block runtime ID snapshot: " + e.getMessage());
+                snapshot.palettes.clear();
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Add a resource to the fingerprint by its size and CRC or modification time, rather than reading all of it
+     */
+    private static void updateWithResource(MessageDigest digest, String resource) throws Exception {
+        URL url = FileUtils.class.getClassLoader().getResource(resource);
+        if (url == null) {
+            throw new IOException("Unable to find resource: " + resource);
+        }
+
+        updateWithString(digest, resource);
+        URLConnection connection = url.openConnection();
+        if (connection instanceof JarURLConnection jarConnection) {
+            // Both are read from the jar's central directory
+            JarEntry entry = jarConnection.getJarEntry();
+            updateWithString(digest, entry.getSize() + ":" + entry.getCrc());
+        } else if ("file".equals(url.getProtocol())) {
+            Path path = Paths.get(url.toURI());
+            updateWithString(digest, Files.size(path) + ":" + Files.getLastModifiedTime(path).toMillis());
+        } else {
+            try (InputStream stream = connection.getInputStream()) {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = stream.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+        }
+    }
+
+    private static void updateWithString(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '\n');
+    }
+
+    private void read(ByteBuffer buffer) {
+        if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+            return;
+        }
+        byte[] storedFingerprint = new byte[buffer.getInt()];
+        buffer.get(storedFingerprint);
+        if (!Arrays.equals(storedFingerprint, fingerprint)) {
+            return;
+        }
+
+        int paletteCount = buffer.getInt();
+        for (int i = 0; i < paletteCount; i++) {
+            int protocolVersion = buffer.getInt();
+            int[] runtimeIds = new int[buffer.getInt()];
+            IntBuffer ints = buffer.asIntBuffer();
+            ints.get(runtimeIds);
+            buffer.position(buffer.position() + runtimeIds.length * Integer.BYTES);
+            palettes.put(protocolVersion, runtimeIds);
+        }
+    }
+
+    /**
+     * @param protocolVersion the protocol version of the block palette
+     * @param javaStates the number of Java block states
+     * @return the Bedrock runtime ID of each Java block state, or null if they are not known
+     */
+    int[] get(int protocolVersion, int javaStates) {
+        int[] runtimeIds = palettes.get(protocolVersion);
+        if (runtimeIds == null || runtimeIds.length != javaStates) {
+            return null;
+        }
+        return runtimeIds;
+    }
+
+    void put(int protocolVersion, int[] runtimeIds) {
+        if (!Arrays.equals(palettes.put(protocolVersion, runtimeIds), runtimeIds)) {
+            changed = true;
+        }
+    }
+
+    /**
+     * Write the snapshot to disk if anything was added to it
+     */
+    void save() {
+        if (!changed) {
+            return;
+        }
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(file.getParent());
+            try (DataOutputStream stream = new DataOutputStream(Files.newOutputStream(tempFile))) {
+                stream.writeInt(MAGIC);
+                stream.writeInt(FORMAT_VERSION);
+                stream.writeInt(fingerprint.length);
+                stream.write(fingerprint);
+                stream.writeInt(palettes.size());
+                for (Int2ObjectMap.Entry<int[]> palette : palettes.int2ObjectEntrySet()) {
+                    stream.writeInt(palette.getIntKey());
+                    stream.writeInt(palette.getValue().length);
+                    for (int runtimeId : palette.getValue()) {
+                        stream.writeInt(runtimeId);
+                    }
+                }
+            }
+
+            // Never leave a partly written snapshot behind for the next start
+            try {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            changed = false;
+        } catch (IOException e) {
+            GeyserConnector.getInstance().getLogger().debug("Unable to save block runtime ID snapshot: " + e.getMessage());
+        }
+    }
+}
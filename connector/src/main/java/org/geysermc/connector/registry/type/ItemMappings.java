@@ -26,11 +26,16 @@
 package org.geysermc.connector.registry.type;
 
 import com.github.steveice10.mc.protocol.data.game.entity.metadata.ItemStack;
+import com.github.steveice10.opennbt.tag.builtin.CompoundTag;
+import com.github.steveice10.opennbt.tag.builtin.IntTag;
+import com.github.steveice10.opennbt.tag.builtin.StringTag;
 import com.nukkitx.protocol.bedrock.data.inventory.ComponentItemData;
 import com.nukkitx.protocol.bedrock.data.inventory.ItemData;
 import com.nukkitx.protocol.bedrock.packet.StartGamePacket;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
 import lombok.Builder;
 import lombok.Value;
 import org.geysermc.connector.GeyserConnector;
@@ -66,6 +71,44 @@ public class ItemMappings {
     @Nullable ComponentItemData furnaceMinecartData;
     List <ComponentItemData> customItems;
 
+    /**
+     * The Bedrock IDs of custom items, keyed by {@link #customModelDataKey(int, int)}
+     */
+    Long2IntMap customModelDataItems;
+    /**
+     * The Bedrock IDs of custom items, keyed by texture. Used to find items by their Oraxen ID when the
+     * Java item and CustomModelData they are shown for is not known.
+     */
+    Object2IntMap<String> customItemIds;
+
+    public static long customModelDataKey(int javaId, int customModelData) {
+        return ((long) javaId << 32) | (customModelData & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Gets the Bedrock ID of the custom item that a Java item is shown as.
+     *
+     * @param javaId the Java item ID
+     * @param nbt the NBT of the item
+     * @return the Bedrock ID of the custom item, or -1 if this is not a custom item
+     */
+    public int getCustomItemId(int javaId, CompoundTag nbt) {
+        if (!(nbt.get("CustomModelData") instanceof IntTag customModelData)) {
+            return -1;
+        }
+
+        int customItemId = this.customModelDataItems.get(customModelDataKey(javaId, customModelData.getValue()));
+        if (customItemId != -1) {
+            return customItemId;
+        }
+
+        if (nbt.get("PublicBukkitValues") instanceof CompoundTag bukkitValues
+                && bukkitValues.get("oraxen:id") instanceof StringTag oraxenId) {
+            return this.customItemIds.getInt(oraxenId.getValue());
+        }
+        return -1;
+    }
+
 
     /**
      * Gets an {@link ItemMapping} from the given {@link ItemStack}.
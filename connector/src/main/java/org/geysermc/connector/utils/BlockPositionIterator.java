@@ -68,6 +68,20 @@ public class BlockPositionIterator {
         i = 0;
     }
 
+    /**
+     * @return the number of blocks in this region
+     */
+    public int getSize() {
+        return maxI;
+    }
+
+    /**
+     * @return the index of the current block within this region
+     */
+    public int getIndex() {
+        return i;
+    }
+
     public int getX() {
         return ((i / sizeZ) % sizeX) + minX;
     }
@@ -35,11 +35,14 @@ import com.github.steveice10.opennbt.tag.builtin.*;
 import com.nukkitx.math.vector.Vector2i;
 import com.nukkitx.math.vector.Vector3i;
 import com.nukkitx.nbt.NbtMap;
+import com.nukkitx.protocol.bedrock.data.BlockChangeEntry;
 import com.nukkitx.protocol.bedrock.packet.LevelChunkPacket;
 import com.nukkitx.protocol.bedrock.packet.NetworkChunkPublisherUpdatePacket;
 import com.nukkitx.protocol.bedrock.packet.UpdateBlockPacket;
+import com.nukkitx.protocol.bedrock.packet.UpdateSubChunkBlocksPacket;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
 import it.unimi.dsi.fastutil.ints.IntArrayList;
 import it.unimi.dsi.fastutil.ints.IntList;
 import lombok.experimental.UtilityClass;
@@ -54,11 +57,11 @@ import org.geysermc.connector.network.translators.world.block.entity.SkullBlockE
 import org.geysermc.connector.network.translators.world.chunk.BlockStorage;
 import org.geysermc.connector.network.translators.world.chunk.ChunkSection;
 import org.geysermc.connector.network.translators.world.chunk.bitarray.BitArray;
+import org.geysermc.connector.network.translators.world.chunk.bitarray.BitArrayTranscoder;
 import org.geysermc.connector.network.translators.world.chunk.bitarray.BitArrayVersion;
 import org.geysermc.connector.registry.BlockRegistries;
 
 import java.util.ArrayList;
-import java.util.BitSet;
 import java.util.List;
 
 import static org.geysermc.connector.network.translators.world.block.BlockStateValues.JAVA_AIR_ID;
@@ -80,6 +83,11 @@ public class ChunkUtils {
     private static final int MAXIMUM_ACCEPTED_HEIGHT_OVERWORLD = GeyserConnector.getInstance().getConfig().isExtendedWorldHeight() ?
             CAVES_AND_CLIFFS_MAXIMUM_HEIGHT : MAXIMUM_ACCEPTED_HEIGHT;
 
+    /**
+     * The {@link UpdateBlockPacket.Flag#NEIGHBORS} and {@link UpdateBlockPacket.Flag#NETWORK} flags, as used by {@link BlockChangeEntry}
+     */
+    private static final int BLOCK_UPDATE_FLAGS = 0b11;
+
     public static final byte[] EMPTY_CHUNK_DATA;
     public static final byte[] EMPTY_BIOME_DATA;
 
@@ -115,10 +123,6 @@ public class ChunkUtils {
         }
     }
 
-    private static int indexYZXtoXZY(int yzx) {
-        return (yzx >> 8) | (yzx & 0x0F0) | ((yzx & 0x00F) << 8);
-    }
-
     public static ChunkData translateToBedrock(GeyserSession session, Column column, int yOffset) {
         Chunk[] javaSections = column.getChunks();
         ChunkSection[] sections = new ChunkSection[javaSections.length - yOffset];
@@ -126,8 +130,12 @@ public class ChunkUtils {
         // Temporarily stores compound tags of Bedrock-only block entities
         List<NbtMap> bedrockOnlyBlockEntities = new ArrayList<>();
 
-        BitSet waterloggedPaletteIds = new BitSet();
-        BitSet pistonOrFlowerPaletteIds = new BitSet();
+        // The Java palette IDs of the current section, in YZX order
+        int[] javaBlocks = new int[BlockStorage.SIZE];
+        // Used when a section has the global palette; the Bedrock palette IDs, in YZX order
+        int[] bedrockBlocks = null;
+        Int2IntOpenHashMap javaPaletteIds = null;
+        Int2IntOpenHashMap bedrockPaletteIds = null;
 
         boolean overworld = session.getChunkCache().isExtendedHeight();
         int maxBedrockSectionY = ((overworld ? MAXIMUM_ACCEPTED_HEIGHT_OVERWORLD : MAXIMUM_ACCEPTED_HEIGHT) >> 4) - 1;
@@ -148,92 +156,133 @@ public class ChunkUtils {
 
             Palette javaPalette = javaSection.getPalette();
             BitStorage javaData = javaSection.getStorage();
+            BitArrayTranscoder.unpack(javaData, javaBlocks);
 
+            IntList javaStates;
             if (javaPalette instanceof GlobalPalette) {
-                // As this is the global palette, simply iterate through the whole chunk section once
-                ChunkSection section = new ChunkSection(session.getBlockMappings().getBedrockAirId());
+                // Build a palette of the states this section actually uses, so it can be written like any other
+                if (javaPaletteIds == null) {
+                    javaPaletteIds = new Int2IntOpenHashMap(512);
+                    javaPaletteIds.defaultReturnValue(-1);
+                } else {
+                    javaPaletteIds.clear();
+                }
+                javaStates = new IntArrayList();
                 for (int yzx = 0; yzx < BlockStorage.SIZE; yzx++) {
-                    int javaId = javaData.get(yzx);
-                    int bedrockId = session.getBlockMappings().getBedrockBlockId(javaId);
-                    int xzy = indexYZXtoXZY(yzx);
-                    section.getBlockStorageArray()[0].setFullBlock(xzy, bedrockId);
-
-                    if (BlockRegistries.WATERLOGGED.get().contains(javaId)) {
-                        section.getBlockStorageArray()[1].setFullBlock(xzy, session.getBlockMappings().getBedrockWaterId());
+                    int javaId = javaBlocks[yzx];
+                    int paletteId = javaPaletteIds.putIfAbsent(javaId, javaStates.size());
+                    if (paletteId == -1) {
+                        paletteId = javaStates.size();
+                        javaStates.add(javaId);
                     }
+                    javaBlocks[yzx] = paletteId;
+                }
+            } else {
+                javaStates = new IntArrayList(javaPalette.size());
+                for (int i = 0; i < javaPalette.size(); i++) {
+                    javaStates.add(javaPalette.idToState(i));
+                }
 
-                    // Check if block is piston or flower to see if we'll need to create additional block entities, as they're only block entities in Bedrock
-                    if (BlockStateValues.getFlowerPotValues().containsKey(javaId) || BlockStateValues.getPistonValues().containsKey(javaId)) {
-                        bedrockOnlyBlockEntities.add(BedrockOnlyBlockEntity.getTag(session,
-                                Vector3i.from((column.getX() << 4) + (yzx & 0xF), ((sectionY + yOffset) << 4) + ((yzx >> 8) & 0xF), (column.getZ() << 4) + ((yzx >> 4) & 0xF)),
-                                javaId
-                        ));
+                int javaPaletteSize = javaStates.size();
+                if (javaPaletteSize < 1 << javaData.getBitsPerEntry()) {
+                    // The server may reference IDs past the end of the palette, which the palette reads as air.
+                    // Give these their own air entry so they don't index past the arrays below
+                    for (int yzx = 0; yzx < BlockStorage.SIZE; yzx++) {
+                        if (javaBlocks[yzx] >= javaPaletteSize) {
+                            if (javaStates.size() == javaPaletteSize) {
+                                javaStates.add(JAVA_AIR_ID);
+                            }
+                            javaBlocks[yzx] = javaPaletteSize;
+                        }
                     }
                 }
-                sections[bedrockSectionY] = section;
-                continue;
             }
 
-            IntList bedrockPalette = new IntArrayList(javaPalette.size());
-            waterloggedPaletteIds.clear();
-            pistonOrFlowerPaletteIds.clear();
+            int paletteSize = javaStates.size();
+            int[] javaToBedrockPaletteIds = new int[paletteSize];
+            IntList bedrockPalette = new IntArrayList(paletteSize);
+            boolean[] waterloggedPaletteIds = new boolean[paletteSize];
+            boolean[] pistonOrFlowerPaletteIds = new boolean[paletteSize];
+            boolean waterlogged = false;
+            boolean pistonOrFlower = false;
+            boolean mergedPalette = false;
+            if (bedrockPaletteIds == null) {
+                bedrockPaletteIds = new Int2IntOpenHashMap(512);
+                bedrockPaletteIds.defaultReturnValue(-1);
+            } else {
+                bedrockPaletteIds.clear();
+            }
 
             // Iterate through palette and convert state IDs to Bedrock, doing some additional checks as we go
-            for (int i = 0; i < javaPalette.size(); i++) {
-                int javaId = javaPalette.idToState(i);
-                bedrockPalette.add(session.getBlockMappings().getBedrockBlockId(javaId));
+            for (int i = 0; i < paletteSize; i++) {
+                int javaId = javaStates.getInt(i);
+                int bedrockId = session.getBlockMappings().getBedrockBlockId(javaId);
+                if (javaPalette instanceof GlobalPalette) {
+                    // Different Java states can become the same Bedrock state; only list each once
+                    int bedrockPaletteId = bedrockPaletteIds.putIfAbsent(bedrockId, bedrockPalette.size());
+                    if (bedrockPaletteId == -1) {
+                        bedrockPaletteId = bedrockPalette.size();
+                        bedrockPalette.add(bedrockId);
+                    } else {
+                        mergedPalette = true;
+                    }
+                    javaToBedrockPaletteIds[i] = bedrockPaletteId;
+                } else {
+                    bedrockPalette.add(bedrockId);
+                }
 
                 if (BlockRegistries.WATERLOGGED.get().contains(javaId)) {
-                    waterloggedPaletteIds.set(i);
+                    waterloggedPaletteIds[i] = true;
+                    waterlogged = true;
                 }
 
                 // Check if block is piston or flower to see if we'll need to create additional block entities, as they're only block entities in Bedrock
                 if (BlockStateValues.getFlowerPotValues().containsKey(javaId) || BlockStateValues.getPistonValues().containsKey(javaId)) {
-                    pistonOrFlowerPaletteIds.set(i);
+                    pistonOrFlowerPaletteIds[i] = true;
+                    pistonOrFlower = true;
                 }
             }
 
             // Add Bedrock-exclusive block entities
             // We only if the palette contained any blocks that are Bedrock-exclusive block entities to avoid iterating through the whole block data
             // for no reason, as most sections will not contain any pistons or flower pots
-            if (!pistonOrFlowerPaletteIds.isEmpty()) {
+            if (pistonOrFlower) {
                 for (int yzx = 0; yzx < BlockStorage.SIZE; yzx++) {
-                    int paletteId = javaData.get(yzx);
-                    if (pistonOrFlowerPaletteIds.get(paletteId)) {
+                    int paletteId = javaBlocks[yzx];
+                    if (pistonOrFlowerPaletteIds[paletteId]) {
                         bedrockOnlyBlockEntities.add(BedrockOnlyBlockEntity.getTag(session,
                                 Vector3i.from((column.getX() << 4) + (yzx & 0xF), ((sectionY + yOffset) << 4) + ((yzx >> 8) & 0xF), (column.getZ() << 4) + ((yzx >> 4) & 0xF)),
-                                javaPalette.idToState(paletteId)
+                                javaStates.getInt(paletteId)
                         ));
                     }
                 }
             }
 
-            BitArray bedrockData = BitArrayVersion.forBitsCeil(javaData.getBitsPerEntry()).createArray(BlockStorage.SIZE);
+            int[] layer0Blocks = javaBlocks;
+            if (mergedPalette) {
+                if (bedrockBlocks == null) {
+                    bedrockBlocks = new int[BlockStorage.SIZE];
+                }
+                for (int yzx = 0; yzx < BlockStorage.SIZE; yzx++) {
+                    bedrockBlocks[yzx] = javaToBedrockPaletteIds[javaBlocks[yzx]];
+                }
+                layer0Blocks = bedrockBlocks;
+            }
+
+            // Pick the smallest version that fits the palette, rather than growing the storage as blocks are added
+            int bits = Math.max(1, 32 - Integer.numberOfLeadingZeros(bedrockPalette.size() - 1));
+            BitArray bedrockData = BitArrayVersion.forBitsCeil(bits).createArray(BlockStorage.SIZE);
             BlockStorage layer0 = new BlockStorage(bedrockData, bedrockPalette);
             BlockStorage[] layers;
 
             // Convert data array from YZX to XZY coordinate order
-            if (waterloggedPaletteIds.isEmpty()) {
-                // No blocks are waterlogged, simply convert coordinate order
-                // This could probably be optimized further...
-                for (int yzx = 0; yzx < BlockStorage.SIZE; yzx++) {
-                    bedrockData.set(indexYZXtoXZY(yzx), javaData.get(yzx));
-                }
-
+            BitArrayTranscoder.packPermuted(layer0Blocks, bedrockData);
+            if (!waterlogged) {
                 layers = new BlockStorage[]{ layer0 };
             } else {
-                // The section contains waterlogged blocks, we need to convert coordinate order AND generate a V1 block storage for
+                // The section contains waterlogged blocks, we need to generate a V1 block storage for
                 // layer 1 with palette ID 1 indicating water
-                int[] layer1Data = new int[BlockStorage.SIZE >> 5];
-                for (int yzx = 0; yzx < BlockStorage.SIZE; yzx++) {
-                    int paletteId = javaData.get(yzx);
-                    int xzy = indexYZXtoXZY(yzx);
-                    bedrockData.set(xzy, paletteId);
-
-                    if (waterloggedPaletteIds.get(paletteId)) {
-                        layer1Data[xzy >> 5] |= 1 << (xzy & 0x1F);
-                    }
-                }
+                int[] layer1Data = BitArrayTranscoder.packFlagsPermuted(javaBlocks, waterloggedPaletteIds);
 
                 // V1 palette
                 IntList layer1Palette = new IntArrayList(2);
@@ -277,11 +326,7 @@ public class ChunkUtils {
             int z = (int) tag.get("z").getValue();
 
             // Get Java blockstate ID from block entity position
-            int blockState = 0;
-            Chunk section = column.getChunks()[(y >> 4) - yOffset];
-            if (section != null) {
-                blockState = section.get(x & 0xF, y & 0xF, z & 0xF);
-            }
+            int blockState = getBlockState(column, x, y, z, yOffset);
 
             if (tagName.equals("minecraft:lectern") && BlockStateValues.getLecternBookStates().get(blockState)) {
                 // If getLecternBookStates is false, let's just treat it like a normal block entity
@@ -309,6 +354,32 @@ public class ChunkUtils {
         return new ChunkData(sections, bedrockBlockEntities);
     }
 
+    /**
+     * Spawn the custom skulls in a column without translating it, for when its translation is reused from
+     * {@link org.geysermc.connector.network.translators.world.chunk.ChunkPayloadCache}
+     */
+    public static void spawnCustomSkulls(GeyserSession session, Column column, int yOffset) {
+        if (!session.getPreferencesCache().showCustomSkulls()) {
+            return;
+        }
+        for (CompoundTag tag : column.getTileEntities()) {
+            if (tag.contains("SkullOwner")) {
+                int x = (int) tag.get("x").getValue();
+                int y = (int) tag.get("y").getValue();
+                int z = (int) tag.get("z").getValue();
+                SkullBlockEntityTranslator.spawnPlayer(session, tag, getBlockState(column, x, y, z, yOffset));
+            }
+        }
+    }
+
+    private static int getBlockState(Column column, int x, int y, int z, int yOffset) {
+        Chunk section = column.getChunks()[(y >> 4) - yOffset];
+        if (section != null) {
+            return section.get(x & 0xF, y & 0xF, z & 0xF);
+        }
+        return 0;
+    }
+
     public static void updateChunkPosition(GeyserSession session, Vector3i position) {
         Vector2i chunkPos = session.getLastChunkPosition();
         Vector2i newChunkPos = Vector2i.from(position.getX() >> 4, position.getZ() >> 4);
@@ -343,33 +414,17 @@ public class ChunkUtils {
      * @param position the position of the block
      */
     public static void updateBlock(GeyserSession session, int blockState, Vector3i position) {
-        // Checks for item frames so they aren't tripped up and removed
-        ItemFrameEntity itemFrameEntity = ItemFrameEntity.getItemFrameEntity(session, position);
-        if (itemFrameEntity != null) {
-            if (blockState == JAVA_AIR_ID) { // Item frame is still present and no block overrides that; refresh it
-                itemFrameEntity.updateBlock(session);
-                // Still update the chunk cache with the new block
-                session.getChunkCache().updateBlock(position.getX(), position.getY(), position.getZ(), blockState);
-                return;
-            }
-            // Otherwise, let's still store our reference to the item frame, but let the new block take precedence for now
-        }
-
-        SkullPlayerEntity skull = session.getSkullCache().get(position);
-        if (skull != null && blockState != skull.getBlockState()) {
-            // Skull is gone
-            skull.despawnEntity(session, position);
+        if (!prepareBlockUpdate(session, blockState, position)) {
+            return;
         }
 
         // Prevent moving_piston from being placed
         // It's used for extending piston heads, but it isn't needed on Bedrock and causes pistons to flicker
         if (!BlockStateValues.isMovingPiston(blockState)) {
-            int blockId = session.getBlockMappings().getBedrockBlockId(blockState);
-
             UpdateBlockPacket updateBlockPacket = new UpdateBlockPacket();
             updateBlockPacket.setDataLayer(0);
             updateBlockPacket.setBlockPosition(position);
-            updateBlockPacket.setRuntimeId(blockId);
+            updateBlockPacket.setRuntimeId(session.getBlockMappings().getBedrockBlockId(blockState));
             updateBlockPacket.getFlags().add(UpdateBlockPacket.Flag.NEIGHBORS);
             updateBlockPacket.getFlags().add(UpdateBlockPacket.Flag.NETWORK);
             session.sendUpstreamPacket(updateBlockPacket);
@@ -377,14 +432,91 @@ public class ChunkUtils {
             UpdateBlockPacket waterPacket = new UpdateBlockPacket();
             waterPacket.setDataLayer(1);
             waterPacket.setBlockPosition(position);
-            if (BlockRegistries.WATERLOGGED.get().contains(blockState)) {
-                waterPacket.setRuntimeId(session.getBlockMappings().getBedrockWaterId());
-            } else {
-                waterPacket.setRuntimeId(session.getBlockMappings().getBedrockAirId());
-            }
+            waterPacket.setRuntimeId(getBedrockWaterLayerId(session, blockState));
             session.sendUpstreamPacket(waterPacket);
         }
 
+        finishBlockUpdate(session, blockState, position);
+    }
+
+    /**
+     * Sends many block updates within one sub chunk to the Bedrock client in a single packet, rather than two packets
+     * for each block. Otherwise behaves the same as calling {@link #updateBlock(GeyserSession, int, Vector3i)} for each block.
+     * The client must support {@link UpdateSubChunkBlocksPacket}, which was added in 1.17.30.
+     *
+     * @param session the Bedrock session to send/register the blocks to
+     * @param blockStates the Java block state of each block
+     * @param positions the position of each block, all in the same sub chunk
+     */
+    public static void updateBlocks(GeyserSession session, int[] blockStates, Vector3i[] positions) {
+        UpdateSubChunkBlocksPacket packet = new UpdateSubChunkBlocksPacket();
+        packet.setChunkX(positions[0].getX() >> 4);
+        packet.setChunkY(positions[0].getY() >> 4);
+        packet.setChunkZ(positions[0].getZ() >> 4);
+
+        boolean[] updated = new boolean[blockStates.length];
+        for (int i = 0; i < blockStates.length; i++) {
+            int blockState = blockStates[i];
+            Vector3i position = positions[i];
+            if (!prepareBlockUpdate(session, blockState, position)) {
+                continue;
+            }
+            updated[i] = true;
+
+            if (!BlockStateValues.isMovingPiston(blockState)) {
+                packet.getStandardBlocks().add(new BlockChangeEntry(position, session.getBlockMappings().getBedrockBlockId(blockState),
+                        BLOCK_UPDATE_FLAGS, 0, BlockChangeEntry.MessageType.NONE));
+                // The water layer is sent without flags, as the separate per-block packet was
+                packet.getExtraBlocks().add(new BlockChangeEntry(position, getBedrockWaterLayerId(session, blockState),
+                        0, 0, BlockChangeEntry.MessageType.NONE));
+            }
+        }
+
+        if (!packet.getStandardBlocks().isEmpty()) {
+            session.sendUpstreamPacket(packet);
+        }
+
+        // Block entities are sent after the blocks they belong to exist
+        for (int i = 0; i < blockStates.length; i++) {
+            if (updated[i]) {
+                finishBlockUpdate(session, blockStates[i], positions[i]);
+            }
+        }
+    }
+
+    /**
+     * Update the entities at a block that is about to change
+     *
+     * @return false if the block should not be sent to the client
+     */
+    private static boolean prepareBlockUpdate(GeyserSession session, int blockState, Vector3i position) {
+        // A chunk still waiting to be translated must be sent first, or it would overwrite this block
+        session.getChunkSendQueue().flush(position.getX() >> 4, position.getZ() >> 4);
+
+        // Checks for item frames so they aren't tripped up and removed
+        ItemFrameEntity itemFrameEntity = ItemFrameEntity.getItemFrameEntity(session, position);
+        if (itemFrameEntity != null) {
+            if (blockState == JAVA_AIR_ID) { // Item frame is still present and no block overrides that; refresh it
+                itemFrameEntity.updateBlock(session);
+                // Still update the chunk cache with the new block
+                session.getChunkCache().updateBlock(position.getX(), position.getY(), position.getZ(), blockState);
+                return false;
+            }
+            // Otherwise, let's still store our reference to the item frame, but let the new block take precedence for now
+        }
+
+        SkullPlayerEntity skull = session.getSkullCache().get(position);
+        if (skull != null && blockState != skull.getBlockState()) {
+            // Skull is gone
+            skull.despawnEntity(session, position);
+        }
+        return true;
+    }
+
+    /**
+     * Update the block entities and the chunk cache for a block that has been sent to the client
+     */
+    private static void finishBlockUpdate(GeyserSession session, int blockState, Vector3i position) {
         BlockStateValues.getLecternBookStates().handleBlockChange(session, blockState, position);
 
         // Iterates through all Bedrock-only block entity translators and determines if a manual block entity packet
@@ -399,6 +531,13 @@ public class ChunkUtils {
         session.getChunkCache().updateBlock(position.getX(), position.getY(), position.getZ(), blockState);
     }
 
+    private static int getBedrockWaterLayerId(GeyserSession session, int blockState) {
+        if (BlockRegistries.WATERLOGGED.get().contains(blockState)) {
+            return session.getBlockMappings().getBedrockWaterId();
+        }
+        return session.getBlockMappings().getBedrockAirId();
+    }
+
     public static void sendEmptyChunks(GeyserSession session, Vector3i position, int radius, boolean forceUpdate) {
         int chunkX = position.getX() >> 4;
         int chunkZ = position.getZ() >> 4;
@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2019-2021 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.connector.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.geysermc.connector.GeyserConnector;
+import org.geysermc.connector.registry.populator.BlockRegistryPopulator;
+import org.geysermc.connector.registry.populator.ItemRegistryPopulator;
+import org.geysermc.packconverter.api.ConverterHandler;
+import org.geysermc.packconverter.api.PackConverter;
+import org.geysermc.packconverter.api.converters.AbstractConverter;
+import org.geysermc.packconverter.api.converters.CustomBlockConverter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * A disk cache of Java resource packs that have already been converted to Bedrock.
+ * Entries are keyed by a hash of the input zip entries, the converter set and {@link PackConverter#VERSION},
+ * so a pack is only converted again when one of these changes.
+ * <p>
+ * A change to any entry converts the whole pack again. Converters cannot be rerun on their own, as
+ * FixWrongRootFolderConverter, CustomBlockConverter and CustomModelDataConverter may read and write anywhere in the pack
+ * (see {@link org.geysermc.packconverter.api.converters.AbstractConverter#getReadPaths()}), so every changed entry
+ * reaches them and every converter after them depends on their output.
+ */
+public class ConvertedPackCache {
+    private static final String PACK_EXTENSION = ".mcpack";
+    /**
+     * Holds the registry entries the converters added while converting the pack,
+     * since these are not part of the converted pack itself
+     */
+    private static final String REGISTRATIONS_EXTENSION = ".json";
+
+    private final Path cacheFolder;
+    private final long maxSize;
+
+    private final int itemMappingsStart;
+    private final int customModelDataStart;
+    private final int blockStatesStart;
+
+    private ConvertedPackCache(Path cacheFolder, long maxSize) {
+        this.cacheFolder = cacheFolder;
+        this.maxSize = maxSize;
+        this.itemMappingsStart = ItemRegistryPopulator.itemMappings.size();
+        this.customModelDataStart = ItemRegistryPopulator.customModelDataMappings.size();
+        this.blockStatesStart = BlockRegistryPopulator.blockStatesNode.size();
+    }
+
+    /**
+     * @return a new cache instance, or null if caching converted packs is disabled
+     */
+    public static ConvertedPackCache create() {
+        int maxSizeMb = GeyserConnector.getInstance().getConfig().getConvertedPackCacheSize();
+        if (maxSizeMb <= 0) {
+            return null;
+        }
+        Path cacheFolder = GeyserConnector.getInstance().getBootstrap().getConfigFolder().resolve("cache").resolve("packs");
+        return new ConvertedPackCache(cacheFolder, maxSizeMb * 1024L * 1024L);
+    }
+
+    /**
+     * Calculate the cache key of the given Java resource pack.
+     * This is based on the name and CRC of every entry rather than the zip bytes, as Oraxen
+     * regenerates its pack on every start, which changes the timestamps but not the contents.
+     *
+     * @param input the Java resource pack zip
+     * @return the hex encoded cache key, or null if the input could not be read
+     */
+    public String computeKey(Path input) {
+        try {
+            Map<String, Long> entries = new TreeMap<>();
+            try (ZipFile zipFile = new ZipFile(input.toFile())) {
+                Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+                while (zipEntries.hasMoreElements()) {
+                    ZipEntry entry = zipEntries.nextElement();
+                    if (!entry.isDirectory()) {
+                        entries.put(entry.getName(), entry.getCrc());
+                    }
+                }
+            }
+
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Map.Entry<String, Long> entry : entries.entrySet()) {
+                digest.update((entry.getKey() + ':' + entry.getValue() + '\n').getBytes(StandardCharsets.UTF_8));
+            }
+            for (Class<? extends AbstractConverter> converterClass : ConverterHandler.converterList) {
+                digest.update(converterClass.getName().getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update(Integer.toString(PackConverter.VERSION).getBytes(StandardCharsets.UTF_8));
+            digest.update(GeyserConnector.VERSION.getBytes(StandardCharsets.UTF_8));
+
+            StringBuilder builder = new StringBuilder();
+            for (byte b : digest.digest()) {
+                builder.append(String.format("%02x", b));
+            }
+            return builder.toString();
+        } catch (Exception e) {
+            GeyserConnector.getInstance().getLogger().debug("Unable to hash resource pack " + input.getFileName() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Copy a previously converted pack to the output location and restore its registry entries
+     *
+     * @param key the cache key of the input pack
+     * @param output where the converted pack should be placed
+     * @return true if the pack was found in the cache
+     */
+    public boolean restore(String key, Path output) {
+        Path cachedPack = cacheFolder.resolve(key + PACK_EXTENSION);
+        Path cachedRegistrations = cacheFolder.resolve(key + REGISTRATIONS_EXTENSION);
+        if (!Files.isRegularFile(cachedPack) || !Files.isRegularFile(cachedRegistrations)) {
+            return false;
+        }
+
+        try {
+            JsonNode registrations;
+            try (InputStream stream = Files.newInputStream(cachedRegistrations)) {
+                registrations = GeyserConnector.JSON_MAPPER.readTree(stream);
+            }
+
+            // Read everything before registering anything, so a broken entry does not leave behind
+            // registrations that the full conversion then adds a second time
+            List<String> itemMappings = new ArrayList<>();
+            for (JsonNode itemMapping : registrations.get("item_mappings")) {
+                itemMappings.add(itemMapping.asText());
+            }
+            List<String> customModelDataMappings = new ArrayList<>();
+            for (JsonNode customModelData : registrations.get("custom_model_data")) {
+                customModelDataMappings.add(customModelData.asText());
+            }
+            List<String> blockModels = new ArrayList<>();
+            List<JsonNode> blockStates = new ArrayList<>();
+            for (JsonNode blockState : registrations.get("block_states")) {
+                JsonNode model = blockState.path("apply").path("model");
+                if (!model.isTextual()) {
+                    throw new IOException("Cached block state has no model: " + blockState);
+                }
+                blockModels.add(model.asText());
+                blockStates.add(blockState);
+            }
+
+            Files.copy(cachedPack, output, StandardCopyOption.REPLACE_EXISTING);
+
+            ItemRegistryPopulator.itemMappings.addAll(itemMappings);
+            ItemRegistryPopulator.customModelDataMappings.addAll(customModelDataMappings);
+            for (int i = 0; i < blockStates.size(); i++) {
+                CustomBlockConverter.registerCustomBlock(blockModels.get(i), blockStates.get(i));
+            }
+
+            // Mark this entry as recently used so it is evicted last
+            long now = System.currentTimeMillis();
+            cachedPack.toFile().setLastModified(now);
+            cachedRegistrations.toFile().setLastModified(now);
+            return true;
+        } catch (Exception e) {
+            GeyserConnector.getInstance().getLogger().debug("Unable to restore cached pack " + key + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Store a freshly converted pack, along with the registry entries added while converting it,
+     * and evict the least recently used entries if the cache is now too large
+     *
+     * @param key the cache key of the input pack
+     * @param output the converted pack
+     */
+    public void store(String key, Path output) {
+        try {
+            Files.createDirectories(cacheFolder);
+
+            ObjectNode registrations = GeyserConnector.JSON_MAPPER.createObjectNode();
+            ArrayNode itemMappings = registrations.putArray("item_mappings");
+            for (String itemMapping : ItemRegistryPopulator.itemMappings.subList(itemMappingsStart, ItemRegistryPopulator.itemMappings.size())) {
+                itemMappings.add(itemMapping);
+            }
+            ArrayNode customModelData = registrations.putArray("custom_model_data");
+            for (String mapping : ItemRegistryPopulator.customModelDataMappings.subList(customModelDataStart, ItemRegistryPopulator.customModelDataMappings.size())) {
+                customModelData.add(mapping);
+            }
+            ArrayNode blockStates = registrations.putArray("block_states");
+            for (JsonNode blockState : BlockRegistryPopulator.blockStatesNode.subList(blockStatesStart, BlockRegistryPopulator.blockStatesNode.size())) {
+                blockStates.add(blockState);
+            }
+
+            Files.copy(output, cacheFolder.resolve(key + PACK_EXTENSION), StandardCopyOption.REPLACE_EXISTING);
+            GeyserConnector.JSON_MAPPER.writeValue(cacheFolder.resolve(key + REGISTRATIONS_EXTENSION).toFile(), registrations);
+        } catch (IOException e) {
+            GeyserConnector.getInstance().getLogger().debug("Unable to cache converted pack " + output.getFileName() + ": " + e.getMessage());
+            return;
+        }
+
+        evict();
+    }
+
+    private void evict() {
+        File[] files = cacheFolder.toFile().listFiles((dir, name) -> name.endsWith(PACK_EXTENSION));
+        if (files == null) {
+            return;
+        }
+
+        long totalSize = 0;
+        for (File file : files) {
+            totalSize += file.length();
+        }
+        if (totalSize <= maxSize) {
+            return;
+        }
+
+        List<File> packs = new ArrayList<>(Arrays.asList(files));
+        packs.sort(Comparator.comparingLong(File::lastModified));
+
+        int count = 0;
+        for (File pack : packs) {
+            if (totalSize <= maxSize) {
+                break;
+            }
+            totalSize -= pack.length();
+            String key = pack.getName().substring(0, pack.getName().length() - PACK_EXTENSION.length());
+            //noinspection ResultOfMethodCallIgnored
+            pack.delete();
+            //noinspection ResultOfMethodCallIgnored
+            cacheFolder.resolve(key + REGISTRATIONS_EXTENSION).toFile().delete();
+            count++;
+        }
+
+        if (count > 0) {
+            GeyserConnector.getInstance().getLogger().debug(String.format("Removed %d converted packs from the cache as it exceeded its size limit", count));
+        }
+    }
+}
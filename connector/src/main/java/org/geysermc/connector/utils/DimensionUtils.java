@@ -61,6 +61,7 @@ public class DimensionUtils {
         Entity player = session.getPlayerEntity();
 
         session.getChunkCache().clear();
+        session.getChunkSendQueue().clear();
         session.getEntityCache().removeAllEntities();
         session.getItemFrameCache().clear();
         if (session.getLecternCache() != null) {
@@ -28,11 +28,16 @@ package org.geysermc.connector.utils;
 import org.geysermc.connector.GeyserConnector;
 import org.geysermc.packconverter.api.PackConverter;
 
+import java.io.EOFException;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.stream.Stream;
@@ -48,13 +53,16 @@ public class ResourcePack {
      */
     public static final Map<String, ResourcePack> PACKS = new HashMap<>();
 
-    /**
-     * The size of each chunk to use when sending the resource packs to clients in bytes
-     */
-    public static final int CHUNK_SIZE = 102400;
-
     private byte[] sha256;
     private File file;
+    /**
+     * The pack contents, split into chunks of {@link #chunkSize} bytes to send to clients.
+     * These are kept with the pack rather than read from the file so a download that is in progress
+     * keeps receiving the same pack even if the file is replaced.
+     */
+    private byte[][] chunks;
+    private int chunkSize;
+    private long length;
     private ResourcePackManifest manifest;
     private ResourcePackManifest.Version version;
 
@@ -71,7 +79,7 @@ public class ResourcePack {
         Path oraxenFolder = GeyserConnector.getInstance().getBootstrap().getConfigFolder().getParent().resolve("Oraxen/pack/pack.zip");
         if (oraxenFolder.toFile().exists()) {
             try {
-                Files.copy(oraxenFolder, GeyserConnector.getInstance().getBootstrap().getConfigFolder().resolve("packs/pack-oraxen.zip"));
+                Files.copy(oraxenFolder, GeyserConnector.getInstance().getBootstrap().getConfigFolder().resolve("packs/pack-oraxen.zip"), StandardCopyOption.REPLACE_EXISTING);
             } catch (IOException e) {
                 e.printStackTrace();
             }
@@ -81,7 +89,7 @@ public class ResourcePack {
             if (file.getName().endsWith(".mcpack")) {
                 ResourcePack pack = new ResourcePack();
 
-                pack.sha256 = FileUtils.calculateSHA256(file);
+                pack.readChunks(file);
 
                 Stream<? extends ZipEntry> stream = null;
                 try {
@@ -123,19 +131,35 @@ public class ResourcePack {
                 }
                 String pathThingy = file.toPath().toString().replaceFirst("[.][^.]+$", ".mcpack");
                 if (originalZip.getEntry("pack.mcmeta") != null) {
-                    PackConverter packConverter = null;
-                    try {
-                        packConverter = new PackConverter(file.toPath(), Paths.get(pathThingy));
-                    } catch (IOException e) {
-                        e.printStackTrace();
+                    ConvertedPackCache cache = ConvertedPackCache.create();
+                    String cacheKey = cache != null ? cache.computeKey(file.toPath()) : null;
+                    if (cacheKey != null && cache.restore(cacheKey, Paths.get(pathThingy))) {
+                        GeyserConnector.getInstance().getLogger().debug("Using cached conversion of " + file.getName());
+                        // Match what the converter does after packing
+                        try {
+                            originalZip.close();
+                        } catch (IOException e) {
+                            e.printStackTrace();
+                        }
+                        file.delete();
+                    } else {
+                        PackConverter packConverter = null;
+                        try {
+                            packConverter = new PackConverter(file.toPath(), Paths.get(pathThingy));
+                        } catch (IOException e) {
+                            e.printStackTrace();
+                        }
+                        packConverter.convert();
+                        packConverter.pack();
+                        if (cacheKey != null && Paths.get(pathThingy).toFile().exists()) {
+                            cache.store(cacheKey, Paths.get(pathThingy));
+                        }
                     }
-                    packConverter.convert();
-                    packConverter.pack();
                     if (Paths.get(pathThingy).toFile().exists()) {
                         File file1 = Paths.get(pathThingy).toFile();
                         ResourcePack pack = new ResourcePack();
 
-                        pack.sha256 = FileUtils.calculateSHA256(file1);
+                        pack.readChunks(file1);
 
                         Stream<? extends ZipEntry> stream = null;
                         try {
@@ -174,6 +198,62 @@ public class ResourcePack {
         }
     }
 
+    /**
+     * Read the pack into memory in chunks of the configured size and calculate its hash along the way
+     *
+     * @param file the pack to read
+     */
+    private void readChunks(File file) {
+        try (InputStream inputStream = new FileInputStream(file)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            long length = file.length();
+            // There is no point in asking the client to allocate more than the pack needs
+            int chunkSize = (int) Math.max(1, Math.min(length, Math.max(1, GeyserConnector.getInstance().getConfig().getResourcePackChunkSize()) * 1024L));
+            byte[][] chunks = new byte[(int) ((length + chunkSize - 1) / chunkSize)][];
+
+            for (int i = 0; i < chunks.length; i++) {
+                byte[] chunk = new byte[(int) Math.min(chunkSize, length - (long) i * chunkSize)];
+                if (inputStream.readNBytes(chunk, 0, chunk.length) != chunk.length) {
+                    throw new EOFException("Pack changed while it was being read");
+                }
+                digest.update(chunk);
+                chunks[i] = chunk;
+            }
+
+            this.sha256 = digest.digest();
+            this.chunks = chunks;
+            this.chunkSize = chunkSize;
+            this.length = length;
+        } catch (Exception e) {
+            throw new RuntimeException("Could not calculate pack hash", e);
+        }
+    }
+
+    /**
+     * Get a chunk of the pack to send to a client. The returned array is shared and must not be modified.
+     *
+     * @param index the index of the chunk
+     * @return the chunk, or an empty array if the index is out of range
+     */
+    public byte[] getChunk(int index) {
+        if (index < 0 || index >= chunks.length) {
+            return new byte[0];
+        }
+        return chunks[index];
+    }
+
+    public int getChunkCount() {
+        return chunks.length;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
     public byte[] getSha256() {
         return sha256;
     }
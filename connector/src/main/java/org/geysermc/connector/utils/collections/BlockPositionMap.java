@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2019-2021 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+
+package org.geysermc.connector.utils.collections;
+
+import com.nukkitx.math.vector.Vector3i;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import org.geysermc.connector.utils.MathUtils;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * A map of block positions to values, grouped by the chunk they are in, so that everything in a chunk can be
+ * found or removed without looking through the whole map.
+ *
+ * @param <V> the value
+ */
+public class BlockPositionMap<V> {
+    private final Long2ObjectMap<Int2ObjectMap<V>> chunks = new Long2ObjectOpenHashMap<>();
+    private int size;
+
+    public V get(Vector3i position) {
+        if (size == 0) {
+            // Most sessions have nothing stored, and this is checked for every block change
+            return null;
+        }
+        Int2ObjectMap<V> chunk = chunks.get(chunkKey(position));
+        return chunk != null ? chunk.get(blockKey(position)) : null;
+    }
+
+    public V put(Vector3i position, V value) {
+        V previous = chunks.computeIfAbsent(chunkKey(position), key -> new Int2ObjectOpenHashMap<>()).put(blockKey(position), value);
+        if (previous == null) {
+            size++;
+        }
+        return previous;
+    }
+
+    public V remove(Vector3i position) {
+        long chunkKey = chunkKey(position);
+        Int2ObjectMap<V> chunk = chunks.get(chunkKey);
+        if (chunk == null) {
+            return null;
+        }
+        V previous = chunk.remove(blockKey(position));
+        if (previous != null) {
+            size--;
+            if (chunk.isEmpty()) {
+                chunks.remove(chunkKey);
+            }
+        }
+        return previous;
+    }
+
+    /**
+     * Removes the value at this position only if it is the given value
+     *
+     * @return true if the value was removed
+     */
+    public boolean remove(Vector3i position, V value) {
+        Int2ObjectMap<V> chunk = chunks.get(chunkKey(position));
+        if (chunk == null || !Objects.equals(chunk.get(blockKey(position)), value)) {
+            return false;
+        }
+        remove(position);
+        return true;
+    }
+
+    /**
+     * Removes every value in a chunk
+     *
+     * @return the values that were in the chunk
+     */
+    public Collection<V> removeChunk(int chunkX, int chunkZ) {
+        Int2ObjectMap<V> chunk = chunks.remove(MathUtils.chunkPositionToLong(chunkX, chunkZ));
+        if (chunk == null) {
+            return Collections.emptyList();
+        }
+        size -= chunk.size();
+        return chunk.values();
+    }
+
+    public void forEach(Consumer<? super V> action) {
+        for (Int2ObjectMap<V> chunk : chunks.values()) {
+            chunk.values().forEach(action);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        chunks.clear();
+        size = 0;
+    }
+
+    static long chunkKey(Vector3i position) {
+        return MathUtils.chunkPositionToLong(position.getX() >> 4, position.getZ() >> 4);
+    }
+
+    /**
+     * @return the position of a block within its chunk. Unique for any Y value that fits in 24 bits
+     */
+    static int blockKey(Vector3i position) {
+        return (position.getY() << 8) | ((position.getZ() & 0xF) << 4) | (position.getX() & 0xF);
+    }
+}
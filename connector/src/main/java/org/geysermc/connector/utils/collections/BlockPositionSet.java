@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2019-2021 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+
+package org.geysermc.connector.utils.collections;
+
+import com.nukkitx.math.vector.Vector3i;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import org.geysermc.connector.utils.MathUtils;
+
+import static org.geysermc.connector.utils.collections.BlockPositionMap.blockKey;
+import static org.geysermc.connector.utils.collections.BlockPositionMap.chunkKey;
+
+/**
+ * A set of block positions, grouped by the chunk they are in, so that every position in a chunk can be
+ * removed without looking through the whole set.
+ */
+public class BlockPositionSet {
+    private final Long2ObjectMap<IntSet> chunks = new Long2ObjectOpenHashMap<>();
+
+    public boolean contains(Vector3i position) {
+        IntSet chunk = chunks.get(chunkKey(position));
+        return chunk != null && chunk.contains(blockKey(position));
+    }
+
+    public boolean add(Vector3i position) {
+        return chunks.computeIfAbsent(chunkKey(position), key -> new IntOpenHashSet()).add(blockKey(position));
+    }
+
+    public boolean remove(Vector3i position) {
+        long chunkKey = chunkKey(position);
+        IntSet chunk = chunks.get(chunkKey);
+        if (chunk == null || !chunk.remove(blockKey(position))) {
+            return false;
+        }
+        if (chunk.isEmpty()) {
+            chunks.remove(chunkKey);
+        }
+        return true;
+    }
+
+    public void removeChunk(int chunkX, int chunkZ) {
+        chunks.remove(MathUtils.chunkPositionToLong(chunkX, chunkZ));
+    }
+
+    public void clear() {
+        chunks.clear();
+    }
+}
@@ -37,6 +37,11 @@ public class ConverterHandler {
 
     public static boolean enableExperimental = false;
 
+    /**
+     * Run converters that do not touch the same files at the same time
+     */
+    public static boolean enableParallel = true;
+
     static {
         converterList.add(FixWrongRootFolderConverter.class);
         converterList.add(MetadataConverter.class);
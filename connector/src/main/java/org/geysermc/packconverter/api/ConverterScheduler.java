@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2019-2020 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.packconverter.api;
+
+import org.geysermc.packconverter.api.converters.AbstractConverter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Runs converters in parallel where their read and write paths allow it.
+ * A converter waits for every earlier converter that writes a path it reads or writes,
+ * or that reads a path it writes, so the result is the same as running them in order.
+ */
+public class ConverterScheduler {
+    private final ForkJoinPool pool;
+
+    public ConverterScheduler(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Run the given converters
+     *
+     * @param converters the converters, in the order they would run sequentially
+     * @return the additional converters returned by each converter, in the same order
+     */
+    public List<AbstractConverter> run(List<AbstractConverter> converters) {
+        int size = converters.size();
+        List<ConverterNode> nodes = new ArrayList<>(size);
+        List<CompletableFuture<List<AbstractConverter>>> futures = new ArrayList<>(size);
+
+        // Everything after a converter that may touch the whole pack has to wait for it,
+        // so there is no need to look any further back than the last one
+        int lastBarrier = -1;
+        for (int i = 0; i < size; i++) {
+            AbstractConverter converter = converters.get(i);
+            ConverterNode node = new ConverterNode(converter.getReadPaths(), converter.getWritePaths());
+            nodes.add(node);
+
+            List<CompletableFuture<?>> dependencies = new ArrayList<>();
+            for (int j = i - 1; j > lastBarrier; j--) {
+                if (node.conflictsWith(nodes.get(j))) {
+                    dependencies.add(futures.get(j));
+                }
+            }
+            if (lastBarrier != -1) {
+                dependencies.add(futures.get(lastBarrier));
+            }
+            if (node.isBarrier()) {
+                lastBarrier = i;
+            }
+
+            futures.add(CompletableFuture.allOf(dependencies.toArray(new CompletableFuture[0]))
+                    .thenApplyAsync(ignored -> converter.convert(), pool));
+        }
+
+        List<AbstractConverter> additionalConverters = new ArrayList<>();
+        for (CompletableFuture<List<AbstractConverter>> future : futures) {
+            try {
+                additionalConverters.addAll(future.join());
+            } catch (CompletionException e) {
+                // Rethrow the same exception the converter would have thrown when running sequentially
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                } else if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw e;
+            }
+        }
+        return additionalConverters;
+    }
+
+    private record ConverterNode(Collection<String> readPaths, Collection<String> writePaths) {
+
+        boolean isBarrier() {
+            return readPaths == null || writePaths == null;
+        }
+
+        boolean conflictsWith(ConverterNode other) {
+            if (isBarrier() || other.isBarrier()) {
+                return true;
+            }
+            return overlaps(writePaths, other.writePaths)
+                    || overlaps(writePaths, other.readPaths)
+                    || overlaps(readPaths, other.writePaths);
+        }
+
+        private static boolean overlaps(Collection<String> first, Collection<String> second) {
+            for (String a : first) {
+                for (String b : second) {
+                    if (a.startsWith(b) || b.startsWith(a)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+}
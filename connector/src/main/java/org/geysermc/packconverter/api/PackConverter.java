@@ -30,6 +30,7 @@ import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import lombok.Getter;
 import lombok.Setter;
 import org.geysermc.packconverter.api.utils.CustomModelData;
+import org.geysermc.packconverter.api.utils.ImageUtils;
 import org.geysermc.packconverter.api.utils.OnLogListener;
 import org.geysermc.packconverter.api.utils.ZipUtils;
 import org.geysermc.packconverter.api.converters.AbstractConverter;
@@ -38,18 +39,26 @@ import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
 public class PackConverter {
 
+    /**
+     * The version of the converter output. Bump this whenever a converter changes
+     * what it writes so previously cached conversions are no longer used.
+     */
+    public static final int VERSION = 3;
+
     @Getter
     private final Path output;
 
@@ -72,32 +81,25 @@ public class PackConverter {
         ImageIO.scanForPlugins();
 
         // Extract the zip to a temp location
-        // This is quite slow, maybe try and find a faster method?
+        // The converters work on plain files (ImageIO, java.io.File), so they still need a real folder
         tmpDir = input.toAbsolutePath().getParent().resolve(input.getFileName() + "_mcpack/");
         tmpDir.toFile().mkdir();
-        ZipFile zipFile = new ZipFile(input.toFile());
         Path resourcesDir = tmpDir.resolve("resources");
         //Path behaviourDir = tmpDir.resolve("behaviour");
         //Path behaviourDir = tmpDir.resolve("resources").getParent();
-        ZipEntry entry;
-        final Enumeration<? extends ZipEntry> entries = zipFile.entries();
-        while (entries.hasMoreElements()) {
-            entry = entries.nextElement();
-            if (!entry.isDirectory()) {
-                File newFile = resourcesDir.resolve(entry.getName()).toFile();
-                newFile.getParentFile().mkdirs();
-
-                InputStream fileStream = zipFile.getInputStream(entry);
-                FileOutputStream outStream = new FileOutputStream(newFile);
-
-                byte[] buf = new byte[fileStream.available()];
-                int length;
-                while ((length = fileStream.read(buf)) != -1) {
-                    outStream.write(buf, 0, length);
+        try (ZipFile zipFile = new ZipFile(input.toFile())) {
+            ZipEntry entry;
+            final Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                entry = entries.nextElement();
+                if (!entry.isDirectory()) {
+                    Path newFile = resourcesDir.resolve(entry.getName());
+                    Files.createDirectories(newFile.getParent());
+
+                    try (InputStream fileStream = zipFile.getInputStream(entry)) {
+                        Files.copy(fileStream, newFile, StandardCopyOption.REPLACE_EXISTING);
+                    }
                 }
-
-                outStream.flush();
-                outStream.close();
             }
         }
        /* if (Files.notExists(behaviourDir)) {
@@ -105,34 +107,45 @@ public class PackConverter {
         }*/
     }
     BufferedImage resizeImage(BufferedImage originalImage, int targetWidth, int targetHeight) throws IOException {
-        Image resultingImage = originalImage.getScaledInstance(targetWidth, targetHeight, Image.SCALE_DEFAULT);
-        BufferedImage outputImage = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
-        outputImage.getGraphics().drawImage(resultingImage, 0, 0, null);
-        return outputImage;
+        return ImageUtils.resize(originalImage, targetWidth, targetHeight);
     }
     /**
      * Convert all resources in the pack using the converters
      */
     public void convert() {
-        List<AbstractConverter> additionalConverters = new ArrayList<>();
+        List<AbstractConverter> converters = new ArrayList<>();
         Path resources = tmpDir.resolve("resources");
         //Path behaviour = tmpDir.resolve("behaviour");
         //Path behaviour = tmpDir.resolve("resources").getParent();
         for (Class<? extends AbstractConverter> converterClass : ConverterHandler.converterList) {
             try {
                 List<Object[]> defaultData = (List<Object[]>) converterClass.getMethod("getDefaultData").invoke(null);
-                AbstractConverter converter;
                 for (Object[] data : defaultData) {
-
-                    converter = converterClass.getDeclaredConstructor(PackConverter.class, Path.class, Object[].class, Path.class).newInstance(this, resources, data,resources);
-                    additionalConverters.addAll(converter.convert());
+                    converters.add(converterClass.getDeclaredConstructor(PackConverter.class, Path.class, Object[].class, Path.class).newInstance(this, resources, data,resources));
                 }
             } catch (InstantiationException | IllegalAccessException | NoSuchMethodException | InvocationTargetException e) {
                 log(e.getMessage() + "\n" + e.getStackTrace());
             }
         }
-        for (AbstractConverter converter : additionalConverters) {
-            converter.convert();
+
+        if (!ConverterHandler.enableParallel) {
+            List<AbstractConverter> additionalConverters = new ArrayList<>();
+            for (AbstractConverter converter : converters) {
+                additionalConverters.addAll(converter.convert());
+            }
+            for (AbstractConverter converter : additionalConverters) {
+                converter.convert();
+            }
+            return;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        try {
+            ConverterScheduler scheduler = new ConverterScheduler(pool);
+            List<AbstractConverter> additionalConverters = scheduler.run(converters);
+            scheduler.run(additionalConverters);
+        } finally {
+            pool.shutdown();
         }
     }
 
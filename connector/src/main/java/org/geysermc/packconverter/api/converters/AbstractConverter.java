@@ -31,6 +31,7 @@ import org.geysermc.packconverter.api.PackConverter;
 
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 @AllArgsConstructor
@@ -44,4 +45,43 @@ public abstract class AbstractConverter {
     };
 
     public abstract List<AbstractConverter> convert();
+
+    /**
+     * Get the paths, relative to the pack root, that this converter reads.
+     * Paths are matched by prefix, so a folder or the start of a file name covers everything under it.
+     *
+     * @return the read paths, or null if this converter may read anything in the pack
+     */
+    public Collection<String> getReadPaths() {
+        return getDataPaths();
+    }
+
+    /**
+     * Get the paths, relative to the pack root, that this converter creates, changes or deletes.
+     *
+     * @return the written paths, or null if this converter may write anywhere in the pack
+     * @see #getReadPaths()
+     */
+    public Collection<String> getWritePaths() {
+        return getDataPaths();
+    }
+
+    /**
+     * @return every string in the converter data, which for most converters are all the paths it uses
+     */
+    protected Collection<String> getDataPaths() {
+        List<String> paths = new ArrayList<>();
+        addDataPaths(data, paths);
+        return paths;
+    }
+
+    private static void addDataPaths(Object[] data, List<String> paths) {
+        for (Object value : data) {
+            if (value instanceof String) {
+                paths.add((String) value);
+            } else if (value instanceof Object[]) {
+                addDataPaths((Object[]) value, paths);
+            }
+        }
+    }
 }
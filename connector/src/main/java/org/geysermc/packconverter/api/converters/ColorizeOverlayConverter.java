@@ -28,11 +28,10 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
-import org.geysermc.packconverter.api.utils.ImageUtils;
+import org.geysermc.packconverter.api.utils.PixelBuffer;
 
 import javax.imageio.ImageIO;
 import java.awt.*;
-import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
@@ -258,7 +257,7 @@ public class ColorizeOverlayConverter extends AbstractConverter {
             Object[] overlays = (Object[]) this.data[0];
             String to = (String) this.data[1];
 
-            BufferedImage finalImage = null;
+            PixelBuffer finalImage = null;
 
             for (Object overlay : overlays) {
                 Object[] overlayArr = (Object[]) overlay;
@@ -271,17 +270,15 @@ public class ColorizeOverlayConverter extends AbstractConverter {
                     continue;
                 }
 
-                BufferedImage overlayImage = ImageIO.read(overlayFile);
+                PixelBuffer overlayImage = PixelBuffer.of(ImageIO.read(overlayFile));
 
                 if (finalImage == null) {
                     packConverter.log(String.format("Colorize and overlay %s", to));
 
-                    finalImage = new BufferedImage(overlayImage.getWidth(), overlayImage.getHeight(), BufferedImage.TYPE_INT_ARGB);
+                    finalImage = new PixelBuffer(overlayImage.getWidth(), overlayImage.getHeight());
                 }
 
-                overlayImage = ImageUtils.colorize(overlayImage, color);
-
-                finalImage.getGraphics().drawImage(overlayImage, 0, 0, null);
+                finalImage.draw(overlayImage.colorize(color), 0, 0);
 
                 if (deleteOverlay) {
                     delete.add(new DeleteConverter(packConverter, storage, new Object[] {overlayPath},null));
@@ -289,7 +286,7 @@ public class ColorizeOverlayConverter extends AbstractConverter {
             }
 
             if (finalImage != null) {
-                ImageUtils.write(finalImage, "png", storage.resolve(to).toFile());
+                finalImage.write("png", storage.resolve(to).toFile());
             }
         } catch (IOException e) { }
 
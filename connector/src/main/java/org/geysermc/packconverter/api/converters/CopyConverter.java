@@ -33,6 +33,8 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 public class CopyConverter extends AbstractConverter {
@@ -128,4 +130,14 @@ public class CopyConverter extends AbstractConverter {
 
         return new ArrayList<>();
     }
+
+    @Override
+    public Collection<String> getReadPaths() {
+        return Collections.singletonList((String) this.data[0]);
+    }
+
+    @Override
+    public Collection<String> getWritePaths() {
+        return Collections.singletonList((String) this.data[1]);
+    }
 }
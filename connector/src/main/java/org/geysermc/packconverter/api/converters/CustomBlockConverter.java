@@ -51,6 +51,7 @@ import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 
 public class CustomBlockConverter extends AbstractConverter {
@@ -114,6 +115,25 @@ public class CustomBlockConverter extends AbstractConverter {
         return builder.build();
     }
 
+    /**
+     * Register a custom note block state with the block registry populator.
+     * Also used when restoring a previously converted pack from the cache.
+     *
+     * @param model the model of the custom block
+     * @param blockState the multipart block state the model is applied to
+     */
+    public static void registerCustomBlock(String model, JsonNode blockState) {
+        NbtMapBuilder blockBuilder = NbtMap.builder();
+        blockBuilder.putCompound("minecraft:material_instances", NbtMap.builder().putCompound("materials", NbtMap.builder().putCompound("*", NbtMap.builder().putBoolean("ambient_occlusion", true).putBoolean("face_dimming", true).putString("texture", "zzz_"+model).putString("render_method", "opaque").build()).build()).build());
+        blockBuilder.putCompound("minecraft:entity_collision", NbtMap.builder().putBoolean("enabled", true).putList("origin", NbtType.FLOAT, Arrays.asList(0f, 0f, 0f)).putList("size", NbtType.FLOAT, Arrays.asList(16f, 16f, 16f)).build());
+        blockBuilder.putCompound("minecraft:unit_cube", NbtMap.EMPTY);
+        blockBuilder.putCompound("minecraft:block_light_absorption", putWithValue(0));
+        BlockRegistryPopulator.blockStates.add(blockBuilder);
+        BlockRegistryPopulator.blockStateIds.add("geysermc:zzz_" + model);
+        BlockRegistryPopulator.blockStatesNode.add(blockState);
+        BlockRegistryPopulator.customBlockTags.add("geysermc:zzz_"+ model);
+    }
+
     public List<File> traverseDirectory(final File folder, List<File> fileNamesList) {
         for (final File f : folder.listFiles()) {
 
@@ -155,18 +175,10 @@ public class CustomBlockConverter extends AbstractConverter {
                                         int note = when.get("note").asInt();
                                         boolean powered = when.get("powered").asBoolean();
                                         //if (javaId.equals("minecraft:note_block[instrument=" + instrument + ",note=" + note + ",powered=" + powered + "]")) {
-                                        NbtMapBuilder blockBuilder = NbtMap.builder();
                                         // blockBuilder.putCompound("minecraft:destroy_time", putWithValue(0.5f)); //TODO
                                         String textureOutput = CustomBlockHandler.handleItemTexture(mapper, storage, model);
-                                        blockBuilder.putCompound("minecraft:material_instances", NbtMap.builder().putCompound("materials", NbtMap.builder().putCompound("*", NbtMap.builder().putBoolean("ambient_occlusion", true).putBoolean("face_dimming", true).putString("texture", "zzz_"+model).putString("render_method", "opaque").build()).build()).build());
-                                        blockBuilder.putCompound("minecraft:entity_collision", NbtMap.builder().putBoolean("enabled", true).putList("origin", NbtType.FLOAT, Arrays.asList(0f, 0f, 0f)).putList("size", NbtType.FLOAT, Arrays.asList(16f, 16f, 16f)).build());
-                                        blockBuilder.putCompound("minecraft:unit_cube", NbtMap.EMPTY);
-                                        blockBuilder.putCompound("minecraft:block_light_absorption", putWithValue(0));
                                         ((ObjectNode)blockState).put("arrayIndex",blockState.size());
-                                        BlockRegistryPopulator.blockStates.add(blockBuilder);
-                                        BlockRegistryPopulator.blockStateIds.add("geysermc:zzz_" + model);
-                                        BlockRegistryPopulator.blockStatesNode.add(blockState);
-                                        BlockRegistryPopulator.customBlockTags.add("geysermc:zzz_"+ model);
+                                        registerCustomBlock(model, blockState);
                                         // }
                                     }
                                 }
@@ -235,4 +247,15 @@ public class CustomBlockConverter extends AbstractConverter {
         }
         return buf.toString();
     }
+
+    @Override
+    public Collection<String> getReadPaths() {
+        // Walks the blockstates and registers the custom blocks in a shared registry
+        return null;
+    }
+
+    @Override
+    public Collection<String> getWritePaths() {
+        return null;
+    }
 }
@@ -44,6 +44,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 public class CustomModelDataConverter extends AbstractConverter {
@@ -99,6 +100,7 @@ public class CustomModelDataConverter extends AbstractConverter {
             textureData.put("texture_name", "atlas.items");
             ObjectNode allTextures = mapper.createObjectNode();
             handleCustomModelData(/*itemInformation,*/ allTextures, mapper, storage.resolve(from).toFile());
+            registerCustomModelData(mapper, storage.resolve(from).resolve("item").toFile());
 
             textureData.set("texture_data", allTextures);
             //if (!packConverter.getCustomModelData().isEmpty()) {
@@ -122,6 +124,42 @@ public class CustomModelDataConverter extends AbstractConverter {
         return new ArrayList<>();
     }
 
+    /**
+     * Record the Java item and CustomModelData that each custom model is shown for,
+     * so the custom item can be found without reading its Oraxen ID
+     */
+    private void registerCustomModelData(ObjectMapper mapper, File itemModels) {
+        File[] files = itemModels.listFiles((dir, name) -> name.endsWith(".json"));
+        if (files == null) {
+            return;
+        }
+
+        for (File file : files) {
+            try (InputStream stream = new FileInputStream(file)) {
+                JsonNode overrides = mapper.readTree(stream).get("overrides");
+                if (overrides == null) {
+                    continue;
+                }
+
+                String javaItem = "minecraft:" + file.getName().replace(".json", "");
+                for (JsonNode override : overrides) {
+                    JsonNode customModelData = override.path("predicate").get("custom_model_data");
+                    JsonNode model = override.get("model");
+                    if (customModelData == null || model == null) {
+                        continue;
+                    }
+
+                    // Custom items are registered under the file name of their model
+                    String modelPath = model.asText();
+                    String modelName = modelPath.substring(Math.max(modelPath.lastIndexOf('/'), modelPath.lastIndexOf(':')) + 1);
+                    ItemRegistryPopulator.customModelDataMappings.add(javaItem + ";" + customModelData.asInt() + ";" + modelName);
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
     public List<File> traverseDirectory(final File folder, List<File> fileNamesList) {
         for (final File f : folder.listFiles()) {
 
@@ -262,4 +300,15 @@ public class CustomModelDataConverter extends AbstractConverter {
         }
         return buf.toString();
     }
+
+    @Override
+    public Collection<String> getReadPaths() {
+        // Walks the models and registers the custom items in a shared registry
+        return null;
+    }
+
+    @Override
+    public Collection<String> getWritePaths() {
+        return null;
+    }
 }
@@ -89,4 +89,15 @@ public class FixWrongRootFolderConverter extends AbstractConverter {
 
         return new ArrayList<>();
     }
+
+    @Override
+    public Collection<String> getReadPaths() {
+        // Searches the whole pack for the actual root folder
+        return null;
+    }
+
+    @Override
+    public Collection<String> getWritePaths() {
+        return null;
+    }
 }
@@ -28,11 +28,9 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
-import org.geysermc.packconverter.api.utils.ImageUtils;
+import org.geysermc.packconverter.api.utils.PixelBuffer;
 
 import javax.imageio.ImageIO;
-import java.awt.*;
-import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
@@ -86,174 +84,173 @@ public class HorseConverter extends AbstractConverter {
 
             packConverter.log(String.format("Convert horse %s", to));
 
-            BufferedImage fromImage = ImageIO.read(fromFile);
+            PixelBuffer fromImage = PixelBuffer.of(ImageIO.read(fromFile));
 
             int factor = fromImage.getWidth() / 64;
 
-            BufferedImage newImage = new BufferedImage((fromImage.getWidth() * 2), (fromImage.getWidth() * 2), BufferedImage.TYPE_INT_ARGB);
-            Graphics g = newImage.getGraphics();
+            PixelBuffer newImage = new PixelBuffer((fromImage.getWidth() * 2), (fromImage.getWidth() * 2));
 
             // Chest
-            g.drawImage(ImageUtils.crop(fromImage, (26 * factor), (21 * factor), (22 * factor), (11 * factor)), 0, (34 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (26 * factor), (21 * factor), (22 * factor), (11 * factor)), 0, (47 * factor), null);
+            newImage.draw(fromImage, (26 * factor), (21 * factor), (22 * factor), (11 * factor), 0, (34 * factor));
+            newImage.draw(fromImage, (26 * factor), (21 * factor), (22 * factor), (11 * factor), 0, (47 * factor));
 
             // Saddle (Gray part)
-            g.drawImage(ImageUtils.crop(fromImage, (29 * factor), (5 * factor), (6 * factor), (4 * factor)), (74 * factor), 0, null);
-            g.drawImage(ImageUtils.crop(fromImage, (29 * factor), (5 * factor), (6 * factor), (4 * factor)), (74 * factor), (4 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (29 * factor), (5 * factor), (6 * factor), (4 * factor)), (74 * factor), (13 * factor), null);
+            newImage.draw(fromImage, (29 * factor), (5 * factor), (6 * factor), (4 * factor), (74 * factor), 0);
+            newImage.draw(fromImage, (29 * factor), (5 * factor), (6 * factor), (4 * factor), (74 * factor), (4 * factor));
+            newImage.draw(fromImage, (29 * factor), (5 * factor), (6 * factor), (4 * factor), (74 * factor), (13 * factor));
 
-            g.drawImage(ImageUtils.crop(fromImage, (31 * factor), (5 * factor), factor, factor), (81 * factor), (26 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (31 * factor), (5 * factor), factor, factor), (87 * factor), (26 * factor), null);
+            newImage.draw(fromImage, (31 * factor), (5 * factor), factor, factor, (81 * factor), (26 * factor));
+            newImage.draw(fromImage, (31 * factor), (5 * factor), factor, factor, (87 * factor), (26 * factor));
 
-            g.drawImage(ImageUtils.crop(fromImage, (31 * factor), (5 * factor), factor, factor), (101 * factor), (26 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (31 * factor), (5 * factor), factor, factor), (107 * factor), (26 * factor), null);
+            newImage.draw(fromImage, (31 * factor), (5 * factor), factor, factor, (101 * factor), (26 * factor));
+            newImage.draw(fromImage, (31 * factor), (5 * factor), factor, factor, (107 * factor), (26 * factor));
 
             // Saddle (Color part)
-            g.drawImage(ImageUtils.crop(fromImage, (35 * factor), 0, (10 * factor), (9 * factor)), (88 * factor), 0, null);
-            g.drawImage(ImageUtils.crop(fromImage, (35 * factor), 0, (10 * factor), (9 * factor)), (98 * factor), 0, null);
+            newImage.draw(fromImage, (35 * factor), 0, (10 * factor), (9 * factor), (88 * factor), 0);
+            newImage.draw(fromImage, (35 * factor), 0, (10 * factor), (9 * factor), (98 * factor), 0);
 
-            g.drawImage(ImageUtils.crop(fromImage, (26 * factor), (9 * factor), (9 * factor), (2 * factor)), (82 * factor), (9 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (26 * factor), (9 * factor), (7 * factor), (2 * factor)), (91 * factor), (9 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (26 * factor), (9 * factor), (6 * factor), (2 * factor)), (108 * factor), (9 * factor), null);
+            newImage.draw(fromImage, (26 * factor), (9 * factor), (9 * factor), (2 * factor), (82 * factor), (9 * factor));
+            newImage.draw(fromImage, (26 * factor), (9 * factor), (7 * factor), (2 * factor), (91 * factor), (9 * factor));
+            newImage.draw(fromImage, (26 * factor), (9 * factor), (6 * factor), (2 * factor), (108 * factor), (9 * factor));
 
-            g.drawImage(ImageUtils.crop(fromImage, (26 * factor), (9 * factor), (8 * factor), factor), (80 * factor), (8 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (26 * factor), (9 * factor), (8 * factor), factor), (108 * factor), (8 * factor), null);
+            newImage.draw(fromImage, (26 * factor), (9 * factor), (8 * factor), factor, (80 * factor), (8 * factor));
+            newImage.draw(fromImage, (26 * factor), (9 * factor), (8 * factor), factor, (108 * factor), (8 * factor));
 
-            g.drawImage(ImageUtils.crop(fromImage, (26 * factor), (9 * factor), (9 * factor), factor), (80 * factor), (11 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (26 * factor), (9 * factor), (9 * factor), factor), (89 * factor), (11 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (26 * factor), (9 * factor), (2 * factor), factor), (98 * factor), (11 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (26 * factor), (9 * factor), (9 * factor), factor), (106 * factor), (11 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (26 * factor), (9 * factor), factor, factor), (115 * factor), (11 * factor), null);
+            newImage.draw(fromImage, (26 * factor), (9 * factor), (9 * factor), factor, (80 * factor), (11 * factor));
+            newImage.draw(fromImage, (26 * factor), (9 * factor), (9 * factor), factor, (89 * factor), (11 * factor));
+            newImage.draw(fromImage, (26 * factor), (9 * factor), (2 * factor), factor, (98 * factor), (11 * factor));
+            newImage.draw(fromImage, (26 * factor), (9 * factor), (9 * factor), factor, (106 * factor), (11 * factor));
+            newImage.draw(fromImage, (26 * factor), (9 * factor), factor, factor, (115 * factor), (11 * factor));
 
-            g.drawImage(ImageUtils.crop(fromImage, (26 * factor), (9 * factor), (9 * factor), factor), (92 * factor), (13 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (26 * factor), (9 * factor), factor, factor), (101 * factor), (13 * factor), null);
+            newImage.draw(fromImage, (26 * factor), (9 * factor), (9 * factor), factor, (92 * factor), (13 * factor));
+            newImage.draw(fromImage, (26 * factor), (9 * factor), factor, factor, (101 * factor), (13 * factor));
 
-            g.drawImage(ImageUtils.crop(fromImage, (26 * factor), (9 * factor), (9 * factor), factor), (92 * factor), (19 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (26 * factor), (9 * factor), factor, factor), (101 * factor), (19 * factor), null);
+            newImage.draw(fromImage, (26 * factor), (9 * factor), (9 * factor), factor, (92 * factor), (19 * factor));
+            newImage.draw(fromImage, (26 * factor), (9 * factor), factor, factor, (101 * factor), (19 * factor));
 
-            g.drawImage(ImageUtils.crop(fromImage, (26 * factor), (9 * factor), (2 * factor), factor), (71 * factor), 0, null);
-            g.drawImage(ImageUtils.crop(fromImage, (35 * factor), 0, (4 * factor), (6 * factor)), (70 * factor), factor, null);
+            newImage.draw(fromImage, (26 * factor), (9 * factor), (2 * factor), factor, (71 * factor), 0);
+            newImage.draw(fromImage, (35 * factor), 0, (4 * factor), (6 * factor), (70 * factor), factor);
 
-            g.drawImage(ImageUtils.crop(fromImage, (26 * factor), (9 * factor), (2 * factor), factor), (81 * factor), 0, null);
-            g.drawImage(ImageUtils.crop(fromImage, (35 * factor), 0, (4 * factor), (6 * factor)), (80 * factor), factor, null);
+            newImage.draw(fromImage, (26 * factor), (9 * factor), (2 * factor), factor, (81 * factor), 0);
+            newImage.draw(fromImage, (35 * factor), 0, (4 * factor), (6 * factor), (80 * factor), factor);
 
-            g.drawImage(ImageUtils.crop(fromImage, (26 * factor), (9 * factor), (3 * factor), factor), (60 * factor), (22 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (26 * factor), (9 * factor), (8 * factor), factor), (63 * factor), (23 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (26 * factor), (9 * factor), (3 * factor), factor), (71 * factor), (22 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (26 * factor), (9 * factor), (2 * factor), factor), (74 * factor), (21 * factor), null);
+            newImage.draw(fromImage, (26 * factor), (9 * factor), (3 * factor), factor, (60 * factor), (22 * factor));
+            newImage.draw(fromImage, (26 * factor), (9 * factor), (8 * factor), factor, (63 * factor), (23 * factor));
+            newImage.draw(fromImage, (26 * factor), (9 * factor), (3 * factor), factor, (71 * factor), (22 * factor));
+            newImage.draw(fromImage, (26 * factor), (9 * factor), (2 * factor), factor, (74 * factor), (21 * factor));
 
-            g.drawImage(ImageUtils.crop(fromImage, (26 * factor), (9 * factor), (3 * factor), factor), (60 * factor), (27 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (26 * factor), (9 * factor), (8 * factor), factor), (63 * factor), (28 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (26 * factor), (9 * factor), (3 * factor), factor), (71 * factor), (27 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (26 * factor), (9 * factor), (2 * factor), factor), (74 * factor), (26 * factor), null);
+            newImage.draw(fromImage, (26 * factor), (9 * factor), (3 * factor), factor, (60 * factor), (27 * factor));
+            newImage.draw(fromImage, (26 * factor), (9 * factor), (8 * factor), factor, (63 * factor), (28 * factor));
+            newImage.draw(fromImage, (26 * factor), (9 * factor), (3 * factor), factor, (71 * factor), (27 * factor));
+            newImage.draw(fromImage, (26 * factor), (9 * factor), (2 * factor), factor, (74 * factor), (26 * factor));
 
-            g.drawImage(ImageUtils.crop(fromImage, (26 * factor), (9 * factor), factor, (2 * factor)), (81 * factor), (24 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (26 * factor), (9 * factor), factor, (2 * factor)), (81 * factor), (27 * factor), null);
+            newImage.draw(fromImage, (26 * factor), (9 * factor), factor, (2 * factor), (81 * factor), (24 * factor));
+            newImage.draw(fromImage, (26 * factor), (9 * factor), factor, (2 * factor), (81 * factor), (27 * factor));
 
-            g.drawImage(ImageUtils.crop(fromImage, (26 * factor), (9 * factor), (5 * factor), factor), (82 * factor), (26 * factor), null);
+            newImage.draw(fromImage, (26 * factor), (9 * factor), (5 * factor), factor, (82 * factor), (26 * factor));
 
-            g.drawImage(ImageUtils.crop(fromImage, (26 * factor), (9 * factor), factor, (2 * factor)), (87 * factor), (24 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (26 * factor), (9 * factor), factor, (2 * factor)), (87 * factor), (27 * factor), null);
+            newImage.draw(fromImage, (26 * factor), (9 * factor), factor, (2 * factor), (87 * factor), (24 * factor));
+            newImage.draw(fromImage, (26 * factor), (9 * factor), factor, (2 * factor), (87 * factor), (27 * factor));
 
-            g.drawImage(ImageUtils.crop(fromImage, (26 * factor), (9 * factor), factor, (2 * factor)), (101 * factor), (24 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (26 * factor), (9 * factor), factor, (2 * factor)), (101 * factor), (27 * factor), null);
+            newImage.draw(fromImage, (26 * factor), (9 * factor), factor, (2 * factor), (101 * factor), (24 * factor));
+            newImage.draw(fromImage, (26 * factor), (9 * factor), factor, (2 * factor), (101 * factor), (27 * factor));
 
-            g.drawImage(ImageUtils.crop(fromImage, (26 * factor), (9 * factor), (5 * factor), factor), (102 * factor), (26 * factor), null);
+            newImage.draw(fromImage, (26 * factor), (9 * factor), (5 * factor), factor, (102 * factor), (26 * factor));
 
-            g.drawImage(ImageUtils.crop(fromImage, (26 * factor), (9 * factor), factor, (2 * factor)), (107 * factor), (24 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (26 * factor), (9 * factor), factor, (2 * factor)), (107 * factor), (27 * factor), null);
+            newImage.draw(fromImage, (26 * factor), (9 * factor), factor, (2 * factor), (107 * factor), (24 * factor));
+            newImage.draw(fromImage, (26 * factor), (9 * factor), factor, (2 * factor), (107 * factor), (27 * factor));
 
             // Horse
-            g.drawImage(ImageUtils.crop(fromImage, 0, (54 * factor), factor, (10 * factor)), 0, (58 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, 0, (54 * factor), factor, (10 * factor)), factor, (58 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, 0, (54 * factor), (64 * factor), (10 * factor)), (2 * factor), (58 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (62 * factor), (54 * factor), factor, (10 * factor)), (66 * factor), (58 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (62 * factor), (54 * factor), factor, (10 * factor)), (67 * factor), (58 * factor), null);
-
-            g.drawImage(ImageUtils.crop(fromImage, (22 * factor), (32 * factor), (20 * factor), factor), (24 * factor), (34 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (22 * factor), (32 * factor), (20 * factor), (22 * factor)), (24 * factor), (35 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (22 * factor), (53 * factor), (20 * factor), factor), (24 * factor), (57 * factor), null);
-
-            g.drawImage(ImageUtils.crop(fromImage, 0, (35 * factor), (22 * factor), factor), factor, (12 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, 0, (35 * factor), (22 * factor), factor), factor, (13 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, 0, (35 * factor), (22 * factor), (19 * factor)), factor, (14 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (15 * factor), (42 * factor), (7 * factor), factor), (16 * factor), (20 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, 0, (42 * factor), (7 * factor), factor), factor, (20 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, 0, (53 * factor), (22 * factor), factor), factor, (33 * factor), null);
-            g.drawImage(ImageUtils.crop(newImage, factor, (20 * factor), factor, (14 * factor)), 0, (20 * factor), null);
-            g.drawImage(ImageUtils.crop(newImage, (22 * factor), (20 * factor), factor, (14 * factor)), (23 * factor), (20 * factor), null);
-
-            g.drawImage(ImageUtils.crop(fromImage, (48 * factor), (25 * factor), (14 * factor), (8 * factor)), (44 * factor), (33 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (48 * factor), (25 * factor), (14 * factor), (8 * factor)), (60 * factor), (33 * factor), null);
-
-            g.drawImage(ImageUtils.crop(fromImage, (48 * factor), (25 * factor), (16 * factor), (8 * factor)), (79 * factor), (34 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (48 * factor), (32 * factor), (16 * factor), factor), (79 * factor), (42 * factor), null);
-            g.drawImage(ImageUtils.crop(newImage, (79 * factor), (34 * factor), factor, (9 * factor)), (78 * factor), (34 * factor), null);
-            g.drawImage(ImageUtils.crop(newImage, (94 * factor), (34 * factor), factor, (9 * factor)), (95 * factor), (34 * factor), null);
-            g.drawImage(ImageUtils.crop(newImage, (78 * factor), (34 * factor), (18 * factor), (9 * factor)), (96 * factor), (34 * factor), null);
-
-            g.drawImage(ImageUtils.crop(fromImage, (52 * factor), (21 * factor), (8 * factor), (4 * factor)), (48 * factor), (51 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (52 * factor), (21 * factor), (8 * factor), (4 * factor)), (64 * factor), (51 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (52 * factor), (21 * factor), (8 * factor), (4 * factor)), (82 * factor), (51 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (52 * factor), (21 * factor), (8 * factor), (4 * factor)), (100 * factor), (51 * factor), null);
-
-            g.drawImage(ImageUtils.crop(fromImage, (48 * factor), (33 * factor), (16 * factor), (3 * factor)), (44 * factor), (55 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (48 * factor), (33 * factor), (16 * factor), (3 * factor)), (60 * factor), (55 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (48 * factor), (33 * factor), (16 * factor), (3 * factor)), (78 * factor), (55 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (48 * factor), (33 * factor), (16 * factor), (3 * factor)), (96 * factor), (55 * factor), null);
-
-            g.drawImage(ImageUtils.crop(fromImage, 0, (12 * factor), (6 * factor), (8 * factor)), 0, (12 * factor), null);
-
-            g.drawImage(ImageUtils.crop(fromImage, (7 * factor), (13 * factor), (10 * factor), (8 * factor)), (7 * factor), 0, null);
-            g.drawImage(ImageUtils.crop(fromImage, 0, (20 * factor), (9 * factor), (5 * factor)), 0, (7 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (10 * factor), (20 * factor), (14 * factor), (5 * factor)), (9 * factor), (7 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (25 * factor), (20 * factor), factor, (5 * factor)), (23 * factor), (7 * factor), null);
-
-            g.drawImage(ImageUtils.crop(fromImage, 0, (25 * factor), (18 * factor), factor), (25 * factor), (18 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, 0, (25 * factor), (18 * factor), (8 * factor)), (25 * factor), (19 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, 0, (25 * factor), factor, (8 * factor)), (24 * factor), (19 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, 0, (25 * factor), factor, (8 * factor)), (43 * factor), (19 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, 0, (25 * factor), (18 * factor), (5 * factor)), (24 * factor), (27 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, 0, (33 * factor), (18 * factor), (2 * factor)), (24 * factor), (32 * factor), null);
-
-            g.drawImage(ImageUtils.crop(fromImage, (48 * factor), (25 * factor), (6 * factor), (4 * factor)), (48 * factor), (29 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (48 * factor), (25 * factor), (6 * factor), (4 * factor)), (64 * factor), (29 * factor), null);
-            g.drawImage(ImageUtils.crop(newImage, (78 * factor), (34 * factor), (8 * factor), (5 * factor)), (83 * factor), (29 * factor), null);
-            g.drawImage(ImageUtils.crop(newImage, (78 * factor), (34 * factor), (8 * factor), (5 * factor)), (101 * factor), (29 * factor), null);
-
-            g.drawImage(ImageUtils.crop(fromImage, (48 * factor), (25 * factor), (6 * factor), (3 * factor)), (47 * factor), (41 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (48 * factor), (25 * factor), (6 * factor), (3 * factor)), (63 * factor), (41 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (48 * factor), (25 * factor), (6 * factor), (3 * factor)), (81 * factor), (43 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (48 * factor), (25 * factor), (6 * factor), (3 * factor)), (99 * factor), (43 * factor), null);
-
-            g.drawImage(ImageUtils.crop(fromImage, (48 * factor), (25 * factor), (6 * factor), (5 * factor)), (44 * factor), (44 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (48 * factor), (25 * factor), (6 * factor), (5 * factor)), (50 * factor), (44 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (48 * factor), (25 * factor), (6 * factor), (5 * factor)), (60 * factor), (44 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (48 * factor), (25 * factor), (6 * factor), (5 * factor)), (66 * factor), (44 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (48 * factor), (25 * factor), (6 * factor), (5 * factor)), (78 * factor), (46 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (48 * factor), (25 * factor), (6 * factor), (5 * factor)), (84 * factor), (46 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (48 * factor), (25 * factor), (6 * factor), (5 * factor)), (96 * factor), (46 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (48 * factor), (25 * factor), (6 * factor), (5 * factor)), (102 * factor), (46 * factor), null);
-
-            g.drawImage(ImageUtils.crop(fromImage, (48 * factor), (25 * factor), (4 * factor), (3 * factor)), (47 * factor), 0, null);
-            g.drawImage(ImageUtils.crop(newImage, (78 * factor), (34 * factor), factor, (2 * factor)), (44 * factor), (3 * factor), null);
-            g.drawImage(ImageUtils.crop(newImage, (78 * factor), (34 * factor), (8 * factor), (2 * factor)), (45 * factor), (3 * factor), null);
-            g.drawImage(ImageUtils.crop(newImage, (85 * factor), (34 * factor), factor, (2 * factor)), (53 * factor), (3 * factor), null);
-
-            g.drawImage(ImageUtils.crop(fromImage, (42 * factor), (40 * factor), (6 * factor), (7 * factor)), (45 * factor), (7 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (42 * factor), (40 * factor), (10 * factor), (4 * factor)), (38 * factor), (14 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (42 * factor), (40 * factor), (10 * factor), (4 * factor)), (48 * factor), (14 * factor), null);
-
-            g.drawImage(ImageUtils.crop(fromImage, (42 * factor), (40 * factor), (6 * factor), (5 * factor)), (31 * factor), (5 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (42 * factor), (40 * factor), (13 * factor), (4 * factor)), (26 * factor), (10 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (43 * factor), (52 * factor), (2 * factor), (2 * factor)), (39 * factor), (11 * factor), null);
-            g.drawImage(ImageUtils.flip(ImageUtils.crop(fromImage, (43 * factor), (52 * factor), (2 * factor), (2 * factor)), true, false), (24 * factor), (11 * factor), null);
-            g.drawImage(ImageUtils.flip(ImageUtils.flip(ImageUtils.crop(fromImage, (43 * factor), (52 * factor), (2 * factor), (2 * factor)), true, false), false, true), (31 * factor), (3 * factor), null);
-            g.drawImage(ImageUtils.flip(ImageUtils.flip(ImageUtils.crop(fromImage, (43 * factor), (52 * factor), (2 * factor), (2 * factor)), true, false), false, true), (34 * factor), (3 * factor), null);
-
-            g.drawImage(ImageUtils.crop(fromImage, (19 * factor), (16 * factor), (6 * factor), (4 * factor)), 0, 0, null);
-
-            ImageUtils.write(newImage, "png", storage.resolve(to).toFile());
+            newImage.draw(fromImage, 0, (54 * factor), factor, (10 * factor), 0, (58 * factor));
+            newImage.draw(fromImage, 0, (54 * factor), factor, (10 * factor), factor, (58 * factor));
+            newImage.draw(fromImage, 0, (54 * factor), (64 * factor), (10 * factor), (2 * factor), (58 * factor));
+            newImage.draw(fromImage, (62 * factor), (54 * factor), factor, (10 * factor), (66 * factor), (58 * factor));
+            newImage.draw(fromImage, (62 * factor), (54 * factor), factor, (10 * factor), (67 * factor), (58 * factor));
+
+            newImage.draw(fromImage, (22 * factor), (32 * factor), (20 * factor), factor, (24 * factor), (34 * factor));
+            newImage.draw(fromImage, (22 * factor), (32 * factor), (20 * factor), (22 * factor), (24 * factor), (35 * factor));
+            newImage.draw(fromImage, (22 * factor), (53 * factor), (20 * factor), factor, (24 * factor), (57 * factor));
+
+            newImage.draw(fromImage, 0, (35 * factor), (22 * factor), factor, factor, (12 * factor));
+            newImage.draw(fromImage, 0, (35 * factor), (22 * factor), factor, factor, (13 * factor));
+            newImage.draw(fromImage, 0, (35 * factor), (22 * factor), (19 * factor), factor, (14 * factor));
+            newImage.draw(fromImage, (15 * factor), (42 * factor), (7 * factor), factor, (16 * factor), (20 * factor));
+            newImage.draw(fromImage, 0, (42 * factor), (7 * factor), factor, factor, (20 * factor));
+            newImage.draw(fromImage, 0, (53 * factor), (22 * factor), factor, factor, (33 * factor));
+            newImage.draw(newImage, factor, (20 * factor), factor, (14 * factor), 0, (20 * factor));
+            newImage.draw(newImage, (22 * factor), (20 * factor), factor, (14 * factor), (23 * factor), (20 * factor));
+
+            newImage.draw(fromImage, (48 * factor), (25 * factor), (14 * factor), (8 * factor), (44 * factor), (33 * factor));
+            newImage.draw(fromImage, (48 * factor), (25 * factor), (14 * factor), (8 * factor), (60 * factor), (33 * factor));
+
+            newImage.draw(fromImage, (48 * factor), (25 * factor), (16 * factor), (8 * factor), (79 * factor), (34 * factor));
+            newImage.draw(fromImage, (48 * factor), (32 * factor), (16 * factor), factor, (79 * factor), (42 * factor));
+            newImage.draw(newImage, (79 * factor), (34 * factor), factor, (9 * factor), (78 * factor), (34 * factor));
+            newImage.draw(newImage, (94 * factor), (34 * factor), factor, (9 * factor), (95 * factor), (34 * factor));
+            newImage.draw(newImage, (78 * factor), (34 * factor), (18 * factor), (9 * factor), (96 * factor), (34 * factor));
+
+            newImage.draw(fromImage, (52 * factor), (21 * factor), (8 * factor), (4 * factor), (48 * factor), (51 * factor));
+            newImage.draw(fromImage, (52 * factor), (21 * factor), (8 * factor), (4 * factor), (64 * factor), (51 * factor));
+            newImage.draw(fromImage, (52 * factor), (21 * factor), (8 * factor), (4 * factor), (82 * factor), (51 * factor));
+            newImage.draw(fromImage, (52 * factor), (21 * factor), (8 * factor), (4 * factor), (100 * factor), (51 * factor));
+
+            newImage.draw(fromImage, (48 * factor), (33 * factor), (16 * factor), (3 * factor), (44 * factor), (55 * factor));
+            newImage.draw(fromImage, (48 * factor), (33 * factor), (16 * factor), (3 * factor), (60 * factor), (55 * factor));
+            newImage.draw(fromImage, (48 * factor), (33 * factor), (16 * factor), (3 * factor), (78 * factor), (55 * factor));
+            newImage.draw(fromImage, (48 * factor), (33 * factor), (16 * factor), (3 * factor), (96 * factor), (55 * factor));
+
+            newImage.draw(fromImage, 0, (12 * factor), (6 * factor), (8 * factor), 0, (12 * factor));
+
+            newImage.draw(fromImage, (7 * factor), (13 * factor), (10 * factor), (8 * factor), (7 * factor), 0);
+            newImage.draw(fromImage, 0, (20 * factor), (9 * factor), (5 * factor), 0, (7 * factor));
+            newImage.draw(fromImage, (10 * factor), (20 * factor), (14 * factor), (5 * factor), (9 * factor), (7 * factor));
+            newImage.draw(fromImage, (25 * factor), (20 * factor), factor, (5 * factor), (23 * factor), (7 * factor));
+
+            newImage.draw(fromImage, 0, (25 * factor), (18 * factor), factor, (25 * factor), (18 * factor));
+            newImage.draw(fromImage, 0, (25 * factor), (18 * factor), (8 * factor), (25 * factor), (19 * factor));
+            newImage.draw(fromImage, 0, (25 * factor), factor, (8 * factor), (24 * factor), (19 * factor));
+            newImage.draw(fromImage, 0, (25 * factor), factor, (8 * factor), (43 * factor), (19 * factor));
+            newImage.draw(fromImage, 0, (25 * factor), (18 * factor), (5 * factor), (24 * factor), (27 * factor));
+            newImage.draw(fromImage, 0, (33 * factor), (18 * factor), (2 * factor), (24 * factor), (32 * factor));
+
+            newImage.draw(fromImage, (48 * factor), (25 * factor), (6 * factor), (4 * factor), (48 * factor), (29 * factor));
+            newImage.draw(fromImage, (48 * factor), (25 * factor), (6 * factor), (4 * factor), (64 * factor), (29 * factor));
+            newImage.draw(newImage, (78 * factor), (34 * factor), (8 * factor), (5 * factor), (83 * factor), (29 * factor));
+            newImage.draw(newImage, (78 * factor), (34 * factor), (8 * factor), (5 * factor), (101 * factor), (29 * factor));
+
+            newImage.draw(fromImage, (48 * factor), (25 * factor), (6 * factor), (3 * factor), (47 * factor), (41 * factor));
+            newImage.draw(fromImage, (48 * factor), (25 * factor), (6 * factor), (3 * factor), (63 * factor), (41 * factor));
+            newImage.draw(fromImage, (48 * factor), (25 * factor), (6 * factor), (3 * factor), (81 * factor), (43 * factor));
+            newImage.draw(fromImage, (48 * factor), (25 * factor), (6 * factor), (3 * factor), (99 * factor), (43 * factor));
+
+            newImage.draw(fromImage, (48 * factor), (25 * factor), (6 * factor), (5 * factor), (44 * factor), (44 * factor));
+            newImage.draw(fromImage, (48 * factor), (25 * factor), (6 * factor), (5 * factor), (50 * factor), (44 * factor));
+            newImage.draw(fromImage, (48 * factor), (25 * factor), (6 * factor), (5 * factor), (60 * factor), (44 * factor));
+            newImage.draw(fromImage, (48 * factor), (25 * factor), (6 * factor), (5 * factor), (66 * factor), (44 * factor));
+            newImage.draw(fromImage, (48 * factor), (25 * factor), (6 * factor), (5 * factor), (78 * factor), (46 * factor));
+            newImage.draw(fromImage, (48 * factor), (25 * factor), (6 * factor), (5 * factor), (84 * factor), (46 * factor));
+            newImage.draw(fromImage, (48 * factor), (25 * factor), (6 * factor), (5 * factor), (96 * factor), (46 * factor));
+            newImage.draw(fromImage, (48 * factor), (25 * factor), (6 * factor), (5 * factor), (102 * factor), (46 * factor));
+
+            newImage.draw(fromImage, (48 * factor), (25 * factor), (4 * factor), (3 * factor), (47 * factor), 0);
+            newImage.draw(newImage, (78 * factor), (34 * factor), factor, (2 * factor), (44 * factor), (3 * factor));
+            newImage.draw(newImage, (78 * factor), (34 * factor), (8 * factor), (2 * factor), (45 * factor), (3 * factor));
+            newImage.draw(newImage, (85 * factor), (34 * factor), factor, (2 * factor), (53 * factor), (3 * factor));
+
+            newImage.draw(fromImage, (42 * factor), (40 * factor), (6 * factor), (7 * factor), (45 * factor), (7 * factor));
+            newImage.draw(fromImage, (42 * factor), (40 * factor), (10 * factor), (4 * factor), (38 * factor), (14 * factor));
+            newImage.draw(fromImage, (42 * factor), (40 * factor), (10 * factor), (4 * factor), (48 * factor), (14 * factor));
+
+            newImage.draw(fromImage, (42 * factor), (40 * factor), (6 * factor), (5 * factor), (31 * factor), (5 * factor));
+            newImage.draw(fromImage, (42 * factor), (40 * factor), (13 * factor), (4 * factor), (26 * factor), (10 * factor));
+            newImage.draw(fromImage, (43 * factor), (52 * factor), (2 * factor), (2 * factor), (39 * factor), (11 * factor));
+            newImage.draw(fromImage.crop((43 * factor), (52 * factor), (2 * factor), (2 * factor)).flip(true, false), (24 * factor), (11 * factor));
+            newImage.draw(fromImage.crop((43 * factor), (52 * factor), (2 * factor), (2 * factor)).flip(true, true), (31 * factor), (3 * factor));
+            newImage.draw(fromImage.crop((43 * factor), (52 * factor), (2 * factor), (2 * factor)).flip(true, true), (34 * factor), (3 * factor));
+
+            newImage.draw(fromImage, (19 * factor), (16 * factor), (6 * factor), (4 * factor), 0, 0);
+
+            newImage.write("png", storage.resolve(to).toFile());
         } catch (IOException e) { }
 
         return delete;
@@ -31,11 +31,10 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
-import org.geysermc.packconverter.api.utils.ImageUtils;
+import org.geysermc.packconverter.api.utils.PixelBuffer;
 
 import javax.imageio.ImageIO;
 import java.awt.*;
-import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
@@ -253,8 +252,10 @@ public class NineSliceConverter extends AbstractConverter {
                 return new ArrayList<>();
             }
             
-            BufferedImage fromImage = ImageIO.read(fromFile);
-            fromImage = ImageUtils.ensureMinWidth(fromImage, factorDetect);
+            PixelBuffer fromImage = PixelBuffer.of(ImageIO.read(fromFile));
+            if (fromImage.getWidth() < factorDetect) {
+                fromImage = fromImage.scale((float) factorDetect / fromImage.getWidth());
+            }
 
             int factor = (fromImage.getWidth() / factorDetect);
 
@@ -269,7 +270,7 @@ public class NineSliceConverter extends AbstractConverter {
                 int size = (int) buttonArr[4];
                 String[] tos = (String[]) buttonArr[5];
 
-                BufferedImage toImage = ImageUtils.crop(fromImage, (x * factor), (y * factor), (width * factor), (height * factor));
+                PixelBuffer toImage = fromImage.crop((x * factor), (y * factor), (width * factor), (height * factor));
 
                 // image.autoCropTransparent();
 
@@ -278,18 +279,18 @@ public class NineSliceConverter extends AbstractConverter {
                 for (String toPath : tos) {
                     packConverter.log(String.format("Convert button %s (Experimental)", toPath));
 
-                    ImageUtils.write(toImage, "png", storage.resolve(toPath + ".png").toFile());
+                    toImage.write("png", storage.resolve(toPath + ".png").toFile());
 
                     mapper.writeValue(storage.resolve(toPath + ".json").toFile(), metadata);
                 }
             }
             
-            BufferedImage transparentImage = new BufferedImage(factor, factor, BufferedImage.TYPE_INT_ARGB);
+            PixelBuffer transparentImage = new PixelBuffer(factor, factor);
             JsonNode metadata = mapper.readTree("{nineslice_size: 0, base_size: [1, 1]}");
             for (String border : borders) {
                 packConverter.log(String.format("Convert button %s (Experimental)", border));
 
-                ImageUtils.write(transparentImage, "png", storage.resolve(border + ".png").toFile());
+                transparentImage.write("png", storage.resolve(border + ".png").toFile());
 
                 mapper.writeValue(storage.resolve(border + ".json").toFile(), metadata);
             }
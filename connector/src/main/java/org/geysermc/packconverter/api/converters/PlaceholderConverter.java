@@ -37,6 +37,8 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 public class PlaceholderConverter extends AbstractConverter {
@@ -194,4 +196,14 @@ public class PlaceholderConverter extends AbstractConverter {
 
         return new ArrayList<>();
     }
+
+    @Override
+    public Collection<String> getReadPaths() {
+        return Collections.singletonList((String) this.data[0]);
+    }
+
+    @Override
+    public Collection<String> getWritePaths() {
+        return Collections.singletonList((String) this.data[6]);
+    }
 }
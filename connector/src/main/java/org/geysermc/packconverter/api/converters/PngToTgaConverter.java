@@ -37,6 +37,8 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 public class PngToTgaConverter extends AbstractConverter {
@@ -227,4 +229,15 @@ public class PngToTgaConverter extends AbstractConverter {
 
         return delete;
     }
+
+    @Override
+    public Collection<String> getReadPaths() {
+        return Collections.singletonList((String) this.data[0]);
+    }
+
+    @Override
+    public Collection<String> getWritePaths() {
+        // The png is deleted by a separate DeleteConverter afterwards
+        return Collections.singletonList((String) this.data[1]);
+    }
 }
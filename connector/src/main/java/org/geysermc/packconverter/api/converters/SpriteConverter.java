@@ -28,11 +28,9 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
-import org.geysermc.packconverter.api.utils.ImageUtils;
+import org.geysermc.packconverter.api.utils.PixelBuffer;
 
 import javax.imageio.ImageIO;
-import java.awt.*;
-import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
@@ -286,14 +284,14 @@ public class SpriteConverter extends AbstractConverter {
 
             File toFile = storage.resolve(to).toFile();
 
-            BufferedImage newImage = null;
+            PixelBuffer newImage = null;
             int factor = 0;
             List<String> missingSprites = new ArrayList<>();
 
             if (toFile.exists()) {
                 packConverter.log(String.format("Convert sprite %s", to));
 
-                newImage = ImageIO.read(toFile); // Load already exists sprites image - Some texture packs have may a mix with sprites (1.13) and separate images (1.14)
+                newImage = PixelBuffer.of(ImageIO.read(toFile)); // Load already exists sprites image - Some texture packs have may a mix with sprites (1.13) and separate images (1.14)
 
                 factor = (newImage.getWidth() / width);
             }
@@ -312,7 +310,7 @@ public class SpriteConverter extends AbstractConverter {
                     continue;
                 }
 
-                BufferedImage imageSprite = ImageIO.read(spriteFile);
+                PixelBuffer imageSprite = PixelBuffer.of(ImageIO.read(spriteFile));
 
                 if (factor == 0) {
                     factor = (imageSprite.getWidth() / factorDetect * additional_factor); // Take the factor of the first image
@@ -321,17 +319,14 @@ public class SpriteConverter extends AbstractConverter {
                 if (newImage == null) {
                     packConverter.log(String.format("Create sprite %s", to));
 
-                    newImage = new BufferedImage((width * factor), (height * factor), BufferedImage.TYPE_INT_ARGB);
+                    newImage = new PixelBuffer((width * factor), (height * factor));
                 }
 
-                BufferedImage imageSpritedScaled = ImageUtils.scale(imageSprite, ((factorDetect * factor) / imageSprite.getWidth()));
+                PixelBuffer imageSpritedScaled = imageSprite.scale(((factorDetect * factor) / imageSprite.getWidth()));
 
-                Graphics g = newImage.getGraphics();
+                newImage.clear((x * factor), (y * factor), imageSpritedScaled.getWidth(), imageSpritedScaled.getHeight()); // Delete previous area, if the sprite already exists
 
-                g.setColor(new Color(Color.TRANSLUCENT, true));
-                g.fillRect((x * factor), (y * factor), imageSpritedScaled.getWidth(), imageSpritedScaled.getHeight()); // Delete previous area, if the sprite already exists
-
-                g.drawImage(imageSpritedScaled, (x * factor), (y * factor), null);
+                newImage.draw(imageSpritedScaled, (x * factor), (y * factor));
 
                 delete.add(new DeleteConverter(packConverter, storage, new Object[] {spritePath},null));
             }
@@ -341,7 +336,7 @@ public class SpriteConverter extends AbstractConverter {
                     packConverter.log(String.format("Missing texture %s - May used a transparent image", sprite));
                 }
 
-                ImageUtils.write(newImage, "png", storage.resolve(to).toFile());
+                newImage.write("png", storage.resolve(to).toFile());
             }
         } catch (IOException e) { }
 
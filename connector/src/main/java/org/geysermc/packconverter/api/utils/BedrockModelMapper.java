@@ -0,0 +1,728 @@
+/*
+ * Copyright (c) 2019-2020 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.packconverter.api.utils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.node.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.*;
+
+/**
+ * Maps Java block models to Bedrock geometry, animations and attachables directly on the Jackson tree.
+ * The output matches the JQ filters in {@link CustomModelDataHandler}, which are only used as a fallback
+ * when a model has a shape this doesn't handle.
+ */
+public class BedrockModelMapper {
+    private static final JsonNodeFactory FACTORY = JsonNodeFactory.instance;
+    private static final String[] FACES = {"north", "south", "east", "west", "up", "down"};
+
+    /**
+     * Create the Bedrock geometry of a Java model
+     *
+     * @param model Java model to use
+     * @param name Name of the item the model belongs to
+     * @return The geometry
+     * @throws IllegalArgumentException if the model is missing something the geometry needs
+     */
+    public static ObjectNode geometry(JsonNode model, String name) {
+        JsonNode textures = model.get("textures");
+        if (textures == null || !textures.isObject() || textures.size() == 0) {
+            throw new IllegalArgumentException("Model has no textures");
+        }
+        List<String> textureArray = new ArrayList<>();
+        textures.fieldNames().forEachRemaining(textureArray::add);
+        Collections.sort(textureArray);
+        int sides = (int) Math.ceil(Math.sqrt(textureArray.size()));
+
+        JsonNode elements = model.get("elements");
+        if (elements == null || !elements.isArray()) {
+            throw new IllegalArgumentException("Model has no elements");
+        }
+
+        List<ObjectNode> cubes = new ArrayList<>(elements.size());
+        for (JsonNode element : elements) {
+            cubes.add(cube(element, textureArray, sides));
+        }
+
+        ObjectNode geometry = FACTORY.objectNode();
+        geometry.put("format_version", "1.16.0");
+        ObjectNode geometryEntry = geometry.putArray("minecraft:geometry").addObject();
+        ObjectNode description = geometryEntry.putObject("description");
+        description.put("identifier", "geometry.geysermc." + name);
+        description.put("texture_width", 16);
+        description.put("texture_height", 16);
+        description.put("visible_bounds_width", 4);
+        description.put("visible_bounds_height", 4.5);
+        description.set("visible_bounds_offset", array(number(0), number(0.75), number(0)));
+
+        ArrayNode bones = geometryEntry.putArray("bones");
+        ObjectNode root = bones.addObject();
+        root.put("name", "geysermc");
+        root.put("binding", "c.item_slot == 'head' ? 'head' : q.item_slot_to_bone_name(c.item_slot)");
+        root.set("pivot", array(number(0), number(8), number(0)));
+        ObjectNode bone = root;
+        for (String boneName : new String[] {"geysermc_x", "geysermc_y", "geysermc_z"}) {
+            String parent = bone.get("name").asText();
+            bone = bones.addObject();
+            bone.put("name", boneName);
+            bone.put("parent", parent);
+            bone.set("pivot", array(number(0), number(8), number(0)));
+        }
+        ArrayNode rootCubes = bone.putArray("cubes");
+        for (ObjectNode cube : cubes) {
+            if (!cube.has("rotation")) {
+                rootCubes.add(cube);
+            }
+        }
+
+        // Every distinct rotation gets its own bone, in the same order as JQ's unique
+        List<JsonNode> rotations = new ArrayList<>();
+        for (JsonNode element : elements) {
+            JsonNode rotation = element.get("rotation");
+            if (rotation != null && !rotation.isNull()) {
+                rotations.add(rotation);
+            }
+        }
+        rotations.sort(BedrockModelMapper::compare);
+
+        JsonNode previous = null;
+        int groups = 0;
+        for (JsonNode rotation : rotations) {
+            if (previous != null && compare(previous, rotation) == 0) {
+                continue;
+            }
+            previous = rotation;
+
+            JsonNode origin = rotation.path("origin");
+            ArrayNode pivot = array(number(8 - toNumber(origin.get(0))), copy(origin.get(1)), number(toNumber(origin.get(2)) - 8));
+            double angle = parseNumber(rotation.get("angle"));
+            String axis = rotation.path("axis").asText();
+            ArrayNode groupRotation = axis.equals("x") ? array(number(-angle), number(0), number(0))
+                    : axis.equals("y") ? array(number(0), number(-angle), number(0))
+                    : array(number(0), number(0), number(angle));
+
+            ObjectNode group = bones.addObject();
+            group.put("parent", "geysermc_z");
+            group.set("pivot", pivot);
+            group.set("rotation", groupRotation);
+            group.put("mirror", true);
+            ArrayNode groupCubes = group.putArray("cubes");
+            for (ObjectNode cube : cubes) {
+                if (equals(cube.get("rotation"), groupRotation) && equals(cube.get("pivot"), pivot)) {
+                    ObjectNode groupCube = cube.deepCopy();
+                    groupCube.remove("rotation");
+                    groupCubes.add(groupCube);
+                }
+            }
+            group.put("name", "rot_" + (++groups));
+        }
+
+        return geometry;
+    }
+
+    private static ObjectNode cube(JsonNode element, List<String> textureArray, int sides) {
+        JsonNode from = element.path("from");
+        JsonNode to = element.path("to");
+
+        ObjectNode cube = FACTORY.objectNode();
+        cube.set("origin", array(number(8 - toNumber(to.get(0))), copy(from.get(1)), number(toNumber(from.get(2)) - 8)));
+        cube.set("size", array(number(toNumber(to.get(0)) - toNumber(from.get(0))),
+                number(toNumber(to.get(1)) - toNumber(from.get(1))),
+                number(toNumber(to.get(2)) - toNumber(from.get(2)))));
+
+        JsonNode rotation = element.path("rotation");
+        String axis = rotation.path("axis").asText();
+        switch (axis) {
+            case "x" -> cube.set("rotation", array(number(-parseNumber(rotation.get("angle"))), number(0), number(0)));
+            case "y" -> cube.set("rotation", array(number(0), number(-parseNumber(rotation.get("angle"))), number(0)));
+            case "z" -> cube.set("rotation", array(number(0), number(0), number(parseNumber(rotation.get("angle")))));
+        }
+        JsonNode origin = rotation.get("origin");
+        if (isTruthy(origin)) {
+            cube.set("pivot", array(number(8 - toNumber(origin.get(0))), copy(origin.get(1)), number(toNumber(origin.get(2)) - 8)));
+        }
+
+        ObjectNode uv = cube.putObject("uv");
+        JsonNode faces = element.path("faces");
+        for (String faceName : FACES) {
+            JsonNode face = faces.get(faceName);
+            if (!isTruthy(face)) {
+                continue;
+            }
+
+            JsonNode texture = face.get("texture");
+            int position = texture != null && texture.isTextual() ? textureArray.indexOf(texture.asText().substring(Math.min(1, texture.asText().length()))) : -1;
+            if (position == -1) {
+                position = textureArray.indexOf("particle");
+            }
+            if (position == -1) {
+                throw new IllegalArgumentException("Face " + faceName + " has no known texture");
+            }
+
+            JsonNode faceUv = face.get("uv");
+            double offsetX = (position % sides) * (16d / sides);
+            double offsetY = Math.floor((double) position / sides) * (16d / sides);
+            double u0 = toNumber(faceUv.get(0)) / sides + offsetX;
+            double v0 = toNumber(faceUv.get(1)) / sides + offsetY;
+            double u1 = toNumber(faceUv.get(2)) / sides + offsetX;
+            double v1 = toNumber(faceUv.get(3)) / sides + offsetY;
+
+            ObjectNode faceNode = uv.putObject(faceName);
+            faceNode.set("uv", array(number(u0), number(v0)));
+            faceNode.set("uv_size", array(number(u1 - u0), number(v1 - v0)));
+        }
+
+        return cube;
+    }
+
+    /**
+     * Create the Bedrock animations of a Java model's display settings
+     *
+     * @param model Java model to use
+     * @param name Name of the item the model belongs to
+     * @return The animations
+     * @throws IllegalArgumentException if a display setting has an unexpected value
+     */
+    public static ObjectNode animations(JsonNode model, String name) {
+        JsonNode display = model.path("display");
+
+        ObjectNode animations = FACTORY.objectNode();
+        animations.put("format_version", "1.8.0");
+        ObjectNode animationsNode = animations.putObject("animations");
+
+        animationsNode.set("animation.geysermc." + name + ".thirdperson_main_hand", thirdPerson(display.path("thirdperson_righthand")));
+        animationsNode.set("animation.geysermc." + name + ".thirdperson_off_hand", thirdPerson(display.path("thirdperson_lefthand")));
+
+        JsonNode head = display.path("head");
+        ObjectNode headBones = animation(animationsNode, "animation.geysermc." + name + ".head");
+        ObjectNode headX = headBones.putObject("geysermc_x");
+        headX.set("rotation", isTruthy(head.get("rotation")) ? array(negate(head.get("rotation").get(0)), number(0), number(0)) : null);
+        headX.set("position", isTruthy(head.get("translation")) ? array(number(-toNumber(head.get("translation").get(0)) * 0.625),
+                number(toNumber(head.get("translation").get(1)) * 0.625), number(toNumber(head.get("translation").get(2)) * 0.625)) : null);
+        if (isTruthy(head.get("scale"))) {
+            if (!head.get("scale").isArray()) {
+                throw new IllegalArgumentException("Head scale is not an array");
+            }
+            ArrayNode scale = headX.putArray("scale");
+            for (JsonNode value : head.get("scale")) {
+                scale.add(number(toNumber(value) * 0.625));
+            }
+        } else {
+            headX.put("scale", 0.625);
+        }
+        headBones.set("geysermc_y", isTruthy(head.get("rotation")) ? rotationBone(number(0), negate(head.get("rotation").get(1)), number(0)) : null);
+        headBones.set("geysermc_z", isTruthy(head.get("rotation")) ? rotationBone(number(0), number(0), copy(head.get("rotation").get(2))) : null);
+        headBones.putObject("geysermc").set("position", array(number(0), number(19.5), number(0)));
+
+        firstPerson(animation(animationsNode, "animation.geysermc." + name + ".firstperson_main_hand"), display.path("firstperson_righthand"), true);
+        firstPerson(animation(animationsNode, "animation.geysermc." + name + ".firstperson_off_hand"), display.path("firstperson_lefthand"), false);
+
+        removeNullFields(animations);
+        return animations;
+    }
+
+    private static ObjectNode animation(ObjectNode animations, String name) {
+        ObjectNode animation = animations.putObject(name);
+        animation.put("loop", true);
+        return animation.putObject("bones");
+    }
+
+    private static ObjectNode thirdPerson(JsonNode display) {
+        ObjectNode animation = FACTORY.objectNode();
+        animation.put("loop", true);
+        ObjectNode bones = animation.putObject("bones");
+
+        JsonNode rotation = display.get("rotation");
+        if (isTruthy(display)) {
+            ObjectNode x = bones.putObject("geysermc_x");
+            x.set("rotation", isTruthy(rotation) ? array(negate(rotation.get(0)), number(0), number(0)) : null);
+            JsonNode translation = display.get("translation");
+            x.set("position", isTruthy(translation) ? array(negate(translation.get(0)), copy(translation.get(1)), copy(translation.get(2))) : null);
+            JsonNode scale = display.get("scale");
+            x.set("scale", isTruthy(scale) ? array(copy(scale.get(0)), copy(scale.get(1)), copy(scale.get(2))) : null);
+        } else {
+            bones.set("geysermc_x", null);
+        }
+        bones.set("geysermc_y", isTruthy(rotation) ? rotationBone(number(0), negate(rotation.get(1)), number(0)) : null);
+        bones.set("geysermc_z", isTruthy(rotation) ? rotationBone(number(0), number(0), copy(rotation.get(2))) : null);
+        ObjectNode root = bones.putObject("geysermc");
+        root.set("rotation", array(number(90), number(0), number(0)));
+        root.set("position", array(number(0), number(13), number(-3)));
+
+        return animation;
+    }
+
+    private static void firstPerson(ObjectNode bones, JsonNode display, boolean mainHand) {
+        ObjectNode root = bones.putObject("geysermc");
+        root.set("rotation", array(number(90), number(60), number(-40)));
+        root.set("position", array(number(4), number(10), number(4)));
+        root.put("scale", 1.5);
+
+        ObjectNode x = bones.putObject("geysermc_x");
+        JsonNode translation = display.get("translation");
+        x.set("position", isTruthy(translation)
+                ? array(mainHand ? negate(translation.get(0)) : copy(translation.get(0)), copy(translation.get(1)), negate(translation.get(2))) : null);
+        JsonNode rotation = display.get("rotation");
+        x.set("rotation", isTruthy(rotation) ? array(negate(rotation.get(0)), number(0), number(0)) : array(number(0.1), number(0.1), number(0.1)));
+        JsonNode scale = display.get("scale");
+        x.set("scale", isTruthy(scale) ? copy(scale) : null);
+
+        bones.set("geysermc_y", isTruthy(rotation) ? rotationBone(number(0), negate(rotation.get(1)), number(0)) : null);
+        bones.set("geysermc_z", isTruthy(rotation) ? rotationBone(number(0), number(0), copy(rotation.get(2))) : null);
+    }
+
+    private static ObjectNode rotationBone(JsonNode x, JsonNode y, JsonNode z) {
+        ObjectNode bone = FACTORY.objectNode();
+        bone.set("rotation", array(x, y, z));
+        return bone;
+    }
+
+    /**
+     * Create the Bedrock attachable that links an item to its geometry and animations
+     *
+     * @param name Name of the item
+     * @param texture Texture of the item, relative to the textures folder
+     * @return The attachable
+     */
+    public static ObjectNode attachable(String name, String texture) {
+        ObjectNode attachable = FACTORY.objectNode();
+        attachable.put("format_version", "1.10.0");
+        ObjectNode description = attachable.putObject("minecraft:attachable").putObject("description");
+        description.put("identifier", "geysermc:" + name);
+
+        ObjectNode materials = description.putObject("materials");
+        materials.put("default", "entity_alphatest");
+        materials.put("enchanted", "entity_alphatest");
+
+        ObjectNode textures = description.putObject("textures");
+        textures.put("default", "textures/" + texture);
+        textures.put("enchanted", "textures/misc/enchanted_item_glint.png");
+
+        description.putObject("geometry").put("default", "geometry.geysermc." + name);
+
+        ObjectNode scripts = description.putObject("scripts");
+        scripts.putArray("pre_animation")
+                .add("v.main_hand = c.item_slot == 'main_hand';")
+                .add("v.off_hand = c.item_slot == 'off_hand';")
+                .add("v.head = c.item_slot == 'head';");
+        ArrayNode animate = scripts.putArray("animate");
+        animate.addObject().put("thirdperson_main_hand", "v.main_hand && !c.is_first_person");
+        animate.addObject().put("thirdperson_off_hand", "v.off_hand && !c.is_first_person");
+        animate.addObject().put("thirdperson_head", "v.head && !c.is_first_person");
+        animate.addObject().put("firstperson_main_hand", "v.main_hand && c.is_first_person");
+        animate.addObject().put("firstperson_off_hand", "v.off_hand && c.is_first_person");
+        animate.addObject().put("firstperson_head", "c.is_first_person && v.head");
+
+        ObjectNode animations = description.putObject("animations");
+        animations.put("thirdperson_main_hand", "animation.geysermc." + name + ".thirdperson_main_hand");
+        animations.put("thirdperson_off_hand", "animation.geysermc." + name + ".thirdperson_off_hand");
+        animations.put("thirdperson_head", "animation.geysermc." + name + ".head");
+        animations.put("firstperson_main_hand", "animation.geysermc." + name + ".firstperson_main_hand");
+        animations.put("firstperson_off_hand", "animation.geysermc." + name + ".firstperson_off_hand");
+        animations.put("firstperson_head", "animation.geysermc.disable");
+
+        description.putArray("render_controllers").add("controller.render.item_default");
+
+        return attachable;
+    }
+
+    /**
+     * Remove all fields with a null value, the same as JQ's
+     * {@code walk(if type == "object" then with_entries(select(.value != null)) else . end)}
+     */
+    private static void removeNullFields(JsonNode node) {
+        if (node.isObject()) {
+            Iterator<JsonNode> values = node.elements();
+            while (values.hasNext()) {
+                JsonNode value = values.next();
+                if (value.isNull()) {
+                    values.remove();
+                } else {
+                    removeNullFields(value);
+                }
+            }
+        } else if (node.isArray()) {
+            for (JsonNode value : node) {
+                removeNullFields(value);
+            }
+        }
+    }
+
+    /**
+     * @return false for missing, null and false values, like JQ's conditionals
+     */
+    private static boolean isTruthy(JsonNode node) {
+        return node != null && !node.isNull() && !node.isMissingNode() && !(node.isBoolean() && !node.booleanValue());
+    }
+
+    private static double toNumber(JsonNode node) {
+        if (node == null || !node.isNumber()) {
+            throw new IllegalArgumentException("Expected a number but got " + node);
+        }
+        return node.doubleValue();
+    }
+
+    /**
+     * Get a number from a node, parsing strings the same way as JQ's tonumber
+     */
+    private static double parseNumber(JsonNode node) {
+        if (node != null && node.isTextual()) {
+            return Double.parseDouble(node.asText());
+        }
+        return toNumber(node);
+    }
+
+    private static JsonNode negate(JsonNode node) {
+        if (node == null || !node.isNumber()) {
+            throw new IllegalArgumentException("Expected a number but got " + node);
+        }
+        return number(-node.doubleValue());
+    }
+
+    /**
+     * Whole numbers are written without a fraction, as JQ does
+     */
+    private static JsonNode number(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < Integer.MAX_VALUE && !isNegativeZero(value)) {
+            return FACTORY.numberNode((int) value);
+        }
+        return new JqNumberNode(value);
+    }
+
+    private static boolean isNegativeZero(double value) {
+        return value == 0 && Double.doubleToRawLongBits(value) != 0;
+    }
+
+    /**
+     * Format a number the same way as JQ 1.6: the shortest digits that read back as the same double, written with
+     * an exponent if the decimal point is at least four places before them or more than 15 places after them
+     *
+     * @param value Number to format
+     * @return The number as JQ prints it, e.g. 1e-05 where Jackson would write 1.0E-5
+     */
+    static String formatNumber(double value) {
+        if (value == 0) {
+            return isNegativeZero(value) ? "-0" : "0";
+        }
+
+        double absolute = Math.abs(value);
+        BigDecimal exact = new BigDecimal(absolute);
+        BigDecimal shortest = exact;
+        for (int precision = 1; precision < 17; precision++) {
+            BigDecimal rounded = exact.round(new MathContext(precision, RoundingMode.HALF_EVEN));
+            if (rounded.doubleValue() == absolute) {
+                shortest = rounded;
+                break;
+            }
+        }
+        shortest = shortest.round(new MathContext(17, RoundingMode.HALF_EVEN)).stripTrailingZeros();
+        String digits = shortest.unscaledValue().toString();
+        // Where the decimal point goes relative to the first digit
+        int decimalPoint = digits.length() - shortest.scale();
+
+        StringBuilder builder = new StringBuilder();
+        if (value < 0) {
+            builder.append('-');
+        }
+        if (decimalPoint <= -4 || decimalPoint > digits.length() + 15) {
+            builder.append(digits.charAt(0));
+            if (digits.length() > 1) {
+                builder.append('.').append(digits, 1, digits.length());
+            }
+            int exponent = decimalPoint - 1;
+            builder.append('e').append(exponent < 0 ? '-' : '+');
+            if (Math.abs(exponent) < 10) {
+                builder.append('0');
+            }
+            builder.append(Math.abs(exponent));
+        } else if (decimalPoint <= 0) {
+            builder.append("0.").append("0".repeat(-decimalPoint)).append(digits);
+        } else if (decimalPoint >= digits.length()) {
+            builder.append(digits).append("0".repeat(decimalPoint - digits.length()));
+        } else {
+            builder.append(digits, 0, decimalPoint).append('.').append(digits, decimalPoint, digits.length());
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Read JQ's output, keeping its numbers written the way JQ printed them.
+     * This reads the text of each number itself, as Jackson's tree would turn -0 into 0.
+     *
+     * @param factory Factory to create the parser with
+     * @param json JQ's output
+     * @return The tree
+     * @throws IOException if the output is not valid JSON
+     */
+    public static JsonNode readWithJqNumbers(JsonFactory factory, String json) throws IOException {
+        try (JsonParser parser = factory.createParser(json)) {
+            if (parser.nextToken() == null) {
+                throw new IOException("JQ returned no output");
+            }
+            return readWithJqNumbers(parser);
+        }
+    }
+
+    private static JsonNode readWithJqNumbers(JsonParser parser) throws IOException {
+        switch (parser.currentToken()) {
+            case START_OBJECT -> {
+                ObjectNode object = FACTORY.objectNode();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    parser.nextToken();
+                    object.set(field, readWithJqNumbers(parser));
+                }
+                return object;
+            }
+            case START_ARRAY -> {
+                ArrayNode array = FACTORY.arrayNode();
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    array.add(readWithJqNumbers(parser));
+                }
+                return array;
+            }
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> {
+                return number(Double.parseDouble(parser.getText()));
+            }
+            case VALUE_STRING -> {
+                return FACTORY.textNode(parser.getText());
+            }
+            case VALUE_TRUE, VALUE_FALSE -> {
+                return FACTORY.booleanNode(parser.getBooleanValue());
+            }
+            case VALUE_NULL -> {
+                return FACTORY.nullNode();
+            }
+            default -> throw new IOException("Unexpected " + parser.currentToken() + " in JQ output");
+        }
+    }
+
+    /**
+     * Copy a tree with every number replaced by one that is written the way JQ prints it
+     */
+    private static JsonNode copyWithJqNumbers(JsonNode node) {
+        if (node.isNumber()) {
+            return number(node.doubleValue());
+        } else if (node.isArray()) {
+            ArrayNode array = FACTORY.arrayNode(node.size());
+            for (JsonNode value : node) {
+                array.add(copyWithJqNumbers(value));
+            }
+            return array;
+        } else if (node.isObject()) {
+            ObjectNode object = FACTORY.objectNode();
+            node.fields().forEachRemaining(field -> object.set(field.getKey(), copyWithJqNumbers(field.getValue())));
+            return object;
+        }
+        return node.deepCopy();
+    }
+
+    private static JsonNode copy(JsonNode node) {
+        return node == null || node.isMissingNode() ? FACTORY.nullNode() : copyWithJqNumbers(node);
+    }
+
+    private static ArrayNode array(JsonNode... values) {
+        ArrayNode array = FACTORY.arrayNode(values.length);
+        for (JsonNode value : values) {
+            array.add(value == null ? FACTORY.nullNode() : value);
+        }
+        return array;
+    }
+
+    private static boolean equals(JsonNode first, JsonNode second) {
+        if (first == null || second == null) {
+            return first == second;
+        }
+        return compare(first, second) == 0;
+    }
+
+    /**
+     * Compare two values using JQ's ordering: null, false, true, numbers, strings, arrays and then objects
+     */
+    private static int compare(JsonNode first, JsonNode second) {
+        int order = Integer.compare(typeOrder(first), typeOrder(second));
+        if (order != 0) {
+            return order;
+        }
+
+        if (first.isNumber()) {
+            double firstValue = first.doubleValue();
+            double secondValue = second.doubleValue();
+            return firstValue < secondValue ? -1 : firstValue == secondValue ? 0 : 1;
+        } else if (first.isTextual()) {
+            return first.asText().compareTo(second.asText());
+        } else if (first.isArray()) {
+            for (int i = 0; i < Math.min(first.size(), second.size()); i++) {
+                int compare = compare(first.get(i), second.get(i));
+                if (compare != 0) {
+                    return compare;
+                }
+            }
+            return Integer.compare(first.size(), second.size());
+        } else if (first.isObject()) {
+            List<String> firstKeys = new ArrayList<>();
+            first.fieldNames().forEachRemaining(firstKeys::add);
+            Collections.sort(firstKeys);
+            List<String> secondKeys = new ArrayList<>();
+            second.fieldNames().forEachRemaining(secondKeys::add);
+            Collections.sort(secondKeys);
+
+            for (int i = 0; i < Math.min(firstKeys.size(), secondKeys.size()); i++) {
+                int compare = firstKeys.get(i).compareTo(secondKeys.get(i));
+                if (compare != 0) {
+                    return compare;
+                }
+            }
+            if (firstKeys.size() != secondKeys.size()) {
+                return Integer.compare(firstKeys.size(), secondKeys.size());
+            }
+            for (String key : firstKeys) {
+                int compare = compare(first.get(key), second.get(key));
+                if (compare != 0) {
+                    return compare;
+                }
+            }
+        }
+        return 0;
+    }
+
+    private static int typeOrder(JsonNode node) {
+        if (node.isBoolean()) {
+            return node.booleanValue() ? 2 : 1;
+        } else if (node.isNumber()) {
+            return 3;
+        } else if (node.isTextual()) {
+            return 4;
+        } else if (node.isArray()) {
+            return 5;
+        } else if (node.isObject()) {
+            return 6;
+        }
+        return 0;
+    }
+
+    /**
+     * A number that is written the way JQ prints it, as the files used to be written straight from JQ's output
+     */
+    private static class JqNumberNode extends NumericNode {
+        private final DoubleNode value;
+
+        JqNumberNode(double value) {
+            this.value = DoubleNode.valueOf(value);
+        }
+
+        @Override
+        public JsonToken asToken() {
+            return JsonToken.VALUE_NUMBER_FLOAT;
+        }
+
+        @Override
+        public JsonParser.NumberType numberType() {
+            return JsonParser.NumberType.DOUBLE;
+        }
+
+        @Override
+        public Number numberValue() {
+            return value.numberValue();
+        }
+
+        @Override
+        public int intValue() {
+            return value.intValue();
+        }
+
+        @Override
+        public long longValue() {
+            return value.longValue();
+        }
+
+        @Override
+        public double doubleValue() {
+            return value.doubleValue();
+        }
+
+        @Override
+        public BigDecimal decimalValue() {
+            return value.decimalValue();
+        }
+
+        @Override
+        public BigInteger bigIntegerValue() {
+            return value.bigIntegerValue();
+        }
+
+        @Override
+        public boolean canConvertToInt() {
+            return value.canConvertToInt();
+        }
+
+        @Override
+        public boolean canConvertToLong() {
+            return value.canConvertToLong();
+        }
+
+        @Override
+        public boolean isFloatingPointNumber() {
+            return true;
+        }
+
+        @Override
+        public boolean isDouble() {
+            return true;
+        }
+
+        @Override
+        public String asText() {
+            return formatNumber(value.doubleValue());
+        }
+
+        @Override
+        public void serialize(JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeNumber(asText());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof JqNumberNode other && value.equals(other.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return value.hashCode();
+        }
+    }
+}
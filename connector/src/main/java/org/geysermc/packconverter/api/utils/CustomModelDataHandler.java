@@ -33,7 +33,6 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.google.gson.JsonParser;
 import com.nukkitx.nbt.NbtMap;
 import com.nukkitx.nbt.NbtMapBuilder;
 import org.geysermc.packconverter.api.converters.CustomModelDataConverter;
@@ -214,24 +213,203 @@ public class CustomModelDataHandler {
         int x = (newWidth - scaledWidth) / 2;
         int y = (newHeight - scaledHeight) / 2;
 
-        /*
-         * This is _very_ painful. I've tried a large number of different permutations here trying to
-         * get the white image background to be transparent without success. We've tried different
-         * fills, composite types, image types, etc.. I'm moving on now.
-         */
-        BufferedImage newImg = new BufferedImage(newWidth, newHeight, BufferedImage.TYPE_INT_ARGB);
-        Graphics2D g = newImg.createGraphics();
-        g.setColor(new Color(0, 0, 0, 0));
-        g.fillRect(0, 0, newWidth, newHeight);
-        g.drawImage(img, x, y, x + scaledWidth, y + scaledHeight, 0, 0, currentWidth, currentHeight,
-                new Color(0, 0, 0, 0), null);
-        g.dispose();
-
-        return newImg;
+        PixelBuffer newImg = new PixelBuffer(newWidth, newHeight);
+        newImg.draw(PixelBuffer.of(img).scale(scaledWidth, scaledHeight), x, y);
+
+        return newImg.toImage();
     }
 
     private static JqLibrary library = ImmutableJqLibrary.of();
 
+    /*
+     * The JQ filters below are only used when BedrockModelMapper can't handle a model.
+     * They take the item name as $name rather than having it concatenated in,
+     * so they are only built once instead of for every model.
+     */
+    static final String GEOMETRY_FILTER = "def element_array:" +
+            "(.textures | to_entries | sort_by(.key) | map({(.key): .value}) | add | keys_unsorted) as $texture_array" +
+            "| ($texture_array | length) as $frames" +
+            "| (($frames | sqrt) | ceil) as $sides" +
+            "| (.texture_size[1] // 16) as $t1" +
+            "| .elements | map({" +
+            "  \"origin\": [(-.to[0] + 8), (.from[1]), (.from[2] - 8)]," +
+            "  \"size\": [.to[0] - .from[0], .to[1] - .from[1], .to[2] - .from[2]]," +
+            "  \"rotation\": (if (.rotation.axis) == \"x\" then [(.rotation.angle | tonumber * -1), 0, 0] elif (.rotation.axis) == \"y\" then [0, (.rotation.angle | tonumber * -1), 0] elif (.rotation.axis) == \"z\" then [0, 0, (.rotation.angle | tonumber)] else null end)," +
+            "  \"pivot\": (if .rotation.origin then [(- .rotation.origin[0] + 8), .rotation.origin[1], (.rotation.origin[2] - 8)] else null end)," +
+            "  \"uv\": (" +
+            "def uv_calc($input):" +
+            "  (if (.faces | .[$input]) then" +
+            "  (.faces | .[$input].texture[1:] as $input_n | $texture_array | (index($input_n) // index(\"particle\"))) as $pos_n" +
+            "  | ((.faces | .[$input].uv[0] / $sides) + ((fmod($pos_n; $sides)) * (16 / $sides))) as $fn0" +
+            "  | ((.faces | .[$input].uv[1] / $sides) + ((($pos_n / $sides) | floor) * (16 / $sides))) as $fn1" +
+            "  | ((.faces | .[$input].uv[2] / $sides) + ((fmod($pos_n; $sides)) * (16 / $sides))) as $fn2" +
+            "  | ((.faces | .[$input].uv[3] / $sides) + ((($pos_n / $sides) | floor) * (16 / $sides))) as $fn3 |" +
+            "  {" +
+            "\"uv\": [($fn0), ($fn1)]," +
+            "\"uv_size\": [($fn2 - $fn0), ($fn3 - $fn1)]" +
+            "  } else null end);" +
+            "{" +
+            "\"north\": uv_calc(\"north\")," +
+            "\"south\": uv_calc(\"south\")," +
+            "\"east\": uv_calc(\"east\")," +
+            "\"west\": uv_calc(\"west\")," +
+            "\"up\": uv_calc(\"up\")," +
+            "\"down\": uv_calc(\"down\")" +
+            "})" +
+            "}) | walk( if type == \"object\" then with_entries(select(.value != null)) else . end)" +
+            ";" +
+            "def pivot_groups:" +
+            "(element_array) as $element_array |" +
+            "[[.elements[].rotation] | unique | .[] | select (.!=null)]" +
+            "| map((" +
+            "[(- .origin[0] + 8), .origin[1], (.origin[2] - 8)] as $i_piv |" +
+            "(if (.axis) == \"x\" then [(.angle | tonumber * -1), 0, 0] elif (.axis) == \"y\" then [0, (.angle | tonumber * -1), 0] else [0, 0, (.angle | tonumber)] end) as $i_rot |" +
+            "{" +
+            "  \"parent\": \"geysermc_z\"," +
+            "  \"pivot\": ($i_piv)," +
+            "  \"rotation\": ($i_rot)," +
+            "  \"mirror\": true," +
+            "  \"cubes\": [($element_array | .[] | select(.rotation == $i_rot and .pivot == $i_piv))]" +
+            "}))" +
+            ";" +
+            "{" +
+            "  \"format_version\": \"1.16.0\"," +
+            "  \"minecraft:geometry\": [{" +
+            "\"description\": {" +
+            "  \"identifier\": (\"geometry.geysermc.\" + $name)," +
+            "  \"texture_width\": 16," +
+            "  \"texture_height\": 16," +
+            "  \"visible_bounds_width\": 4," +
+            "  \"visible_bounds_height\": 4.5," +
+            "  \"visible_bounds_offset\": [0, 0.75, 0]" +
+            "}," +
+            "\"bones\": ([{" +
+            "  \"name\": \"geysermc\"," +
+            "  \"binding\": \"c.item_slot == 'head' ? 'head' : q.item_slot_to_bone_name(c.item_slot)\"," +
+            "  \"pivot\": [0, 8, 0]" +
+            "}, {" +
+            "  \"name\": \"geysermc_x\"," +
+            "  \"parent\": \"geysermc\"," +
+            "  \"pivot\": [0, 8, 0]" +
+            "}, {" +
+            "  \"name\": \"geysermc_y\"," +
+            "  \"parent\": \"geysermc_x\"," +
+            "  \"pivot\": [0, 8, 0]" +
+            "}, {" +
+            "  \"name\": \"geysermc_z\"," +
+            "  \"parent\": \"geysermc_y\"," +
+            "  \"pivot\": [0, 8, 0]," +
+            "  \"cubes\": [(element_array | .[] | select(.rotation == null))]" +
+            "}] + (pivot_groups | map(del(.cubes[].rotation)) | to_entries | map( (.value.name = \"rot_\\(1+.key)\" ) | .value)))" +
+            "  }]" +
+            "}";
+
+    static final String ANIMATIONS_FILTER = "{\"format_version\": \"1.8.0\"," +
+            "\"animations\": {" +
+            "(\"animation.geysermc.\" + $name + \".thirdperson_main_hand\"): {" +
+            "\"loop\": true," +
+            "\"bones\": {" +
+            "\"geysermc_x\": (if .display.thirdperson_righthand then {" +
+            "\"rotation\": (if .display.thirdperson_righthand.rotation then [(- .display.thirdperson_righthand.rotation[0]), 0, 0] else null end)," +
+            "\"position\": (if .display.thirdperson_righthand.translation then [(- .display.thirdperson_righthand.translation[0]), (.display.thirdperson_righthand.translation[1]), (.display.thirdperson_righthand.translation[2])] else null end)," +
+            "      \"scale\": (if .display.thirdperson_righthand.scale then [(.display.thirdperson_righthand.scale[0]), (.display.thirdperson_righthand.scale[1]), (.display.thirdperson_righthand.scale[2])] else null end)" +
+            "} else null end)," +
+            "    \"geysermc_y\": (if .display.thirdperson_righthand.rotation then {" +
+            " \"rotation\": (if .display.thirdperson_righthand.rotation then [0, (- .display.thirdperson_righthand.rotation[1]), 0] else null end)" +
+            "} else null end)," +
+            "    \"geysermc_z\": (if .display.thirdperson_righthand.rotation then {" +
+            "   \"rotation\": [0, 0, (.display.thirdperson_righthand.rotation[2])]" +
+            "} else null end)," +
+            "    \"geysermc\": {" +
+            "       \"rotation\": [90, 0, 0]," +
+            "       \"position\": [0, 13, -3]" +
+            "    }" +
+            "}" +
+            "}," +
+            "(\"animation.geysermc.\" + $name + \".thirdperson_off_hand\"): {" +
+            "\"loop\": true," +
+            "\"bones\": {" +
+            "\"geysermc_x\": (if .display.thirdperson_lefthand then {" +
+            "\"rotation\": (if .display.thirdperson_lefthand.rotation then [(- .display.thirdperson_lefthand.rotation[0]), 0, 0] else null end)," +
+            "\"position\": (if .display.thirdperson_lefthand.translation then [(- .display.thirdperson_lefthand.translation[0]), (.display.thirdperson_lefthand.translation[1]), (.display.thirdperson_lefthand.translation[2])] else null end)," +
+            "      \"scale\": (if .display.thirdperson_lefthand.scale then [(.display.thirdperson_lefthand.scale[0]), (.display.thirdperson_lefthand.scale[1]), (.display.thirdperson_lefthand.scale[2])] else null end)" +
+            "} else null end)," +
+            "    \"geysermc_y\": (if .display.thirdperson_lefthand.rotation then {" +
+            " \"rotation\": (if .display.thirdperson_lefthand.rotation then [0, (- .display.thirdperson_lefthand.rotation[1]), 0] else null end)" +
+            "} else null end)," +
+            "    \"geysermc_z\": (if .display.thirdperson_lefthand.rotation then {" +
+            "   \"rotation\": [0, 0, (.display.thirdperson_lefthand.rotation[2])]" +
+            "} else null end)," +
+            "    \"geysermc\": {" +
+            "       \"rotation\": [90, 0, 0]," +
+            "       \"position\": [0, 13, -3]" +
+            "    }" +
+            "}" +
+            "}," +
+            "(\"animation.geysermc.\" + $name + \".head\"): {" +
+            "\"loop\": true," +
+            "\"bones\": {" +
+            "    \"geysermc_x\": {" +
+            "\"rotation\": (if .display.head.rotation then [(- .display.head.rotation[0]), 0, 0] else null end)," +
+            "\"position\": (if .display.head.translation then [(- .display.head.translation[0] * 0.625), (.display.head.translation[1] * 0.625), (.display.head.translation[2] * 0.625)] else null end)," +
+            "      \"scale\": (if .display.head.scale then (.display.head.scale | map(. * 0.625)) else 0.625 end)" +
+            "}," +
+            "    \"geysermc_y\": (if .display.head.rotation then {" +
+            "\"rotation\": [0, (- .display.head.rotation[1]), 0]" +
+            "} else null end)," +
+            "    \"geysermc_z\": (if .display.head.rotation then {" +
+            "\"rotation\": [0, 0, (.display.head.rotation[2])]" +
+            "} else null end)," +
+            "    \"geysermc\": {" +
+            "       \"position\": [0, 19.5, 0]" +
+            "    }" +
+            "}" +
+            "}," +
+            "(\"animation.geysermc.\" + $name + \".firstperson_main_hand\"): {" +
+            "\"loop\": true," +
+            "\"bones\": {" +
+            "    \"geysermc\": {" +
+            "\"rotation\": [90, 60, -40]," +
+            "\"position\": [4, 10, 4]," +
+            "      \"scale\": 1.5" +
+            "}," +
+            "\"geysermc_x\": {" +
+            "\"position\": (if .display.firstperson_righthand.translation then [(- .display.firstperson_righthand.translation[0]), (.display.firstperson_righthand.translation[1]), (- .display.firstperson_righthand.translation[2])] else null end)," +
+            "\"rotation\": (if .display.firstperson_righthand.rotation then [(- .display.firstperson_righthand.rotation[0]), 0, 0] else [0.1, 0.1, 0.1] end)," +
+            "      \"scale\": (if .display.firstperson_righthand.scale then (.display.firstperson_righthand.scale) else null end)" +
+            "}," +
+            "    \"geysermc_y\": (if .display.firstperson_righthand.rotation then {" +
+            "\"rotation\": [0, (- .display.firstperson_righthand.rotation[1]), 0]" +
+            "} else null end)," +
+            "    \"geysermc_z\": (if .display.firstperson_righthand.rotation then {" +
+            "\"rotation\": [0, 0, (.display.firstperson_righthand.rotation[2])]" +
+            "} else null end)" +
+            "}" +
+            "}," +
+            "(\"animation.geysermc.\" + $name + \".firstperson_off_hand\"): {" +
+            "\"loop\": true," +
+            "\"bones\": {" +
+            "    \"geysermc\": {" +
+            "\"rotation\": [90, 60, -40]," +
+            "\"position\": [4, 10, 4]," +
+            "      \"scale\": 1.5" +
+            "}," +
+            "\"geysermc_x\": {" +
+            "\"position\": (if .display.firstperson_lefthand.translation then [(.display.firstperson_lefthand.translation[0]), (.display.firstperson_lefthand.translation[1]), (- .display.firstperson_lefthand.translation[2])] else null end)," +
+            "\"rotation\": (if .display.firstperson_lefthand.rotation then [(- .display.firstperson_lefthand.rotation[0]), 0, 0] else [0.1, 0.1, 0.1] end)," +
+            "      \"scale\": (if .display.firstperson_lefthand.scale then (.display.firstperson_lefthand.scale) else null end)" +
+            "}," +
+            "    \"geysermc_y\": (if .display.firstperson_lefthand.rotation then {" +
+            "\"rotation\": [0, (- .display.firstperson_lefthand.rotation[1]), 0]" +
+            "} else null end)," +
+            "    \"geysermc_z\": (if .display.firstperson_lefthand.rotation then {" +
+            "\"rotation\": [0, 0, (.display.firstperson_lefthand.rotation[2])]" +
+            "} else null end)" +
+            "}" +
+            "}" +
+            "}" +
+            "} | walk( if type == \"object\" then with_entries(select(.value != null)) else . end)";
+
     public static void threeDeeModelzBaby(ObjectMapper mapper, Path storage, String originalItemName, String fileName, JsonNode jsonData) {
         // Start the creation of the JSON that registers the object
         //filePath = filePath.contains(":") ? filePath.split(":")[1] : filePath;
@@ -325,86 +503,35 @@ public class CustomModelDataHandler {
         }
     }
 
+    /**
+     * Run a JQ filter that refers to the item name as $name
+     *
+     * @param mapper Mapper to read the result with
+     * @param input Model to use
+     * @param filter Filter to run
+     * @param name Name of the item
+     * @return The filter result, with its numbers written the way JQ printed them
+     * @throws IOException if the filter failed
+     */
+    static JsonNode applyFilter(ObjectMapper mapper, JsonNode input, String filter, String name) throws IOException {
+        ObjectNode wrapped = mapper.createObjectNode();
+        wrapped.put("name", name);
+        wrapped.set("model", input);
+        String response = JQToJson(mapper, wrapped, ".name as $name | .model | " + filter);
+        if (response == null) {
+            throw new IOException("JQ filter failed");
+        }
+        return BedrockModelMapper.readWithJqNumbers(mapper.getFactory(), response);
+    }
+
     public static void mapGeometry(ObjectMapper mapper, Path storage, String originalItemName, String fileName, JsonNode jsonData) {
-        String filter = "def element_array:" +
-                "(.textures | to_entries | sort_by(.key) | map({(.key): .value}) | add | keys_unsorted) as $texture_array" +
-                "| ($texture_array | length) as $frames" +
-                "| (($frames | sqrt) | ceil) as $sides" +
-                "| (.texture_size[1] // 16) as $t1" +
-                "| .elements | map({" +
-                "  \"origin\": [(-.to[0] + 8), (.from[1]), (.from[2] - 8)]," +
-                "  \"size\": [.to[0] - .from[0], .to[1] - .from[1], .to[2] - .from[2]]," +
-                "  \"rotation\": (if (.rotation.axis) == \"x\" then [(.rotation.angle | tonumber * -1), 0, 0] elif (.rotation.axis) == \"y\" then [0, (.rotation.angle | tonumber * -1), 0] elif (.rotation.axis) == \"z\" then [0, 0, (.rotation.angle | tonumber)] else null end)," +
-                "  \"pivot\": (if .rotation.origin then [(- .rotation.origin[0] + 8), .rotation.origin[1], (.rotation.origin[2] - 8)] else null end)," +
-                "  \"uv\": (" +
-                "def uv_calc($input):" +
-                "  (if (.faces | .[$input]) then" +
-                "  (.faces | .[$input].texture[1:] as $input_n | $texture_array | (index($input_n) // index(\"particle\"))) as $pos_n" +
-                "  | ((.faces | .[$input].uv[0] / $sides) + ((fmod($pos_n; $sides)) * (16 / $sides))) as $fn0" +
-                "  | ((.faces | .[$input].uv[1] / $sides) + ((($pos_n / $sides) | floor) * (16 / $sides))) as $fn1" +
-                "  | ((.faces | .[$input].uv[2] / $sides) + ((fmod($pos_n; $sides)) * (16 / $sides))) as $fn2" +
-                "  | ((.faces | .[$input].uv[3] / $sides) + ((($pos_n / $sides) | floor) * (16 / $sides))) as $fn3 |" +
-                "  {" +
-                "\"uv\": [($fn0), ($fn1)]," +
-                "\"uv_size\": [($fn2 - $fn0), ($fn3 - $fn1)]" +
-                "  } else null end);" +
-                "{" +
-                "\"north\": uv_calc(\"north\")," +
-                "\"south\": uv_calc(\"south\")," +
-                "\"east\": uv_calc(\"east\")," +
-                "\"west\": uv_calc(\"west\")," +
-                "\"up\": uv_calc(\"up\")," +
-                "\"down\": uv_calc(\"down\")" +
-                "})" +
-                "}) | walk( if type == \"object\" then with_entries(select(.value != null)) else . end)" +
-                ";" +
-                "def pivot_groups:" +
-                "(element_array) as $element_array |" +
-                "[[.elements[].rotation] | unique | .[] | select (.!=null)]" +
-                "| map((" +
-                "[(- .origin[0] + 8), .origin[1], (.origin[2] - 8)] as $i_piv |" +
-                "(if (.axis) == \"x\" then [(.angle | tonumber * -1), 0, 0] elif (.axis) == \"y\" then [0, (.angle | tonumber * -1), 0] else [0, 0, (.angle | tonumber)] end) as $i_rot |" +
-                "{" +
-                "  \"parent\": \"geysermc_z\"," +
-                "  \"pivot\": ($i_piv)," +
-                "  \"rotation\": ($i_rot)," +
-                "  \"mirror\": true," +
-                "  \"cubes\": [($element_array | .[] | select(.rotation == $i_rot and .pivot == $i_piv))]" +
-                "}))" +
-                ";" +
-                "{" +
-                "  \"format_version\": \"1.16.0\"," +
-                "  \"minecraft:geometry\": [{" +
-                "\"description\": {" +
-                "  \"identifier\": (\"geometry.geysermc." + originalItemName + "\")," +
-                "  \"texture_width\": 16," +
-                "  \"texture_height\": 16," +
-                "  \"visible_bounds_width\": 4," +
-                "  \"visible_bounds_height\": 4.5," +
-                "  \"visible_bounds_offset\": [0, 0.75, 0]" +
-                "}," +
-                "\"bones\": ([{" +
-                "  \"name\": \"geysermc\"," +
-                "  \"binding\": \"c.item_slot == 'head' ? 'head' : q.item_slot_to_bone_name(c.item_slot)\"," +
-                "  \"pivot\": [0, 8, 0]" +
-                "}, {" +
-                "  \"name\": \"geysermc_x\"," +
-                "  \"parent\": \"geysermc\"," +
-                "  \"pivot\": [0, 8, 0]" +
-                "}, {" +
-                "  \"name\": \"geysermc_y\"," +
-                "  \"parent\": \"geysermc_x\"," +
-                "  \"pivot\": [0, 8, 0]" +
-                "}, {" +
-                "  \"name\": \"geysermc_z\"," +
-                "  \"parent\": \"geysermc_y\"," +
-                "  \"pivot\": [0, 8, 0]," +
-                "  \"cubes\": [(element_array | .[] | select(.rotation == null))]" +
-                "}] + (pivot_groups | map(del(.cubes[].rotation)) | to_entries | map( (.value.name = \"rot_\\(1+.key)\" ) | .value)))" +
-                "  }]" +
-                "}";
         try {
-            String response = JQToJson(mapper, jsonData, filter);
+            JsonNode geometry;
+            try {
+                geometry = BedrockModelMapper.geometry(jsonData, originalItemName);
+            } catch (IllegalArgumentException e) {
+                geometry = applyFilter(mapper, jsonData, GEOMETRY_FILTER, originalItemName);
+            }
             File itemJsonPath = storage.resolve("models/entity/geysermc").toFile();
             if (!itemJsonPath.exists()) {
                 itemJsonPath.mkdirs();
@@ -412,9 +539,7 @@ public class CustomModelDataHandler {
             String path001 = (originalItemName) + ".json";
             Path path2 = itemJsonPath.toPath().resolve(path001);
             try (OutputStream outputStream = Files.newOutputStream(path2, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.CREATE)) {
-                String final1 = new JsonParser().parse(response).toString();
-                byte[] bytes = final1.getBytes();
-                outputStream.write(bytes);
+                mapper.writeValue(outputStream, geometry);
             } catch (IOException e) {
                 e.printStackTrace();
                 return;
@@ -426,114 +551,14 @@ public class CustomModelDataHandler {
     }
 
     public static void mapAnimations(ObjectMapper mapper, Path storage, String originalItemName, String fileName, JsonNode jsonData) {
-        String filter = "{\"format_version\": \"1.8.0\"," +
-                "\"animations\": {" +
-                "(\"animation.geysermc." + originalItemName + ".thirdperson_main_hand\"): {" +
-                "\"loop\": true," +
-                "\"bones\": {" +
-                "\"geysermc_x\": (if .display.thirdperson_righthand then {" +
-                "\"rotation\": (if .display.thirdperson_righthand.rotation then [(- .display.thirdperson_righthand.rotation[0]), 0, 0] else null end)," +
-                "\"position\": (if .display.thirdperson_righthand.translation then [(- .display.thirdperson_righthand.translation[0]), (.display.thirdperson_righthand.translation[1]), (.display.thirdperson_righthand.translation[2])] else null end)," +
-                "      \"scale\": (if .display.thirdperson_righthand.scale then [(.display.thirdperson_righthand.scale[0]), (.display.thirdperson_righthand.scale[1]), (.display.thirdperson_righthand.scale[2])] else null end)" +
-                "} else null end)," +
-                "    \"geysermc_y\": (if .display.thirdperson_righthand.rotation then {" +
-                " \"rotation\": (if .display.thirdperson_righthand.rotation then [0, (- .display.thirdperson_righthand.rotation[1]), 0] else null end)" +
-                "} else null end)," +
-                "    \"geysermc_z\": (if .display.thirdperson_righthand.rotation then {" +
-                "   \"rotation\": [0, 0, (.display.thirdperson_righthand.rotation[2])]" +
-                "} else null end)," +
-                "    \"geysermc\": {" +
-                "       \"rotation\": [90, 0, 0]," +
-                "       \"position\": [0, 13, -3]" +
-                "    }" +
-                "}" +
-                "}," +
-                "(\"animation.geysermc." + originalItemName + ".thirdperson_off_hand\"): {" +
-                "\"loop\": true," +
-                "\"bones\": {" +
-                "\"geysermc_x\": (if .display.thirdperson_lefthand then {" +
-                "\"rotation\": (if .display.thirdperson_lefthand.rotation then [(- .display.thirdperson_lefthand.rotation[0]), 0, 0] else null end)," +
-                "\"position\": (if .display.thirdperson_lefthand.translation then [(- .display.thirdperson_lefthand.translation[0]), (.display.thirdperson_lefthand.translation[1]), (.display.thirdperson_lefthand.translation[2])] else null end)," +
-                "      \"scale\": (if .display.thirdperson_lefthand.scale then [(.display.thirdperson_lefthand.scale[0]), (.display.thirdperson_lefthand.scale[1]), (.display.thirdperson_lefthand.scale[2])] else null end)" +
-                "} else null end)," +
-                "    \"geysermc_y\": (if .display.thirdperson_lefthand.rotation then {" +
-                " \"rotation\": (if .display.thirdperson_lefthand.rotation then [0, (- .display.thirdperson_lefthand.rotation[1]), 0] else null end)" +
-                "} else null end)," +
-                "    \"geysermc_z\": (if .display.thirdperson_lefthand.rotation then {" +
-                "   \"rotation\": [0, 0, (.display.thirdperson_lefthand.rotation[2])]" +
-                "} else null end)," +
-                "    \"geysermc\": {" +
-                "       \"rotation\": [90, 0, 0]," +
-                "       \"position\": [0, 13, -3]" +
-                "    }" +
-                "}" +
-                "}," +
-                "(\"animation.geysermc." + originalItemName + ".head\"): {" +
-                "\"loop\": true," +
-                "\"bones\": {" +
-                "    \"geysermc_x\": {" +
-                "\"rotation\": (if .display.head.rotation then [(- .display.head.rotation[0]), 0, 0] else null end)," +
-                "\"position\": (if .display.head.translation then [(- .display.head.translation[0] * 0.625), (.display.head.translation[1] * 0.625), (.display.head.translation[2] * 0.625)] else null end)," +
-                "      \"scale\": (if .display.head.scale then (.display.head.scale | map(. * 0.625)) else 0.625 end)" +
-                "}," +
-                "    \"geysermc_y\": (if .display.head.rotation then {" +
-                "\"rotation\": [0, (- .display.head.rotation[1]), 0]" +
-                "} else null end)," +
-                "    \"geysermc_z\": (if .display.head.rotation then {" +
-                "\"rotation\": [0, 0, (.display.head.rotation[2])]" +
-                "} else null end)," +
-                "    \"geysermc\": {" +
-                "       \"position\": [0, 19.5, 0]" +
-                "    }" +
-                "}" +
-                "}," +
-                "(\"animation.geysermc." + originalItemName + ".firstperson_main_hand\"): {" +
-                "\"loop\": true," +
-                "\"bones\": {" +
-                "    \"geysermc\": {" +
-                "\"rotation\": [90, 60, -40]," +
-                "\"position\": [4, 10, 4]," +
-                "      \"scale\": 1.5" +
-                "}," +
-                "\"geysermc_x\": {" +
-                "\"position\": (if .display.firstperson_righthand.translation then [(- .display.firstperson_righthand.translation[0]), (.display.firstperson_righthand.translation[1]), (- .display.firstperson_righthand.translation[2])] else null end)," +
-                "\"rotation\": (if .display.firstperson_righthand.rotation then [(- .display.firstperson_righthand.rotation[0]), 0, 0] else [0.1, 0.1, 0.1] end)," +
-                "      \"scale\": (if .display.firstperson_righthand.scale then (.display.firstperson_righthand.scale) else null end)" +
-                "}," +
-                "    \"geysermc_y\": (if .display.firstperson_righthand.rotation then {" +
-                "\"rotation\": [0, (- .display.firstperson_righthand.rotation[1]), 0]" +
-                "} else null end)," +
-                "    \"geysermc_z\": (if .display.firstperson_righthand.rotation then {" +
-                "\"rotation\": [0, 0, (.display.firstperson_righthand.rotation[2])]" +
-                "} else null end)" +
-                "}" +
-                "}," +
-                "(\"animation.geysermc." + originalItemName + ".firstperson_off_hand\"): {" +
-                "\"loop\": true," +
-                "\"bones\": {" +
-                "    \"geysermc\": {" +
-                "\"rotation\": [90, 60, -40]," +
-                "\"position\": [4, 10, 4]," +
-                "      \"scale\": 1.5" +
-                "}," +
-                "\"geysermc_x\": {" +
-                "\"position\": (if .display.firstperson_lefthand.translation then [(.display.firstperson_lefthand.translation[0]), (.display.firstperson_lefthand.translation[1]), (- .display.firstperson_lefthand.translation[2])] else null end)," +
-                "\"rotation\": (if .display.firstperson_lefthand.rotation then [(- .display.firstperson_lefthand.rotation[0]), 0, 0] else [0.1, 0.1, 0.1] end)," +
-                "      \"scale\": (if .display.firstperson_lefthand.scale then (.display.firstperson_lefthand.scale) else null end)" +
-                "}," +
-                "    \"geysermc_y\": (if .display.firstperson_lefthand.rotation then {" +
-                "\"rotation\": [0, (- .display.firstperson_lefthand.rotation[1]), 0]" +
-                "} else null end)," +
-                "    \"geysermc_z\": (if .display.firstperson_lefthand.rotation then {" +
-                "\"rotation\": [0, 0, (.display.firstperson_lefthand.rotation[2])]" +
-                "} else null end)" +
-                "}" +
-                "}" +
-                "}" +
-                "} | walk( if type == \"object\" then with_entries(select(.value != null)) else . end)";
         String s = "animation." + originalItemName;
         try {
-            String response = JQToJson(mapper, jsonData, filter);
+            JsonNode animations;
+            try {
+                animations = BedrockModelMapper.animations(jsonData, originalItemName);
+            } catch (IllegalArgumentException e) {
+                animations = applyFilter(mapper, jsonData, ANIMATIONS_FILTER, originalItemName);
+            }
             File itemJsonPath = storage.resolve("animations/geysermc").toFile();
             if (!itemJsonPath.exists()) {
                 itemJsonPath.mkdirs();
@@ -541,9 +566,7 @@ public class CustomModelDataHandler {
             String path001 = s + ".json";
             Path path2 = itemJsonPath.toPath().resolve(path001);
             try (OutputStream outputStream = Files.newOutputStream(path2, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.CREATE)) {
-                String final1 = new JsonParser().parse(response).toString();
-                byte[] bytes = final1.getBytes();
-                outputStream.write(bytes);
+                mapper.writeValue(outputStream, animations);
             } catch (IOException e) {
                 e.printStackTrace();
                 return;
@@ -562,47 +585,7 @@ public class CustomModelDataHandler {
             texture1 = entry.getValue();
             break;
         }
-        String filter = "{" +
-                "  \"format_version\": \"1.10.0\"," +
-                "  \"minecraft:attachable\": {" +
-                "    \"description\": {" +
-                "      \"identifier\": (\"geysermc:" + originalItemName + "\")," +
-                "      \"materials\": {" +
-                "        \"default\": \"entity_alphatest\"," +
-                "        \"enchanted\": \"entity_alphatest\"" +
-                "      }," +
-                "      \"textures\": {" +
-                "        \"default\": (\"textures/" + texture1 + "\")," +
-                "        \"enchanted\": \"textures/misc/enchanted_item_glint.png\"" +
-                "      }," +
-                "      \"geometry\": {" +
-                "        \"default\": (\"geometry.geysermc." + originalItemName + "\")" +
-                "      }," +
-                "      \"scripts\": {" +
-                "        \"pre_animation\": [\"v.main_hand = c.item_slot == 'main_hand';\", \"v.off_hand = c.item_slot == 'off_hand';\", \"v.head = c.item_slot == 'head';\"]," +
-                "        \"animate\": [" +
-                "          {\"thirdperson_main_hand\": \"v.main_hand && !c.is_first_person\"}," +
-                "          {\"thirdperson_off_hand\": \"v.off_hand && !c.is_first_person\"}," +
-                "          {\"thirdperson_head\": \"v.head && !c.is_first_person\"}," +
-                "          {\"firstperson_main_hand\": \"v.main_hand && c.is_first_person\"}," +
-                "          {\"firstperson_off_hand\": \"v.off_hand && c.is_first_person\"}," +
-                "          {\"firstperson_head\": \"c.is_first_person && v.head\"}" +
-                "        ]" +
-                "      }," +
-                "      \"animations\": {" +
-                "        \"thirdperson_main_hand\": (\"animation.geysermc." + originalItemName + ".thirdperson_main_hand\")," +
-                "        \"thirdperson_off_hand\": (\"animation.geysermc." + originalItemName + ".thirdperson_off_hand\")," +
-                "        \"thirdperson_head\": (\"animation.geysermc." + originalItemName + ".head\")," +
-                "        \"firstperson_main_hand\": (\"animation.geysermc." + originalItemName + ".firstperson_main_hand\")," +
-                "        \"firstperson_off_hand\": (\"animation.geysermc." + originalItemName + ".firstperson_off_hand\")," +
-                "        \"firstperson_head\": \"animation.geysermc.disable\"" +
-                "      }," +
-                "      \"render_controllers\": [ \"controller.render.item_default\" ]" +
-                "    }" +
-                "  }" +
-                "}";
         try {
-            String response = JQToJson(mapper, jsonData, filter);
             File itemJsonPath = storage.resolve("attachables").toFile();
             if (!itemJsonPath.exists()) {
                 itemJsonPath.mkdirs();
@@ -610,9 +593,7 @@ public class CustomModelDataHandler {
             String path001 = (originalItemName) + ".json";
             Path path2 = itemJsonPath.toPath().resolve(path001);
             try (OutputStream outputStream = Files.newOutputStream(path2, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.CREATE)) {
-                String final1 = new JsonParser().parse(response).toString();
-                byte[] bytes = final1.getBytes();
-                outputStream.write(bytes);
+                mapper.writeValue(outputStream, BedrockModelMapper.attachable(originalItemName, texture1));
             } catch (IOException e) {
                 e.printStackTrace();
                 return;
@@ -27,7 +27,6 @@
 package org.geysermc.packconverter.api.utils;
 
 import javax.imageio.ImageIO;
-import javax.swing.*;
 import java.awt.*;
 import java.awt.geom.AffineTransform;
 import java.awt.image.*;
@@ -54,29 +53,18 @@ public class ImageUtils {
      * @return Cropped image
      */
     public static BufferedImage crop(BufferedImage img, int x, int y, int width, int height) {
-        BufferedImage dest = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
-        Graphics g = dest.getGraphics();
-        g.drawImage(img, 0, 0, width, height, x, y, x + width, y+ height, null);
-        g.dispose();
-        return dest;
+        return PixelBuffer.of(img, x, y, width, height).toImage();
     }
 
     /**
-     * Scale a buffered image
-     * Based on https://stackoverflow.com/a/4216635/5299903
+     * Scale a buffered image using nearest neighbour sampling
      *
      * @param img Image to use
      * @param scale Amount to scale the image by
      * @return Scaled image
      */
     public static BufferedImage scale(BufferedImage img, float scale) {
-        int w = img.getWidth();
-        int h = img.getHeight();
-        BufferedImage after = new BufferedImage(Math.round(w * scale), Math.round(h * scale), BufferedImage.TYPE_INT_ARGB);
-        AffineTransform at = new AffineTransform();
-        at.scale(scale, scale);
-        AffineTransformOp scaleOp = new AffineTransformOp(at, AffineTransformOp.TYPE_NEAREST_NEIGHBOR);
-        return scaleOp.filter(img, after);
+        return PixelBuffer.of(img).scale(scale).toImage();
     }
 
     /**
@@ -191,21 +179,7 @@ public class ImageUtils {
      * @return A grayscale version of the image
      */
     public static BufferedImage grayscale(BufferedImage img) {
-        BufferedImage newImage = new BufferedImage(img.getWidth(), img.getHeight(), BufferedImage.TYPE_INT_ARGB);
-        for (int x = 0; x < newImage.getWidth(); x++) {
-            for (int y = 0; y < newImage.getHeight(); y++) {
-                Color newCol = new Color(img.getRGB(x, y), true);
-
-                int grey = Math.round(0.2126f * newCol.getRed() +
-                        0.7152f * newCol.getGreen() +
-                        0.0722f * newCol.getBlue());
-
-                newCol = new Color(grey, grey, grey, newCol.getAlpha());
-                newImage.setRGB(x, y, colorToARGB(newCol));
-            }
-        }
-
-        return newImage;
+        return PixelBuffer.of(img).grayscale().toImage();
     }
 
     /**
@@ -216,36 +190,7 @@ public class ImageUtils {
      * @return Tinted image
      */
     public static BufferedImage colorize(BufferedImage img, Color color) {
-        BufferedImage newImage = grayscale(img);
-
-        for (int x = 0; x < newImage.getWidth(); x++) {
-            for (int y = 0; y < newImage.getHeight(); y++) {
-                Color newCol = new Color(newImage.getRGB(x, y), true);
-                newCol = new Color(Math.round(newCol.getRed() / 255f * color.getRed()), Math.round(newCol.getGreen() / 255f * color.getGreen()), Math.round(newCol.getBlue() / 255f * color.getBlue()), newCol.getAlpha());
-                newImage.setRGB(x, y, colorToARGB(newCol));
-            }
-        }
-
-        return newImage;
-    }
-
-    /**
-     * Convert an {@link Image} to {@link BufferedImage}
-     *
-     * @param img Image to use
-     * @return The converted image
-     */
-    private static BufferedImage toBufferedImage(Image img) {
-        if (img instanceof BufferedImage) {
-            return (BufferedImage) img;
-        }
-
-        BufferedImage newImage = new BufferedImage(img.getWidth(null), img.getHeight(null), BufferedImage.TYPE_INT_ARGB);
-
-        Graphics g = newImage.getGraphics();
-        g.drawImage(img, 0, 0, null);
-
-        return newImage;
+        return PixelBuffer.of(img).colorize(color).toImage();
     }
 
     /**
@@ -256,6 +201,10 @@ public class ImageUtils {
      * @return Rotated image
      */
     public static BufferedImage rotate(BufferedImage img, int angle) {
+        if (angle % 90 == 0) {
+            return PixelBuffer.of(img).rotate(angle).toImage();
+        }
+
         final double rads = Math.toRadians(-angle);
         final double sin = Math.abs(Math.sin(rads));
         final double cos = Math.abs(Math.cos(rads));
@@ -271,7 +220,7 @@ public class ImageUtils {
     }
 
     /**
-     * Check if a given area is empty
+     * Check if a given area only contains fully transparent pixels
      *
      * @param img Image to use
      * @param subX Start X
@@ -281,16 +230,7 @@ public class ImageUtils {
      * @return True if the area is empty
      */
     public static boolean isEmptyArea(BufferedImage img, int subX, int subY, int width, int height) {
-        BufferedImage subImage = img.getSubimage(subX, subY, width, height);
-        for (int x = 0; x < subImage.getWidth(); x++) {
-            for (int y = 0; y < subImage.getHeight(); y++) {
-                if (!(new Color(subImage.getRGB(x, y), true).equals(Color.TRANSLUCENT))) {
-                    return false;
-                }
-            }
-        }
-
-        return true;
+        return PixelBuffer.of(img, subX, subY, width, height).isEmptyArea(0, 0, width, height);
     }
 
     /**
@@ -306,27 +246,12 @@ public class ImageUtils {
      * @return The converted image
      */
     public static BufferedImage borderImage(BufferedImage img, int borderLeft, int borderTop, int borderRight, int borderBottom, int newWidth, int newHeight) {
-        BufferedImage newImage = new BufferedImage(newWidth, newHeight, BufferedImage.TYPE_INT_ARGB);
-        Graphics g = newImage.getGraphics();
-
-        g.drawImage(crop(img, 0, 0, borderLeft, borderTop), 0, 0, null);
-        g.drawImage(resize(crop(img, borderLeft, 0, (img.getWidth() - borderLeft - borderRight), borderTop), (newWidth - borderLeft - borderRight), borderTop), borderLeft, 0, null);
-        g.drawImage(crop(img, (img.getWidth() - borderRight), 0, borderRight, borderTop), (newWidth - borderRight), 0, null);
-
-        g.drawImage(resize(crop(img, 0, borderTop, borderLeft, (img.getHeight() - borderTop - borderBottom)), borderLeft, (newHeight - borderTop - borderBottom)), 0, borderTop, null);
-        g.drawImage(resize(crop(img, borderLeft, borderTop, (img.getWidth() - borderLeft - borderRight), (img.getHeight() - borderTop - borderBottom)), (newWidth - borderLeft - borderRight), (newHeight - borderTop - borderBottom)), borderLeft, borderTop, null);
-        g.drawImage(resize(crop(img, (img.getWidth() - borderRight), borderTop, borderRight, (img.getHeight() - borderTop - borderBottom)), borderRight, (newHeight - borderTop - borderBottom)), (newWidth - borderRight), borderTop, null);
-
-        g.drawImage(crop(img, 0, (img.getHeight() - borderBottom), borderLeft, borderRight), 0, (newHeight - borderBottom), null);
-        g.drawImage(resize(crop(img, borderLeft, (img.getHeight() - borderBottom), (img.getWidth() - borderLeft - borderRight), borderRight), (newWidth - borderLeft - borderRight), borderRight), borderLeft, (newHeight - borderBottom), null);
-        g.drawImage(crop(img, (img.getWidth() - borderRight), (img.getHeight() - borderBottom), borderRight, borderRight), (newWidth - borderRight), (newHeight - borderBottom), null);
-
-        return newImage;
+        return PixelBuffer.of(img).border(borderLeft, borderTop, borderRight, borderBottom, newWidth, newHeight).toImage();
     }
 
     /**
      * Resize a {@link BufferedImage} to the requested size
-     * Doesnt replicate the jimp way of doing it but should give a similar output
+     * Averages the area covered by each new pixel, which doesnt replicate the jimp way of doing it but should give a similar output
      *
      * @param img Image to use
      * @param newWidth Target width
@@ -334,8 +259,7 @@ public class ImageUtils {
      * @return Scaled image to size
      */
     public static BufferedImage resize(BufferedImage img, int newWidth, int netHeight) {
-        Image scaled = img.getScaledInstance(newWidth, netHeight, BufferedImage.SCALE_SMOOTH);
-        return toBufferedImage(scaled);
+        return PixelBuffer.of(img).resize(newWidth, netHeight).toImage();
     }
 
     /**
@@ -346,36 +270,7 @@ public class ImageUtils {
      * @return Saturated image
      */
     public static BufferedImage saturate(BufferedImage img, int amount) {
-        BufferedImage newImage = new BufferedImage(img.getWidth(), img.getHeight(), BufferedImage.TYPE_INT_ARGB);
-
-        for (int x = 0; x < newImage.getWidth(); x++) {
-            for (int y = 0; y < newImage.getHeight(); y++) {
-                Color newCol = new Color(img.getRGB(x, y), true);
-
-                float[] hsb = Color.RGBtoHSB(newCol.getRed(), newCol.getGreen(), newCol.getBlue(), null);
-                float hue = hsb[0];
-                float saturation = hsb[1];
-                float brightness = hsb[2];
-
-                saturation = Math.max(0f, saturation + (amount / 100f));
-
-                int pixel = Color.HSBtoRGB(hue, saturation, brightness);
-
-                int red = (0xff & (pixel >> 16));
-                int green = (0xff & (pixel >> 8));
-                int blue = (0xff & pixel);
-
-                red = clamp(red, 0, 255);
-                green = clamp(green, 0, 255);
-                blue = clamp(blue, 0, 255);
-
-                newCol = new Color(red, green, blue, newCol.getAlpha());
-
-                newImage.setRGB(x, y, colorToARGB(newCol));
-            }
-        }
-
-        return newImage;
+        return PixelBuffer.of(img).saturate(amount).toImage();
     }
 
     /**
@@ -386,33 +281,6 @@ public class ImageUtils {
      * @return The flipped image
      */
     public static BufferedImage flip(BufferedImage image, boolean horizontal, boolean vertical) {
-        AffineTransform at = AffineTransform.getScaleInstance(horizontal ? -1 : 1, vertical ? -1 : 1);
-
-        if (horizontal) {
-            at.translate(-image.getWidth(null), 0);
-        }
-
-        if (vertical) {
-            at.translate(0, -image.getHeight(null));
-        }
-
-        BufferedImage newImage = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
-        Graphics2D g = newImage.createGraphics();
-        g.transform(at);
-        g.drawImage(image, 0, 0, null);
-        g.dispose();
-        return newImage;
-    }
-
-    /**
-     * Limit a number between two values
-     *
-     * @param val Value to limit
-     * @param min Lower bound
-     * @param max Upper bound
-     * @return Limited value
-     */
-    private static int clamp(int val, int min, int max) {
-        return val > max ? max : Math.max(val, min);
+        return PixelBuffer.of(image).flip(horizontal, vertical).toImage();
     }
 }
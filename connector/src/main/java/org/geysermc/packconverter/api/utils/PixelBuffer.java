@@ -0,0 +1,555 @@
+/*
+ * Copyright (c) 2019-2020 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.packconverter.api.utils;
+
+import lombok.Getter;
+
+import java.awt.*;
+import java.awt.image.*;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * An image stored as a flat array of non-premultiplied ARGB pixels, row by row.
+ * Every operation works on the array directly instead of going through {@link Graphics}
+ * or allocating a {@link Color} per pixel.
+ */
+public class PixelBuffer {
+    private static final int[] ARGB_MASKS = {0xff0000, 0xff00, 0xff, 0xff000000};
+
+    @Getter
+    private final int width;
+
+    @Getter
+    private final int height;
+
+    @Getter
+    private final int[] pixels;
+
+    /**
+     * Create a new fully transparent buffer
+     *
+     * @param width Buffer width
+     * @param height Buffer height
+     */
+    public PixelBuffer(int width, int height) {
+        this(width, height, new int[width * height]);
+    }
+
+    public PixelBuffer(int width, int height, int[] pixels) {
+        this.width = width;
+        this.height = height;
+        this.pixels = pixels;
+    }
+
+    /**
+     * Read the pixels of a {@link BufferedImage}.
+     * Images that are already backed by an ARGB int array share it rather than being copied.
+     *
+     * @param img Image to use
+     * @return Buffer holding the image pixels
+     */
+    public static PixelBuffer of(BufferedImage img) {
+        int width = img.getWidth();
+        int height = img.getHeight();
+
+        WritableRaster raster = img.getRaster();
+        if (img.getType() == BufferedImage.TYPE_INT_ARGB && raster.getParent() == null
+                && raster.getDataBuffer() instanceof DataBufferInt buffer && buffer.getNumBanks() == 1 && buffer.getOffset() == 0
+                && raster.getSampleModel() instanceof SinglePixelPackedSampleModel sampleModel && sampleModel.getScanlineStride() == width
+                && buffer.getSize() == width * height) {
+            return new PixelBuffer(width, height, buffer.getData());
+        }
+
+        return new PixelBuffer(width, height, img.getRGB(0, 0, width, height, null, 0, width));
+    }
+
+    /**
+     * Read part of a {@link BufferedImage}, anything outside of the image is transparent
+     *
+     * @param img Image to use
+     * @param x Starting X
+     * @param y Starting Y
+     * @param width Area width
+     * @param height Area height
+     * @return Buffer holding the area
+     */
+    public static PixelBuffer of(BufferedImage img, int x, int y, int width, int height) {
+        PixelBuffer result = new PixelBuffer(width, height);
+
+        int fromX = Math.max(x, 0);
+        int fromY = Math.max(y, 0);
+        int toX = Math.min(x + width, img.getWidth());
+        int toY = Math.min(y + height, img.getHeight());
+        if (fromX < toX && fromY < toY) {
+            img.getRGB(fromX, fromY, toX - fromX, toY - fromY, result.pixels, (fromY - y) * width + (fromX - x), width);
+        }
+
+        return result;
+    }
+
+    /**
+     * Wrap the pixels in a {@link BufferedImage} of type {@link BufferedImage#TYPE_INT_ARGB} without copying them
+     *
+     * @return The image
+     */
+    public BufferedImage toImage() {
+        DataBufferInt buffer = new DataBufferInt(pixels, pixels.length);
+        WritableRaster raster = Raster.createPackedRaster(buffer, width, height, width, ARGB_MASKS, null);
+        return new BufferedImage(ColorModel.getRGBdefault(), raster, false, null);
+    }
+
+    /**
+     * Write the buffer to file and ensure the directory exists
+     *
+     * @param format Format to write
+     * @param output File to write to
+     * @throws IOException
+     */
+    public void write(String format, File output) throws IOException {
+        ImageUtils.write(toImage(), format, output);
+    }
+
+    public int getPixel(int x, int y) {
+        return pixels[y * width + x];
+    }
+
+    public void setPixel(int x, int y, int argb) {
+        pixels[y * width + x] = argb;
+    }
+
+    /**
+     * Crop the buffer, anything outside of it is transparent
+     *
+     * @param x Starting X
+     * @param y Starting Y
+     * @param width Final width
+     * @param height Final height
+     * @return Cropped buffer
+     */
+    public PixelBuffer crop(int x, int y, int width, int height) {
+        PixelBuffer result = new PixelBuffer(width, height);
+
+        int fromX = Math.max(x, 0);
+        int fromY = Math.max(y, 0);
+        int toX = Math.min(x + width, this.width);
+        int toY = Math.min(y + height, this.height);
+        if (fromX < toX && fromY < toY) {
+            for (int row = fromY; row < toY; row++) {
+                System.arraycopy(pixels, row * this.width + fromX, result.pixels, (row - y) * width + (fromX - x), toX - fromX);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Scale the buffer by the given amount using nearest neighbour sampling
+     *
+     * @param scale Amount to scale the buffer by
+     * @return Scaled buffer
+     */
+    public PixelBuffer scale(float scale) {
+        return scale(Math.round(width * scale), Math.round(height * scale));
+    }
+
+    /**
+     * Scale the buffer to the given size using nearest neighbour sampling
+     *
+     * @param newWidth Target width
+     * @param newHeight Target height
+     * @return Scaled buffer
+     */
+    public PixelBuffer scale(int newWidth, int newHeight) {
+        PixelBuffer result = new PixelBuffer(newWidth, newHeight);
+        if (width == 0 || height == 0) {
+            return result;
+        }
+
+        int[] columns = new int[newWidth];
+        for (int x = 0; x < newWidth; x++) {
+            columns[x] = Math.min((int) ((x + 0.5d) * width / newWidth), width - 1);
+        }
+
+        for (int y = 0; y < newHeight; y++) {
+            int row = Math.min((int) ((y + 0.5d) * height / newHeight), height - 1) * width;
+            int offset = y * newWidth;
+            for (int x = 0; x < newWidth; x++) {
+                result.pixels[offset + x] = pixels[row + columns[x]];
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Resize the buffer to the given size by averaging the covered area of every target pixel.
+     * Colours are weighted by their alpha so transparent pixels don't darken the edges.
+     *
+     * @param newWidth Target width
+     * @param newHeight Target height
+     * @return Resized buffer
+     */
+    public PixelBuffer resize(int newWidth, int newHeight) {
+        PixelBuffer result = new PixelBuffer(newWidth, newHeight);
+        if (width == 0 || height == 0) {
+            return result;
+        }
+
+        // Work in units where a source pixel is newWidth (or newHeight) long and a target pixel is width (or height) long,
+        // so the overlap of any two pixels is a whole number
+        for (int y = 0; y < newHeight; y++) {
+            long top = (long) y * height;
+            long bottom = top + height;
+            int fromY = (int) (top / newHeight);
+            int toY = (int) ((bottom - 1) / newHeight);
+
+            for (int x = 0; x < newWidth; x++) {
+                long left = (long) x * width;
+                long right = left + width;
+                int fromX = (int) (left / newWidth);
+                int toX = (int) ((right - 1) / newWidth);
+
+                long total = 0;
+                long alpha = 0;
+                long red = 0;
+                long green = 0;
+                long blue = 0;
+                for (int sourceY = fromY; sourceY <= toY; sourceY++) {
+                    long weightY = Math.min((sourceY + 1L) * newHeight, bottom) - Math.max((long) sourceY * newHeight, top);
+                    int row = sourceY * width;
+                    for (int sourceX = fromX; sourceX <= toX; sourceX++) {
+                        long weight = weightY * (Math.min((sourceX + 1L) * newWidth, right) - Math.max((long) sourceX * newWidth, left));
+                        int pixel = pixels[row + sourceX];
+                        long weightedAlpha = weight * (pixel >>> 24);
+
+                        total += weight;
+                        alpha += weightedAlpha;
+                        red += weightedAlpha * ((pixel >> 16) & 0xff);
+                        green += weightedAlpha * ((pixel >> 8) & 0xff);
+                        blue += weightedAlpha * (pixel & 0xff);
+                    }
+                }
+
+                if (alpha != 0) {
+                    result.pixels[y * newWidth + x] = argb((int) ((alpha + total / 2) / total),
+                            (int) ((red + alpha / 2) / alpha), (int) ((green + alpha / 2) / alpha), (int) ((blue + alpha / 2) / alpha));
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * @return A grayscale copy of the buffer
+     */
+    public PixelBuffer grayscale() {
+        PixelBuffer result = new PixelBuffer(width, height);
+        for (int i = 0; i < pixels.length; i++) {
+            int pixel = pixels[i];
+            int grey = gray(pixel);
+            result.pixels[i] = argb(pixel >>> 24, grey, grey, grey);
+        }
+
+        return result;
+    }
+
+    /**
+     * Tint a grayscale copy of the buffer by the given colour
+     *
+     * @param color Color to tint
+     * @return Tinted buffer
+     */
+    public PixelBuffer colorize(Color color) {
+        PixelBuffer result = new PixelBuffer(width, height);
+        int red = color.getRed();
+        int green = color.getGreen();
+        int blue = color.getBlue();
+        for (int i = 0; i < pixels.length; i++) {
+            int pixel = pixels[i];
+            int grey = gray(pixel);
+            result.pixels[i] = argb(pixel >>> 24, Math.round(grey / 255f * red), Math.round(grey / 255f * green), Math.round(grey / 255f * blue));
+        }
+
+        return result;
+    }
+
+    /**
+     * Multiply every pixel of the buffer by the given colour
+     *
+     * @param color Color to tint
+     * @return Tinted buffer
+     */
+    public PixelBuffer tint(Color color) {
+        PixelBuffer result = new PixelBuffer(width, height);
+        int red = color.getRed();
+        int green = color.getGreen();
+        int blue = color.getBlue();
+        for (int i = 0; i < pixels.length; i++) {
+            int pixel = pixels[i];
+            result.pixels[i] = argb(pixel >>> 24, Math.round(((pixel >> 16) & 0xff) / 255f * red),
+                    Math.round(((pixel >> 8) & 0xff) / 255f * green), Math.round((pixel & 0xff) / 255f * blue));
+        }
+
+        return result;
+    }
+
+    /**
+     * Alter the saturation of the buffer by a given amount
+     *
+     * @param amount Amount to alter the saturation by
+     * @return Saturated buffer
+     */
+    public PixelBuffer saturate(int amount) {
+        PixelBuffer result = new PixelBuffer(width, height);
+        float[] hsb = new float[3];
+        for (int i = 0; i < pixels.length; i++) {
+            int pixel = pixels[i];
+            Color.RGBtoHSB((pixel >> 16) & 0xff, (pixel >> 8) & 0xff, pixel & 0xff, hsb);
+            int rgb = Color.HSBtoRGB(hsb[0], Math.max(0f, hsb[1] + (amount / 100f)), hsb[2]);
+            result.pixels[i] = (pixel & 0xff000000) | (rgb & 0xffffff);
+        }
+
+        return result;
+    }
+
+    /**
+     * Flip the buffer
+     *
+     * @param horizontal If true the buffer will be flipped horizontally
+     * @param vertical If true the buffer will be flipped vertically
+     * @return The flipped buffer
+     */
+    public PixelBuffer flip(boolean horizontal, boolean vertical) {
+        PixelBuffer result = new PixelBuffer(width, height);
+        for (int y = 0; y < height; y++) {
+            int from = (vertical ? height - 1 - y : y) * width;
+            int to = y * width;
+            if (horizontal) {
+                for (int x = 0; x < width; x++) {
+                    result.pixels[to + x] = pixels[from + width - 1 - x];
+                }
+            } else {
+                System.arraycopy(pixels, from, result.pixels, to, width);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Rotate the buffer counterclockwise by a multiple of 90 degrees
+     *
+     * @param angle Amount to rotate by in degrees
+     * @return Rotated buffer
+     * @throws IllegalArgumentException if the angle is not a multiple of 90
+     */
+    public PixelBuffer rotate(int angle) {
+        if (angle % 90 != 0) {
+            throw new IllegalArgumentException("Only multiples of 90 degrees can be rotated losslessly, got " + angle);
+        }
+
+        switch (Math.floorMod(angle, 360)) {
+            case 90: {
+                PixelBuffer result = new PixelBuffer(height, width);
+                for (int y = 0; y < height; y++) {
+                    for (int x = 0; x < width; x++) {
+                        result.pixels[(width - 1 - x) * height + y] = pixels[y * width + x];
+                    }
+                }
+                return result;
+            }
+            case 180:
+                return flip(true, true);
+            case 270: {
+                PixelBuffer result = new PixelBuffer(height, width);
+                for (int y = 0; y < height; y++) {
+                    for (int x = 0; x < width; x++) {
+                        result.pixels[x * height + (height - 1 - y)] = pixels[y * width + x];
+                    }
+                }
+                return result;
+            }
+            default:
+                return new PixelBuffer(width, height, pixels.clone());
+        }
+    }
+
+    /**
+     * Create a new buffer from a border image, stretching the edges and centre to fit
+     *
+     * @param borderLeft Left border width
+     * @param borderTop Top border width
+     * @param borderRight Right border width
+     * @param borderBottom Bottom border width
+     * @param newWidth Target width
+     * @param newHeight Target height
+     * @return The converted buffer
+     */
+    public PixelBuffer border(int borderLeft, int borderTop, int borderRight, int borderBottom, int newWidth, int newHeight) {
+        PixelBuffer result = new PixelBuffer(newWidth, newHeight);
+
+        int centerWidth = width - borderLeft - borderRight;
+        int centerHeight = height - borderTop - borderBottom;
+        int newCenterWidth = newWidth - borderLeft - borderRight;
+        int newCenterHeight = newHeight - borderTop - borderBottom;
+
+        result.draw(crop(0, 0, borderLeft, borderTop), 0, 0);
+        result.draw(crop(borderLeft, 0, centerWidth, borderTop).resize(newCenterWidth, borderTop), borderLeft, 0);
+        result.draw(crop(width - borderRight, 0, borderRight, borderTop), newWidth - borderRight, 0);
+
+        result.draw(crop(0, borderTop, borderLeft, centerHeight).resize(borderLeft, newCenterHeight), 0, borderTop);
+        result.draw(crop(borderLeft, borderTop, centerWidth, centerHeight).resize(newCenterWidth, newCenterHeight), borderLeft, borderTop);
+        result.draw(crop(width - borderRight, borderTop, borderRight, centerHeight).resize(borderRight, newCenterHeight), newWidth - borderRight, borderTop);
+
+        result.draw(crop(0, height - borderBottom, borderLeft, borderBottom), 0, newHeight - borderBottom);
+        result.draw(crop(borderLeft, height - borderBottom, centerWidth, borderBottom).resize(newCenterWidth, borderBottom), borderLeft, newHeight - borderBottom);
+        result.draw(crop(width - borderRight, height - borderBottom, borderRight, borderBottom), newWidth - borderRight, newHeight - borderBottom);
+
+        return result;
+    }
+
+    /**
+     * Check if a given area only contains fully transparent pixels
+     *
+     * @param x Start X
+     * @param y Start Y
+     * @param width Check width
+     * @param height Check height
+     * @return True if the area is empty
+     */
+    public boolean isEmptyArea(int x, int y, int width, int height) {
+        for (int row = y; row < y + height; row++) {
+            int offset = row * this.width;
+            for (int column = x; column < x + width; column++) {
+                if ((pixels[offset + column] >>> 24) != 0) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Make an area of the buffer fully transparent
+     *
+     * @param x Start X
+     * @param y Start Y
+     * @param width Area width
+     * @param height Area height
+     */
+    public void clear(int x, int y, int width, int height) {
+        int fromX = Math.max(x, 0);
+        int toX = Math.min(x + width, this.width);
+        if (fromX >= toX) {
+            return;
+        }
+
+        for (int row = Math.max(y, 0); row < Math.min(y + height, this.height); row++) {
+            Arrays.fill(pixels, row * this.width + fromX, row * this.width + toX, 0);
+        }
+    }
+
+    /**
+     * Draw another buffer over this one, blending translucent pixels
+     *
+     * @param source Buffer to draw
+     * @param x Target X
+     * @param y Target Y
+     */
+    public void draw(PixelBuffer source, int x, int y) {
+        draw(source, 0, 0, source.width, source.height, x, y);
+    }
+
+    /**
+     * Draw an area of another buffer over this one, blending translucent pixels.
+     * Anything outside of either buffer is skipped.
+     *
+     * @param source Buffer to draw
+     * @param sourceX Start X in the source
+     * @param sourceY Start Y in the source
+     * @param width Area width
+     * @param height Area height
+     * @param x Target X
+     * @param y Target Y
+     */
+    public void draw(PixelBuffer source, int sourceX, int sourceY, int width, int height, int x, int y) {
+        if (source == this) {
+            // Copy the area first in case it overlaps with the target
+            draw(crop(sourceX, sourceY, width, height), x, y);
+            return;
+        }
+
+        int fromX = Math.max(0, Math.max(-sourceX, -x));
+        int fromY = Math.max(0, Math.max(-sourceY, -y));
+        int toX = Math.min(width, Math.min(source.width - sourceX, this.width - x));
+        int toY = Math.min(height, Math.min(source.height - sourceY, this.height - y));
+
+        for (int row = fromY; row < toY; row++) {
+            int from = (sourceY + row) * source.width + sourceX;
+            int to = (y + row) * this.width + x;
+            for (int column = fromX; column < toX; column++) {
+                int pixel = source.pixels[from + column];
+                int alpha = pixel >>> 24;
+                if (alpha == 0xff) {
+                    pixels[to + column] = pixel;
+                } else if (alpha != 0) {
+                    pixels[to + column] = blend(pixel, pixels[to + column]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Draw a source pixel over a target pixel
+     *
+     * @param source Translucent ARGB pixel
+     * @param target ARGB pixel below it
+     * @return Blended ARGB pixel
+     */
+    private static int blend(int source, int target) {
+        int sourceAlpha = source >>> 24;
+        int targetAlpha = ((target >>> 24) * (255 - sourceAlpha) + 127) / 255;
+        int alpha = sourceAlpha + targetAlpha;
+
+        return argb(alpha,
+                (((source >> 16) & 0xff) * sourceAlpha + ((target >> 16) & 0xff) * targetAlpha + alpha / 2) / alpha,
+                (((source >> 8) & 0xff) * sourceAlpha + ((target >> 8) & 0xff) * targetAlpha + alpha / 2) / alpha,
+                ((source & 0xff) * sourceAlpha + (target & 0xff) * targetAlpha + alpha / 2) / alpha);
+    }
+
+    private static int gray(int pixel) {
+        return Math.round(0.2126f * ((pixel >> 16) & 0xff) + 0.7152f * ((pixel >> 8) & 0xff) + 0.0722f * (pixel & 0xff));
+    }
+
+    private static int argb(int alpha, int red, int green, int blue) {
+        return (alpha << 24) | (red << 16) | (green << 8) | blue;
+    }
+}
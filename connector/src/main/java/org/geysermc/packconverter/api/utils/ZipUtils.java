@@ -28,11 +28,13 @@ package org.geysermc.packconverter.api.utils;
 
 import org.geysermc.packconverter.api.PackConverter;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
@@ -53,45 +55,23 @@ public class ZipUtils {
     }
 
     public void zipIt(String zipFile) {
-        byte[] buffer = new byte[1024];
-        String source = sourceFolder.getName();
-        FileOutputStream fos = null;
-        ZipOutputStream zos = null;
-        try {
-            fos = new FileOutputStream(zipFile);
-            zos = new ZipOutputStream(fos);
-
+        try (ZipOutputStream zos = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(zipFile), 65536))) {
             packConverter.log("Output to zip " + zipFile);
-            FileInputStream in = null;
 
             for (String file: this.fileList) {
                 packConverter.log("File added " + file);
-                ZipEntry ze = new ZipEntry(file);
-                zos.putNextEntry(ze);
-                try {
-                    in = new FileInputStream(sourceFolder + File.separator + file);
-                    int len;
-                    while ((len = in .read(buffer)) > 0) {
-                        zos.write(buffer, 0, len);
-                    }
-                } finally {
-                    if (in != null)
-                        in.close();
-                }
+                // Zip entries always use forward slashes
+                zos.putNextEntry(new ZipEntry(file.replace(File.separatorChar, '/')));
+                Files.copy(sourceFolder.toPath().resolve(file), zos);
+                zos.closeEntry();
             }
 
-            zos.closeEntry();
             packConverter.log("Folder successfully compressed");
-            packConverter.cleanup();
         } catch (IOException ex) {
             ex.printStackTrace();
-        } finally {
-            try {
-                zos.close();
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
+            return;
         }
+        packConverter.cleanup();
     }
 
     public void generateFileList() {
@@ -107,6 +87,8 @@ public class ZipUtils {
 
         if (node.isDirectory()) {
             String[] subNote = node.list();
+            // Keep the entry order independent of the order the converters created the files in
+            Arrays.sort(subNote);
             for (String filename : subNote) {
                 generateFileList(new File(node, filename));
             }
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2019-2021 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.connector.network.translators.world.chunk;
+
+import com.github.steveice10.mc.protocol.data.game.chunk.Chunk;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class CachedChunkSectionTest {
+
+    @Test
+    public void testSingle() {
+        CachedChunkSection section = CachedChunkSection.single(7);
+        for (int index = 0; index < 4096; index++) {
+            Assert.assertEquals(7, get(section, index));
+        }
+
+        // Setting the same state must not need any storage
+        section.set(3, 4, 5, 7);
+        Assert.assertEquals(7, section.get(3, 4, 5));
+    }
+
+    @Test
+    public void testFromListPalette() {
+        Random random = new Random(1);
+        Chunk chunk = new Chunk();
+        int[] expected = new int[4096];
+        for (int index = 0; index < 4096; index++) {
+            expected[index] = 1 + random.nextInt(12);
+            chunk.set(index & 0xF, index >> 8, (index >> 4) & 0xF, expected[index]);
+        }
+
+        assertSection(expected, CachedChunkSection.from(chunk));
+    }
+
+    @Test
+    public void testFromGlobalPalette() {
+        Random random = new Random(2);
+        Chunk chunk = new Chunk();
+        int[] expected = new int[4096];
+        for (int index = 0; index < 4096; index++) {
+            // Enough states that the chunk switches to the global palette
+            expected[index] = 1 + random.nextInt(1000);
+            chunk.set(index & 0xF, index >> 8, (index >> 4) & 0xF, expected[index]);
+        }
+
+        assertSection(expected, CachedChunkSection.from(chunk));
+    }
+
+    @Test
+    public void testFromSingleState() {
+        Chunk chunk = new Chunk();
+        for (int index = 0; index < 4096; index++) {
+            chunk.set(index & 0xF, index >> 8, (index >> 4) & 0xF, 9);
+        }
+
+        // The air the chunk started with is still in its palette
+        int[] expected = new int[4096];
+        Arrays.fill(expected, 9);
+        assertSection(expected, CachedChunkSection.from(chunk));
+    }
+
+    @Test
+    public void testFromOutOfRangeIds() {
+        Chunk chunk = new Chunk();
+        int[] expected = new int[4096];
+        for (int index = 0; index < 4096; index++) {
+            expected[index] = 1 + index % 3;
+            chunk.set(index & 0xF, index >> 8, (index >> 4) & 0xF, expected[index]);
+        }
+        // IDs past the end of the palette, as some servers send, are read as air
+        chunk.getStorage().set(5, 14);
+        chunk.getStorage().set(4095, 15);
+        expected[5] = 0;
+        expected[4095] = 0;
+
+        CachedChunkSection section = CachedChunkSection.from(chunk);
+        assertSection(expected, section);
+
+        // The extra air entry must still allow new states to be added
+        set(section, 6, 100);
+        expected[6] = 100;
+        assertSection(expected, section);
+    }
+
+    @Test
+    public void testFromSingleStateWithOutOfRangeIds() {
+        Chunk chunk = new Chunk();
+        int[] expected = new int[4096];
+        Arrays.fill(expected, 9);
+        for (int index = 0; index < 4096; index++) {
+            chunk.set(index & 0xF, index >> 8, (index >> 4) & 0xF, 9);
+        }
+        chunk.getStorage().set(7, 12);
+        expected[7] = 0;
+
+        assertSection(expected, CachedChunkSection.from(chunk));
+    }
+
+    @Test
+    public void testGrow() {
+        CachedChunkSection section = CachedChunkSection.single(0);
+        int[] expected = new int[4096];
+        // Each new state is written to its own block, crossing every bits per entry up to 10
+        for (int state = 1; state < 600; state++) {
+            int index = (state * 7) % 4096;
+            expected[index] = state;
+            set(section, index, state);
+
+            if (Integer.bitCount(state) == 1 || Integer.bitCount(state + 1) == 1) {
+                // Just before and after the palette needs another bit
+                assertSection(expected, section);
+            }
+        }
+        assertSection(expected, section);
+
+        // Existing states are written in place
+        for (int index = 0; index < 4096; index++) {
+            expected[index] = 1 + index % 599;
+            set(section, index, expected[index]);
+        }
+        assertSection(expected, section);
+    }
+
+    @Test
+    public void testCopy() {
+        CachedChunkSection section = CachedChunkSection.single(0);
+        section.set(1, 2, 3, 4);
+        CachedChunkSection copy = section.copy();
+        Assert.assertEquals(section, copy);
+        Assert.assertEquals(section.hashCode(), copy.hashCode());
+
+        copy.set(1, 2, 3, 0);
+        copy.set(4, 5, 6, 8);
+        Assert.assertEquals(4, section.get(1, 2, 3));
+        Assert.assertEquals(0, section.get(4, 5, 6));
+        Assert.assertEquals(0, copy.get(1, 2, 3));
+        Assert.assertEquals(8, copy.get(4, 5, 6));
+        Assert.assertNotEquals(section, copy);
+    }
+
+    private static void assertSection(int[] expected, CachedChunkSection section) {
+        for (int index = 0; index < 4096; index++) {
+            Assert.assertEquals("Block " + index, expected[index], get(section, index));
+        }
+    }
+
+    private static int get(CachedChunkSection section, int index) {
+        return section.get(index & 0xF, index >> 8, (index >> 4) & 0xF);
+    }
+
+    private static void set(CachedChunkSection section, int index, int state) {
+        section.set(index & 0xF, index >> 8, (index >> 4) & 0xF, state);
+    }
+}
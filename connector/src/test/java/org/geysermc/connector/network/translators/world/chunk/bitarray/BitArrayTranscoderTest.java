@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2019-2021 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.connector.network.translators.world.chunk.bitarray;
+
+import com.github.steveice10.mc.protocol.data.game.chunk.BitStorage;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * Compares {@link BitArrayTranscoder} against repaletting each block through {@link BitStorage#get(int)}
+ * and {@link BitArray#set(int, int)}, as {@link org.geysermc.connector.utils.ChunkUtils} used to
+ */
+public class BitArrayTranscoderTest {
+    private static final int SIZE = BitArrayTranscoder.SECTION_SIZE;
+
+    @Test
+    public void testUnpack() {
+        Random random = new Random(1);
+        // Includes widths whose entries do not fill a long, so the last long is only partly used
+        for (int javaBits = 1; javaBits <= 16; javaBits++) {
+            BitStorage storage = randomStorage(random, javaBits, javaBits);
+            int[] blocks = new int[SIZE];
+            BitArrayTranscoder.unpack(storage, blocks);
+            for (int index = 0; index < SIZE; index++) {
+                Assert.assertEquals("Bits " + javaBits + ", block " + index, storage.get(index), blocks[index]);
+            }
+        }
+    }
+
+    @Test
+    public void testPackPermuted() {
+        Random random = new Random(2);
+        for (int javaBits = 1; javaBits <= 16; javaBits++) {
+            // Includes the padded Bedrock versions, whose widths do not divide 32
+            for (BitArrayVersion version : BitArrayVersion.values()) {
+                BitStorage storage = randomStorage(random, javaBits, Math.min(javaBits, version.getId()));
+                int[] blocks = new int[SIZE];
+                BitArrayTranscoder.unpack(storage, blocks);
+
+                BitArray expected = version.createArray(SIZE);
+                for (int x = 0; x < 16; x++) {
+                    for (int y = 0; y < 16; y++) {
+                        for (int z = 0; z < 16; z++) {
+                            expected.set(x << 8 | z << 4 | y, storage.get(y << 8 | z << 4 | x));
+                        }
+                    }
+                }
+
+                BitArray actual = version.createArray(SIZE);
+                BitArrayTranscoder.packPermuted(blocks, actual);
+                Assert.assertArrayEquals("Java bits " + javaBits + ", Bedrock bits " + version.getId(),
+                        expected.getWords(), actual.getWords());
+            }
+        }
+    }
+
+    @Test
+    public void testPackFlagsPermuted() {
+        Random random = new Random(3);
+        for (int javaBits = 1; javaBits <= 16; javaBits++) {
+            int paletteSize = Math.min(1 << javaBits, 64);
+            BitStorage storage = randomStorage(random, javaBits, 31 - Integer.numberOfLeadingZeros(paletteSize));
+            int[] blocks = new int[SIZE];
+            BitArrayTranscoder.unpack(storage, blocks);
+
+            boolean[] flags = new boolean[paletteSize];
+            for (int i = 0; i < flags.length; i++) {
+                flags[i] = random.nextBoolean();
+            }
+
+            BitArray expected = BitArrayVersion.V1.createArray(SIZE);
+            for (int x = 0; x < 16; x++) {
+                for (int y = 0; y < 16; y++) {
+                    for (int z = 0; z < 16; z++) {
+                        expected.set(x << 8 | z << 4 | y, flags[storage.get(y << 8 | z << 4 | x)] ? 1 : 0);
+                    }
+                }
+            }
+
+            Assert.assertArrayEquals("Java bits " + javaBits, expected.getWords(),
+                    BitArrayTranscoder.packFlagsPermuted(blocks, flags));
+        }
+    }
+
+    @Test
+    public void testPackFlagsPermutedOutOfRange() {
+        // Palette IDs past the end of the flags, as a section with a short palette may contain, are never flagged
+        Random random = new Random(4);
+        BitStorage storage = randomStorage(random, 4, 4);
+        int[] blocks = new int[SIZE];
+        BitArrayTranscoder.unpack(storage, blocks);
+
+        boolean[] flags = {true, false, true};
+        BitArray expected = BitArrayVersion.V1.createArray(SIZE);
+        for (int x = 0; x < 16; x++) {
+            for (int y = 0; y < 16; y++) {
+                for (int z = 0; z < 16; z++) {
+                    int id = storage.get(y << 8 | z << 4 | x);
+                    expected.set(x << 8 | z << 4 | y, id < flags.length && flags[id] ? 1 : 0);
+                }
+            }
+        }
+
+        Assert.assertArrayEquals(expected.getWords(), BitArrayTranscoder.packFlagsPermuted(blocks, flags));
+    }
+
+    /**
+     * @param valueBits how many bits of each entry to fill, which must be at most the storage's bits per entry
+     */
+    private static BitStorage randomStorage(Random random, int bitsPerEntry, int valueBits) {
+        BitStorage storage = new BitStorage(bitsPerEntry, SIZE);
+        for (int index = 0; index < SIZE; index++) {
+            storage.set(index, random.nextInt(1 << valueBits));
+        }
+        return storage;
+    }
+}
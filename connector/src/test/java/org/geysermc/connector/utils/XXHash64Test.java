@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2019-2021 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.connector.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public class XXHash64Test {
+
+    @Test
+    public void testKnownStrings() {
+        // Published xxHash test vectors for a seed of 0
+        Assert.assertEquals(0xEF46DB3751D8E999L, hash(""));
+        Assert.assertEquals(0xD24EC4F1A98C6E5BL, hash("a"));
+        Assert.assertEquals(0x44BC2CF5AD770999L, hash("abc"));
+        Assert.assertEquals(0xFBCEA83C8A378BF1L, hash("Nobody inspects the spammish repetition"));
+    }
+
+    @Test
+    public void testLengths() {
+        // Covers the 32 byte stripes and each of the 8, 4 and 1 byte tails
+        byte[] data = data();
+        int[] lengths = {1, 3, 4, 7, 8, 15, 16, 31, 32, 33, 63, 64, 100, 255};
+        long[] expected = {
+                0xA96C7F0CE858BBB7L, 0x56E6957632A487F9L, 0xC60D15B1E3FF8F04L, 0xAFBEFC3D6C6F9A8EL,
+                0x3DA5C7AA269683E0L, 0xAE2A37EB9357CAA7L, 0xA19AD429B02BC413L, 0x4A74F3A1A39AD4A1L,
+                0x8D57D6A4671CC43DL, 0x62C9FD21ED857664L, 0x5C320A0D2707057FL, 0x7BBABBC45729D17EL,
+                0xEFA0AD2D3E70C151L, 0x2C3DB4BB567F731EL
+        };
+        for (int i = 0; i < lengths.length; i++) {
+            Assert.assertEquals("Length " + lengths[i], expected[i], XXHash64.hash(data, 0, lengths[i]));
+            Assert.assertEquals("Length " + lengths[i], expected[i], XXHash64.hash(Arrays.copyOf(data, lengths[i])));
+        }
+    }
+
+    @Test
+    public void testOffset() {
+        byte[] data = data();
+        Assert.assertEquals(0xFB6CA0D98FCB7B8BL, XXHash64.hash(data, 5, 100));
+        Assert.assertEquals(XXHash64.hash(Arrays.copyOfRange(data, 5, 105)), XXHash64.hash(data, 5, 100));
+    }
+
+    private static long hash(String value) {
+        return XXHash64.hash(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] data() {
+        byte[] data = new byte[256];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i * 31 + 7);
+        }
+        return data;
+    }
+}
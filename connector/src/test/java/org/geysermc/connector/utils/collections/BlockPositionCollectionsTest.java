@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2019-2021 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.connector.utils.collections;
+
+import com.nukkitx.math.vector.Vector3i;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class BlockPositionCollectionsTest {
+    /**
+     * Covers negative coordinates, chunk edges, and the lowest and highest Y a Java world can have
+     */
+    private final Vector3i[] positions = new Vector3i[] {
+            Vector3i.from(0, 0, 0),
+            Vector3i.from(15, 255, 15),
+            Vector3i.from(16, 64, 16),
+            Vector3i.from(-1, 64, -1),
+            Vector3i.from(-16, -64, -16),
+            Vector3i.from(-17, 319, 17),
+            Vector3i.from(5, -2032, 5),
+            Vector3i.from(5, 2031, 5),
+            Vector3i.from(-30_000_000, 70, 30_000_000),
+            Vector3i.from(29_999_999, 70, -29_999_999)
+    };
+
+    @Test
+    public void testMap() {
+        BlockPositionMap<String> map = new BlockPositionMap<>();
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertNull(map.get(positions[0]));
+
+        for (int i = 0; i < positions.length; i++) {
+            Assert.assertNull(map.put(positions[i], Integer.toString(i)));
+            Assert.assertEquals(i + 1, map.size());
+        }
+        for (int i = 0; i < positions.length; i++) {
+            Assert.assertEquals(Integer.toString(i), map.get(positions[i]));
+        }
+
+        // Positions that only differ from a stored one in a single axis, or that wrap into it, must not be found
+        Assert.assertNull(map.get(Vector3i.from(0, 1, 0)));
+        Assert.assertNull(map.get(Vector3i.from(0, 0, 16)));
+        Assert.assertNull(map.get(Vector3i.from(15, -1, 15)));
+        Assert.assertNull(map.get(Vector3i.from(-1, 65, -1)));
+        Assert.assertNull(map.get(Vector3i.from(5, -2031, 5)));
+
+        Assert.assertEquals("0", map.put(positions[0], "replaced"));
+        Assert.assertEquals(positions.length, map.size());
+        Assert.assertEquals("replaced", map.get(positions[0]));
+
+        Assert.assertFalse(map.remove(positions[1], "wrong"));
+        Assert.assertTrue(map.remove(positions[1], "1"));
+        Assert.assertNull(map.get(positions[1]));
+        Assert.assertEquals(positions.length - 1, map.size());
+
+        Assert.assertEquals("3", map.remove(positions[3]));
+        Assert.assertNull(map.remove(positions[3]));
+        Assert.assertNull(map.get(positions[3]));
+        Assert.assertEquals(positions.length - 2, map.size());
+
+        List<String> values = new ArrayList<>();
+        map.forEach(values::add);
+        Assert.assertEquals(positions.length - 2, values.size());
+
+        map.clear();
+        Assert.assertTrue(map.isEmpty());
+        for (Vector3i position : positions) {
+            Assert.assertNull(map.get(position));
+        }
+    }
+
+    @Test
+    public void testMapRemoveChunk() {
+        BlockPositionMap<String> map = new BlockPositionMap<>();
+        map.put(Vector3i.from(-16, -64, -16), "a");
+        map.put(Vector3i.from(-1, 319, -1), "b");
+        map.put(Vector3i.from(-17, 64, -1), "c");
+        map.put(Vector3i.from(0, 64, 0), "d");
+
+        Collection<String> removed = map.removeChunk(-1, -1);
+        Assert.assertEquals(2, removed.size());
+        Assert.assertTrue(removed.contains("a"));
+        Assert.assertTrue(removed.contains("b"));
+        Assert.assertEquals(2, map.size());
+        Assert.assertNull(map.get(Vector3i.from(-16, -64, -16)));
+        Assert.assertEquals("c", map.get(Vector3i.from(-17, 64, -1)));
+        Assert.assertEquals("d", map.get(Vector3i.from(0, 64, 0)));
+
+        Assert.assertTrue(map.removeChunk(-1, -1).isEmpty());
+        Assert.assertEquals(2, map.size());
+    }
+
+    @Test
+    public void testSet() {
+        BlockPositionSet set = new BlockPositionSet();
+        for (Vector3i position : positions) {
+            Assert.assertTrue(set.add(position));
+            Assert.assertFalse(set.add(position));
+        }
+        for (Vector3i position : positions) {
+            Assert.assertTrue(set.contains(position));
+        }
+        Assert.assertFalse(set.contains(Vector3i.from(0, 1, 0)));
+        Assert.assertFalse(set.contains(Vector3i.from(15, -1, 15)));
+        Assert.assertFalse(set.contains(Vector3i.from(5, -2031, 5)));
+
+        Assert.assertTrue(set.remove(positions[4]));
+        Assert.assertFalse(set.remove(positions[4]));
+        Assert.assertFalse(set.contains(positions[4]));
+
+        // -1, 64, -1 is in the same chunk as -16, -64, -16
+        set.add(positions[4]);
+        set.removeChunk(-1, -1);
+        Assert.assertFalse(set.contains(positions[3]));
+        Assert.assertFalse(set.contains(positions[4]));
+        Assert.assertTrue(set.contains(positions[5]));
+
+        set.clear();
+        for (Vector3i position : positions) {
+            Assert.assertFalse(set.contains(position));
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2019-2021 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.packconverter.api.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Checks that {@link BedrockModelMapper} writes the same files as the JQ filters it replaced
+ */
+public class BedrockModelMapperTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * Uneven sizes, tiny UV offsets, shared and zero rotations and every display setting
+     */
+    private static final String BLADE = """
+            {"textures": {"0": "item/blade", "particle": "item/blade"},
+             "elements": [
+              {"from": [7.5, 0, 7.5], "to": [8.5, 12.25, 8.5], "faces": {"north": {"uv": [0, 0, 1, 12.25], "texture": "#0"}, "south": {"uv": [1, 0, 2, 12.25], "texture": "#0"}, "up": {"uv": [0.001, 0, 1e-5, 1], "texture": "#particle"}}},
+              {"from": [6.0, 12.0, 7.75], "to": [10.0, 13.0, 8.25], "rotation": {"angle": 0, "axis": "y", "origin": [8, 12.5, 8]}, "faces": {"east": {"uv": [2, 0, 6, 1], "texture": "#0"}, "down": {"uv": [2, 1, 6, 1.5], "texture": "#0"}}},
+              {"from": [7.8, 13, 7.8], "to": [8.2, 16.0001, 8.2], "rotation": {"angle": -22.5, "axis": "z", "origin": [8, 13, 8.0]}, "faces": {"west": {"uv": [6, 0, 6.4, 3], "texture": "#0"}}}
+             ],
+             "display": {
+              "thirdperson_righthand": {"rotation": [0, -90, 55], "translation": [0, 4.0, 0.5], "scale": [0.85, 0.85, 0.85]},
+              "thirdperson_lefthand": {"rotation": [0, 90, -55], "translation": [0, 4.0, 0.5], "scale": [0.85, 0.85, 0.85]},
+              "firstperson_righthand": {"rotation": [0, -90, 25], "translation": [1.13, 3.2, 1.13], "scale": [0.68, 0.68, 0.68]},
+              "firstperson_lefthand": {"rotation": [0, 90, -25], "translation": [1.13, 3.2, 1.13], "scale": [0.68, 0.68, 0.68]},
+              "head": {"rotation": [0, 180, 0], "translation": [0, 13.5, 7e-5], "scale": [1.6, 1.6, 1.6]}
+             }}
+            """;
+
+    /**
+     * Several textures and two elements with the same rotation
+     */
+    private static final String CRATE = """
+            {"textures": {"side": "block/crate_side", "top": "block/crate_top", "particle": "block/crate_side"},
+             "elements": [
+              {"from": [0, 0, 0], "to": [16, 16, 16], "faces": {"north": {"uv": [0, 0, 16, 16], "texture": "#side"}, "east": {"uv": [0, 0, 16, 16], "texture": "#side"}, "south": {"uv": [0, 0, 16, 16], "texture": "#side"}, "west": {"uv": [0, 0, 16, 16], "texture": "#side"}, "up": {"uv": [0, 0, 16, 16], "texture": "#top"}, "down": {"uv": [0, 0, 16, 16], "texture": "#top"}}},
+              {"from": [2, 16, 2], "to": [14, 17.5, 14], "rotation": {"angle": 45, "axis": "x", "origin": [8, 16, 8]}, "faces": {"up": {"uv": [2, 2, 14, 14], "texture": "#top"}}},
+              {"from": [3, 16, 3], "to": [13, 17, 13], "rotation": {"angle": 45, "axis": "x", "origin": [8, 16, 8]}, "faces": {"up": {"uv": [3, 3, 13, 13], "texture": "#top"}}}
+             ],
+             "display": {"head": {"translation": [0, -0.25, 0]}, "firstperson_righthand": {"scale": [0.4, 0.4, 0.4]}}}
+            """;
+
+    /**
+     * A single thin element without any display settings
+     */
+    private static final String FLAT = """
+            {"textures": {"layer0": "item/flat"},
+             "elements": [{"from": [0, 0, 7.9999], "to": [16, 16, 8.0001], "faces": {"north": {"uv": [16, 0, 0, 16], "texture": "#layer0"}, "south": {"uv": [0, 0, 16, 16], "texture": "#layer0"}}}]}
+            """;
+
+    @Test
+    public void testFormatNumber() {
+        // As printed by jq 1.6
+        Assert.assertEquals("0", BedrockModelMapper.formatNumber(0));
+        Assert.assertEquals("-0", BedrockModelMapper.formatNumber(-0d));
+        Assert.assertEquals("8", BedrockModelMapper.formatNumber(8));
+        Assert.assertEquals("-22.5", BedrockModelMapper.formatNumber(-22.5));
+        Assert.assertEquals("0.30000000000000004", BedrockModelMapper.formatNumber(0.1 + 0.2));
+        Assert.assertEquals("0.0001", BedrockModelMapper.formatNumber(0.0001));
+        Assert.assertEquals("1e-05", BedrockModelMapper.formatNumber(0.00001));
+        Assert.assertEquals("1.2e-05", BedrockModelMapper.formatNumber(0.000012));
+        Assert.assertEquals("1000000000000000", BedrockModelMapper.formatNumber(1e15));
+        Assert.assertEquals("1e+16", BedrockModelMapper.formatNumber(1e16));
+        Assert.assertEquals("12000000000000000", BedrockModelMapper.formatNumber(12e15));
+        Assert.assertEquals("1.234e+19", BedrockModelMapper.formatNumber(1234e16));
+        Assert.assertEquals("5e-324", BedrockModelMapper.formatNumber(Double.MIN_VALUE));
+        Assert.assertEquals("1.7976931348623157e+308", BedrockModelMapper.formatNumber(Double.MAX_VALUE));
+    }
+
+    @Test
+    public void testMatchesJq() throws Exception {
+        String[][] models = {{"blade", BLADE}, {"crate", CRATE}, {"flat", FLAT}};
+        for (String[] model : models) {
+            String name = model[0];
+            JsonNode input = MAPPER.readTree(model[1]);
+
+            Assert.assertEquals(name + " geometry", jq(input, CustomModelDataHandler.GEOMETRY_FILTER, name),
+                    MAPPER.writeValueAsString(BedrockModelMapper.geometry(input, name)));
+            Assert.assertEquals(name + " animations", jq(input, CustomModelDataHandler.ANIMATIONS_FILTER, name),
+                    MAPPER.writeValueAsString(BedrockModelMapper.animations(input, name)));
+
+            // The fallback goes through Jackson too, and has to keep JQ's formatting
+            Assert.assertEquals(name + " geometry fallback", jq(input, CustomModelDataHandler.GEOMETRY_FILTER, name),
+                    MAPPER.writeValueAsString(CustomModelDataHandler.applyFilter(MAPPER, input, CustomModelDataHandler.GEOMETRY_FILTER, name)));
+        }
+    }
+
+    /**
+     * Run a filter and compact its output the same way the old Gson round trip did
+     */
+    private static String jq(JsonNode model, String filter, String name) {
+        JsonNode input = MAPPER.createObjectNode().put("name", name).set("model", model);
+        String output = CustomModelDataHandler.JQToJson(MAPPER, input, ".name as $name | .model | " + filter);
+        Assert.assertNotNull(output);
+
+        StringBuilder compact = new StringBuilder();
+        boolean inString = false;
+        for (int i = 0; i < output.length(); i++) {
+            char c = output.charAt(i);
+            if (inString) {
+                compact.append(c);
+                if (c == '\\') {
+                    compact.append(output.charAt(++i));
+                } else if (c == '"') {
+                    inString = false;
+                }
+            } else if (!Character.isWhitespace(c)) {
+                compact.append(c);
+                inString = c == '"';
+            }
+        }
+        return compact.toString();
+    }
+}